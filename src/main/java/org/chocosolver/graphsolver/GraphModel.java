@@ -27,6 +27,7 @@
 
 package org.chocosolver.graphsolver;
 
+import org.chocosolver.graphsolver.cstrs.GraphStatistics;
 import org.chocosolver.graphsolver.cstrs.IGraphConstraintFactory;
 import org.chocosolver.graphsolver.search.strategy.GraphSearch;
 import org.chocosolver.graphsolver.variables.GraphVar;
@@ -45,6 +46,12 @@ import java.util.ArrayList;
  */
 public class GraphModel extends Model implements IGraphVarFactory, IGraphConstraintFactory {
 
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private GraphStatistics graphStatistics;
+
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
@@ -89,6 +96,32 @@ public class GraphModel extends Model implements IGraphVarFactory, IGraphConstra
 		return gvars.toArray(new GraphVar[gvars.size()]);
 	}
 
+	/**
+	 * Starts recording, per propagator, the filtering performed on graph variables of <code>this</code>
+	 * (disabled by default, as it slightly slows down propagation).
+	 * Filterings and failures are recorded for every propagator, but passes and times only cover
+	 * the incremental passes over graph deltas (from freeze to unfreeze of a delta monitor):
+	 * propagators which never read a delta (and coarse propagations) report zero passes and zero time.
+	 *
+	 * @return the statistics, updated during search
+	 */
+	public GraphStatistics recordGraphStatistics() {
+		if (graphStatistics == null) {
+			graphStatistics = new GraphStatistics(this);
+			for (GraphVar g : retrieveGraphVars()) {
+				g.setStatistics(graphStatistics);
+			}
+		}
+		return graphStatistics;
+	}
+
+	/**
+	 * @return the filtering statistics of graph variables, or null if they are not recorded
+	 */
+	public GraphStatistics getGraphStatistics() {
+		return graphStatistics;
+	}
+
 	@Override
 	public GraphModel _me() {
 		return this;
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 1999-2011, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * <p>
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the Ecole des Mines de Nantes nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * <p>
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver;
+
+import org.chocosolver.graphsolver.search.strategy.GraphSearch;
+import org.chocosolver.graphsolver.search.strategy.GraphStrategy;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.solver.ParallelPortfolio;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.search.strategy.Search;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Parallel portfolio dedicated to graph models.
+ * Each worker builds its own GraphModel (using the same construction function)
+ * and is given a different graph search strategy:
+ * <br> worker 0: MIN_COST (or MIN_DELTA_DEGREE if no cost matrix is given), complete search
+ * <br> worker 1: LEX
+ * <br> worker 2: MIN_DELTA_DEGREE
+ * <br> worker 3: MAX_P_DEGREE, with arc removal decisions
+ * <br> other workers: random nodes/arcs (RandomNode/RandomArc) with different seeds and restarts
+ * <br>
+ * If an LNS neighborhood factory is given, every worker but the first one uses LNS
+ * (the first worker remains complete so that optimality can be proven).
+ * Workers share the best objective bound and all stop as soon as one of them terminates
+ * (this relies on choco-solver's ParallelPortfolio).
+ */
+public class GraphPortfolio {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private static final int[] POLICIES = new int[]{
+			GraphSearch.MIN_COST, GraphSearch.LEX, GraphSearch.MIN_DELTA_DEGREE, GraphSearch.MAX_P_DEGREE
+	};
+
+	private Supplier<GraphModel> modelBuilder;
+	private EdgeCost costs;
+	private BiFunction<GraphModel, Integer, INeighbor> lnsFactory;
+	private int lnsFailLimit = 30;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates a portfolio helper
+	 *
+	 * @param modelBuilder function that creates a new (independent) instance of the model,
+	 *                     it is called once per worker, sequentially on the thread calling build()
+	 */
+	public GraphPortfolio(Supplier<GraphModel> modelBuilder) {
+		this.modelBuilder = modelBuilder;
+	}
+
+	//***********************************************************************************
+	// CONFIGURATION
+	//***********************************************************************************
+
+	/**
+	 * Sets a cost matrix, used by cost-based graph strategies
+	 * (only for graph variables having costMatrix.length nodes)
+	 *
+	 * @param costMatrix cost of every arc/edge
+	 * @return this
+	 */
+	public GraphPortfolio setCostMatrix(int[][] costMatrix) {
+		return setCosts(costMatrix == null ? null : EdgeCost.of(costMatrix));
+	}
+
+	/**
+	 * Sets arc costs, used by cost-based graph strategies
+	 * (only for graph variables having costs.getNbNodes() nodes)
+	 *
+	 * @param costs cost of every arc/edge, possibly computed on demand
+	 * @return this
+	 */
+	public GraphPortfolio setCosts(EdgeCost costs) {
+		this.costs = costs;
+		return this;
+	}
+
+	/**
+	 * Makes every worker but the first one use LNS
+	 *
+	 * @param neighborFactory function creating a neighborhood for a given model and worker index
+	 *                        (the worker index can be used as a seed to diversify neighborhoods)
+	 * @return this
+	 */
+	public GraphPortfolio setLNS(BiFunction<GraphModel, Integer, INeighbor> neighborFactory) {
+		return setLNS(neighborFactory, 30);
+	}
+
+	/**
+	 * Makes every worker but the first one use LNS
+	 *
+	 * @param neighborFactory function creating a neighborhood for a given model and worker index
+	 *                        (the worker index can be used as a seed to diversify neighborhoods)
+	 * @param failLimit       number of fails before moving to another neighbor
+	 * @return this
+	 */
+	public GraphPortfolio setLNS(BiFunction<GraphModel, Integer, INeighbor> neighborFactory, int failLimit) {
+		this.lnsFactory = neighborFactory;
+		this.lnsFailLimit = failLimit;
+		return this;
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * Builds nbWorkers models and configures them in a parallel portfolio
+	 * Use portfolio.solve() to run them and portfolio.getBestModel() to get the best one
+	 *
+	 * @param nbWorkers number of models (threads) to run in parallel
+	 * @return a ParallelPortfolio made of nbWorkers differently configured graph models
+	 */
+	public ParallelPortfolio build(int nbWorkers) {
+		ParallelPortfolio portfolio = new ParallelPortfolio(false);
+		for (int w = 0; w < nbWorkers; w++) {
+			GraphModel model = modelBuilder.get();
+			Solver solver = model.getSolver();
+			solver.setSearch(makeSearch(model, w));
+			if (lnsFactory != null && w > 0) {
+				solver.setLNS(lnsFactory.apply(model, w), new FailCounter(model, lnsFailLimit));
+			} else if (w >= POLICIES.length) {
+				solver.setLubyRestart(100, new FailCounter(model, 0), Integer.MAX_VALUE);
+			}
+			portfolio.addModel(model);
+		}
+		return portfolio;
+	}
+
+	/**
+	 * Diversified search strategy of the given worker
+	 * (graph variables first, then other variables, as in GraphSearch.defaultSearch)
+	 *
+	 * @param model  a graph model
+	 * @param worker index of the worker
+	 * @return a search strategy for this worker
+	 */
+	protected AbstractStrategy makeSearch(GraphModel model, int worker) {
+		GraphVar[] gvs = model.retrieveGraphVars();
+		AbstractStrategy[] gss = new AbstractStrategy[gvs.length + 1];
+		for (int i = 0; i < gvs.length; i++) {
+			if (worker < POLICIES.length) {
+				EdgeCost c = (costs != null && costs.getNbNodes() == gvs[i].getNbMaxNodes()) ? costs : null;
+				int policy = POLICIES[worker];
+				if (policy == GraphSearch.MIN_COST && c == null) {
+					policy = GraphSearch.MIN_DELTA_DEGREE;
+				}
+				gss[i] = new GraphSearch(gvs[i], c).configure(policy, policy != GraphSearch.MAX_P_DEGREE);
+			} else {
+				gss[i] = new GraphStrategy(gvs[i], worker);
+			}
+		}
+		gss[gvs.length] = Search.defaultSearch(model);
+		return Search.sequencer(gss);
+	}
+}
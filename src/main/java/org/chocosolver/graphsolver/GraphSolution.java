@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver;
+
+import org.chocosolver.graphsolver.variables.GraphSnapshot;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.RealVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A solution which also stores the value of graph variables, as compact snapshots.
+ * It can be given to LNS neighbors (see INeighbor.loadFromSolution).
+ */
+public class GraphSolution extends Solution {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final GraphModel model;
+	private final Variable[] varsToStore;
+	private final GraphVar[] graphVars;
+	private final GraphSnapshot[] values;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates a solution object for model
+	 *
+	 * @param model       a graph model
+	 * @param varsToStore variables to store (all variables of the model if empty)
+	 */
+	public GraphSolution(GraphModel model, Variable... varsToStore) {
+		super(model, others(varsToStore.length == 0 ? model.getVars() : varsToStore));
+		this.model = model;
+		this.varsToStore = varsToStore;
+		List<GraphVar> gvs = new ArrayList<>();
+		for (Variable v : varsToStore.length == 0 ? model.getVars() : varsToStore) {
+			if ((v.getTypeAndKind() & Variable.KIND) == GraphVar.GRAPH) {
+				gvs.add((GraphVar) v);
+			}
+		}
+		this.graphVars = gvs.toArray(new GraphVar[0]);
+		this.values = new GraphSnapshot[graphVars.length];
+	}
+
+	private static Variable[] others(Variable[] vars) {
+		List<Variable> others = new ArrayList<>();
+		for (Variable v : vars) {
+			if ((v.getTypeAndKind() & Variable.KIND) != GraphVar.GRAPH) {
+				others.add(v);
+			}
+		}
+		return others.toArray(new Variable[0]);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public GraphSolution record() {
+		super.record();
+		for (int k = 0; k < graphVars.length; k++) {
+			values[k] = graphVars[k].getSnapshot();
+		}
+		return this;
+	}
+
+	@Override
+	public void restore() throws ContradictionException {
+		// graph variables first, as the super method ends with a propagation
+		for (int k = 0; k < graphVars.length; k++) {
+			graphVars[k].instantiateTo(values[k], this);
+		}
+		super.restore();
+	}
+
+	@Override
+	public GraphSolution copySolution() {
+		GraphSolution copy = new GraphSolution(model, varsToStore);
+		if (exists()) {
+			for (IntVar v : retrieveIntVars(true)) {
+				copy.setIntVal(v, getIntVal(v));
+			}
+			for (SetVar v : retrieveSetVars()) {
+				copy.setSetVal(v, getSetVal(v));
+			}
+			for (RealVar v : retrieveRealVars()) {
+				copy.setRealBounds(v, getRealBounds(v));
+			}
+		}
+		System.arraycopy(values, 0, copy.values, 0, values.length);
+		return copy;
+	}
+
+	/**
+	 * @param g a graph variable
+	 * @return the value of g in this solution, null if g is not stored or if no solution has been recorded
+	 */
+	public GraphSnapshot getGraphVal(GraphVar g) {
+		for (int k = 0; k < graphVars.length; k++) {
+			if (graphVars[k] == g) {
+				return values[k];
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(super.toString());
+		for (int k = 0; k < graphVars.length; k++) {
+			if (values[k] != null) {
+				sb.append(graphVars[k].getName()).append(":\n").append(values[k]);
+			}
+		}
+		return sb.toString();
+	}
+}
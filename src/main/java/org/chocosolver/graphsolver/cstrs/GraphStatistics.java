@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.cstrs;
+
+import org.chocosolver.graphsolver.variables.GraphEventType;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.variables.events.IEventType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in statistics about the filtering performed on graph variables, per propagator.
+ * For each propagator, records the nodes and arcs it removed or enforced, the failures it raised,
+ * and, for incremental propagators, the number and duration of their passes over graph deltas
+ * as well as the number of delta elements they processed.
+ * Propagations which do not read a graph delta (coarse propagations, propagators without delta monitor)
+ * are not timed, as choco-solver provides no hook around propagator executions.
+ * <p>
+ * Enabled through {@link org.chocosolver.graphsolver.GraphModel#recordGraphStatistics()}.
+ */
+public class GraphStatistics implements IMonitorContradiction {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final Map<Propagator, Entry> entries = new IdentityHashMap<>();
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates statistics for the graph variables of model
+	 *
+	 * @param model the model whose failures are recorded
+	 */
+	public GraphStatistics(Model model) {
+		model.getSolver().plugMonitor(this);
+	}
+
+	//***********************************************************************************
+	// RECORDING
+	//***********************************************************************************
+
+	/**
+	 * @param propagator a propagator
+	 * @return the statistics of propagator (created if needed)
+	 */
+	public Entry of(Propagator propagator) {
+		return entries.computeIfAbsent(propagator, Entry::new);
+	}
+
+	/**
+	 * Records a domain modification of a graph variable (ignored if it does not come from a propagator)
+	 *
+	 * @param cause cause of the modification
+	 * @param event type of the modification
+	 */
+	public void onFiltering(ICause cause, IEventType event) {
+		if (!(cause instanceof Propagator)) {
+			return;
+		}
+		Entry e = of((Propagator) cause);
+		if (event == GraphEventType.REMOVE_ARC) {
+			e.removedArcs++;
+		} else if (event == GraphEventType.ADD_ARC) {
+			e.enforcedArcs++;
+		} else if (event == GraphEventType.REMOVE_NODE) {
+			e.removedNodes++;
+		} else if (event == GraphEventType.ADD_NODE) {
+			e.enforcedNodes++;
+		}
+	}
+
+	@Override
+	public void onContradiction(ContradictionException cex) {
+		if (cex.c instanceof Propagator) {
+			of((Propagator) cex.c).failures++;
+		}
+	}
+
+	/**
+	 * Forgets everything recorded so far
+	 */
+	public void reset() {
+		for (Entry e : entries.values()) {
+			e.reset();
+		}
+	}
+
+	//***********************************************************************************
+	// ACCESSORS
+	//***********************************************************************************
+
+	/**
+	 * @return the statistics of every recorded propagator
+	 */
+	public Collection<Entry> getEntries() {
+		return entries.values();
+	}
+
+	/**
+	 * @param propagator a propagator
+	 * @return the statistics of propagator, or null if nothing has been recorded for it
+	 */
+	public Entry get(Propagator propagator) {
+		return entries.get(propagator);
+	}
+
+	/**
+	 * Prints the statistics on the output of the solver of model,
+	 * typically after {@link org.chocosolver.solver.Solver#printStatistics()}
+	 *
+	 * @param model the model these statistics are attached to
+	 */
+	public void printStatistics(Model model) {
+		model.getSolver().getOut().println(toString());
+	}
+
+	@Override
+	public String toString() {
+		List<Entry> list = new ArrayList<>(entries.values());
+		list.sort((a, b) -> a.time != b.time ? Long.compare(b.time, a.time) : Long.compare(b.getNbFilterings(), a.getNbFilterings()));
+		StringBuilder st = new StringBuilder("- Graph filtering statistics (passes and times of delta reads only):\n");
+		for (Entry e : list) {
+			st.append('\t').append(e).append('\n');
+		}
+		return st.toString();
+	}
+
+	//***********************************************************************************
+	// ENTRY
+	//***********************************************************************************
+
+	/**
+	 * Statistics of a single propagator
+	 */
+	public static class Entry {
+
+		private final Propagator propagator;
+		private long calls, time, deltaNodes, deltaArcs, failures;
+		private long removedNodes, enforcedNodes, removedArcs, enforcedArcs;
+		private long start;
+
+		private Entry(Propagator propagator) {
+			this.propagator = propagator;
+		}
+
+		private void reset() {
+			calls = time = deltaNodes = deltaArcs = failures = start = 0;
+			removedNodes = enforcedNodes = removedArcs = enforcedArcs = 0;
+		}
+
+		/**
+		 * Starts an incremental pass (the delta of a graph variable has been frozen)
+		 */
+		public void startPass() {
+			calls++;
+			start = System.nanoTime();
+		}
+
+		/**
+		 * Ends the current incremental pass (the delta has been unfrozen), if any
+		 */
+		public void endPass() {
+			if (start != 0) {
+				time += System.nanoTime() - start;
+				start = 0;
+			}
+		}
+
+		/**
+		 * Records that nb elements of a graph delta have been processed
+		 *
+		 * @param nb    number of elements
+		 * @param nodes true for nodes, false for arcs
+		 */
+		public void onDelta(int nb, boolean nodes) {
+			if (nodes) {
+				deltaNodes += nb;
+			} else {
+				deltaArcs += nb;
+			}
+		}
+
+		public Propagator getPropagator() {
+			return propagator;
+		}
+
+		/**
+		 * @return the number of passes over graph deltas (not the number of propagations)
+		 */
+		public long getNbCalls() {
+			return calls;
+		}
+
+		/**
+		 * @return the time spent in passes over graph deltas, in nanoseconds
+		 */
+		public long getTimeNanos() {
+			return time;
+		}
+
+		public long getNbRemovedNodes() {
+			return removedNodes;
+		}
+
+		public long getNbEnforcedNodes() {
+			return enforcedNodes;
+		}
+
+		public long getNbRemovedArcs() {
+			return removedArcs;
+		}
+
+		public long getNbEnforcedArcs() {
+			return enforcedArcs;
+		}
+
+		public long getNbDeltaNodes() {
+			return deltaNodes;
+		}
+
+		public long getNbDeltaArcs() {
+			return deltaArcs;
+		}
+
+		public long getNbFailures() {
+			return failures;
+		}
+
+		/**
+		 * @return the number of nodes and arcs removed or enforced by the propagator
+		 */
+		public long getNbFilterings() {
+			return removedNodes + enforcedNodes + removedArcs + enforcedArcs;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s#%d: %d delta passes (%.3f ms), nodes -%d/+%d, arcs -%d/+%d, delta %d nodes/%d arcs, %d failures",
+					propagator.getClass().getSimpleName(), propagator.getId(), calls, time / 1e6, removedNodes, enforcedNodes, removedArcs, enforcedArcs,
+					deltaNodes, deltaArcs, failures);
+		}
+	}
+}
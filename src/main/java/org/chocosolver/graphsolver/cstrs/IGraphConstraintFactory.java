@@ -39,6 +39,7 @@ import org.chocosolver.graphsolver.cstrs.connectivity.PropNbSCC;
 import org.chocosolver.graphsolver.cstrs.connectivity.PropSizeMinCC;
 import org.chocosolver.graphsolver.cstrs.connectivity.PropSizeMaxCC;
 import org.chocosolver.graphsolver.cstrs.cost.trees.PropMaxDegVarTree;
+import org.chocosolver.graphsolver.cstrs.cost.trees.PropTreeCostMST;
 import org.chocosolver.graphsolver.cstrs.cost.trees.PropTreeCostSimple;
 import org.chocosolver.graphsolver.cstrs.cost.trees.lagrangian.PropGenericLagrDCMST;
 import org.chocosolver.graphsolver.cstrs.cost.tsp.PropCycleCostSimple;
@@ -46,13 +47,13 @@ import org.chocosolver.graphsolver.cstrs.cost.tsp.lagrangian.PropLagrOneTree;
 import org.chocosolver.graphsolver.cstrs.cycles.*;
 import org.chocosolver.graphsolver.cstrs.degree.*;
 import org.chocosolver.graphsolver.cstrs.inclusion.PropInclusion;
-import org.chocosolver.graphsolver.cstrs.symmbreaking.PropIncrementalAdjacencyMatrix;
-import org.chocosolver.graphsolver.cstrs.symmbreaking.PropIncrementalAdjacencyUndirectedMatrix;
+import org.chocosolver.graphsolver.cstrs.symmbreaking.PropBFSSymmetryBreaking;
 import org.chocosolver.graphsolver.cstrs.symmbreaking.PropSymmetryBreaking;
 import org.chocosolver.graphsolver.cstrs.symmbreaking.PropSymmetryBreakingEx;
 import org.chocosolver.graphsolver.cstrs.tree.PropArborescence;
 import org.chocosolver.graphsolver.cstrs.tree.PropArborescences;
 import org.chocosolver.graphsolver.cstrs.tree.PropReachability;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
 import org.chocosolver.graphsolver.variables.DirectedGraphVar;
 import org.chocosolver.graphsolver.variables.GraphVar;
 import org.chocosolver.graphsolver.variables.IncidentSet;
@@ -513,7 +514,7 @@ public interface IGraphConstraintFactory {
 	 * @return a maximum degree constraint
 	 */
 	default Constraint maxDegrees(UndirectedGraphVar g, int maxDegree) {
-		return new Constraint("maxDegrees", new PropNodeDegreeAtMostCoarse(g, maxDegree));
+		return new Constraint("maxDegrees", new PropNodeDegreeAtMostIncr(g, maxDegree));
 	}
 
 	/**
@@ -526,7 +527,7 @@ public interface IGraphConstraintFactory {
 	 * @return a maximum degree constraint
 	 */
 	default Constraint maxDegrees(UndirectedGraphVar g, int[] maxDegrees) {
-		return new Constraint("maxDegrees", new PropNodeDegreeAtMostCoarse(g, maxDegrees));
+		return new Constraint("maxDegrees", new PropNodeDegreeAtMostIncr(g, maxDegrees));
 	}
 
 	/**
@@ -581,7 +582,7 @@ public interface IGraphConstraintFactory {
 	 * @return a maximum inner degree constraint
 	 */
 	default Constraint maxInDegrees(DirectedGraphVar g, int maxDegree) {
-		return new Constraint("maxInDegrees", new PropNodeDegreeAtMostCoarse(g, Orientation.PREDECESSORS, maxDegree));
+		return new Constraint("maxInDegrees", new PropNodeDegreeAtMostIncr(g, Orientation.PREDECESSORS, maxDegree));
 	}
 
 	/**
@@ -594,7 +595,7 @@ public interface IGraphConstraintFactory {
 	 * @return a maximum inner degree constraint
 	 */
 	default Constraint maxInDegrees(DirectedGraphVar g, int[] maxDegrees) {
-		return new Constraint("maxInDegrees", new PropNodeDegreeAtMostCoarse(g, Orientation.PREDECESSORS, maxDegrees));
+		return new Constraint("maxInDegrees", new PropNodeDegreeAtMostIncr(g, Orientation.PREDECESSORS, maxDegrees));
 	}
 
 	/**
@@ -649,7 +650,7 @@ public interface IGraphConstraintFactory {
 	 * @return a maximum outer degree constraint
 	 */
 	default Constraint maxOutDegrees(DirectedGraphVar g, int maxDegree) {
-		return new Constraint("maxOutDegrees", new PropNodeDegreeAtMostCoarse(g, Orientation.SUCCESSORS, maxDegree));
+		return new Constraint("maxOutDegrees", new PropNodeDegreeAtMostIncr(g, Orientation.SUCCESSORS, maxDegree));
 	}
 
 	/**
@@ -662,7 +663,7 @@ public interface IGraphConstraintFactory {
 	 * @return a outer maximum degree constraint
 	 */
 	default Constraint maxOutDegrees(DirectedGraphVar g, int[] maxDegrees) {
-		return new Constraint("maxOutDegrees", new PropNodeDegreeAtMostCoarse(g, Orientation.SUCCESSORS, maxDegrees));
+		return new Constraint("maxOutDegrees", new PropNodeDegreeAtMostIncr(g, Orientation.SUCCESSORS, maxDegrees));
 	}
 
 	/**
@@ -696,16 +697,9 @@ public interface IGraphConstraintFactory {
 	 * @return a cycle constraint
 	 */
 	default Constraint cycle(UndirectedGraphVar g) {
-		int m = 0;
-		int n = g.getNbMaxNodes();
-		for (int i = 0; i < n; i++) {
-			m += g.getPotNeighOf(i).size();
-		}
-		m /= 2;
-		Propagator pMaxDeg = (m < 20 * n) ? new PropNodeDegreeAtMostIncr(g, 2) : new PropNodeDegreeAtMostIncr(g, 2);
 		return new Constraint("cycle",
 				new PropNodeDegreeAtLeastIncr(g, 2),
-				pMaxDeg,
+				new PropNodeDegreeAtMostIncr(g, 2),
 				new PropConnected(g),
 				new PropCycle(g)
 		);
@@ -896,7 +890,7 @@ public interface IGraphConstraintFactory {
 		nbPreds[root] = 0;
 		return new Constraint("directedTree"
 				, new PropArborescence(g, root)
-				, new PropNodeDegreeAtMostCoarse(g, Orientation.PREDECESSORS, nbPreds)
+				, new PropNodeDegreeAtMostIncr(g, Orientation.PREDECESSORS, nbPreds)
 				, new PropNodeDegreeAtLeastIncr(g, Orientation.PREDECESSORS, nbPreds)
 		);
 	}
@@ -910,7 +904,7 @@ public interface IGraphConstraintFactory {
 	 */
 	default Constraint directedForest(DirectedGraphVar g) {
 		return new Constraint("directedForest", new PropArborescences(g)
-				, new PropNodeDegreeAtMostCoarse(g, Orientation.PREDECESSORS, 1)
+				, new PropNodeDegreeAtMostIncr(g, Orientation.PREDECESSORS, 1)
 		);
 	}
 
@@ -1012,10 +1006,28 @@ public interface IGraphConstraintFactory {
 	 * @return a tsp constraint
 	 */
 	default Constraint tsp(UndirectedGraphVar graphVar, IntVar costVar, int[][] edgeCosts, int lagrMode) {
+		return tsp(graphVar, costVar, EdgeCost.of(edgeCosts), lagrMode);
+	}
+
+	/**
+	 * Constraint modeling the Traveling Salesman Problem, with edge costs that may be computed on demand.
+	 * The Lagrangian relaxation, if any, materializes the full cost matrix.
+	 *
+	 * @param graphVar   graph variable representing a Hamiltonian cycle
+	 * @param costVar    variable representing the cost of the cycle
+	 * @param edgeCosts symmetric edge costs
+	 * @param lagrMode  use the Lagrangian relaxation of the tsp
+	 *                   described by Held and Karp
+	 *                   {0:no Lagrangian relaxation,
+	 *                   1:Lagrangian relaxation (since root node),
+	 *                   2:Lagrangian relaxation but wait a first solution before running it}
+	 * @return a tsp constraint
+	 */
+	default Constraint tsp(UndirectedGraphVar graphVar, IntVar costVar, EdgeCost edgeCosts, int lagrMode) {
 		Propagator[] props = ArrayUtils.append(cycle(graphVar).getPropagators(),
 				new Propagator[]{new PropCycleCostSimple(graphVar, costVar, edgeCosts)});
 		if (lagrMode > 0) {
-			PropLagrOneTree hk = new PropLagrOneTree(graphVar, costVar, edgeCosts);
+			PropLagrOneTree hk = new PropLagrOneTree(graphVar, costVar, edgeCosts.toMatrix());
 			hk.waitFirstSolution(lagrMode == 2);
 			props = ArrayUtils.append(props, new Propagator[]{hk});
 		}
@@ -1041,15 +1053,39 @@ public interface IGraphConstraintFactory {
 	default Constraint dcmst(UndirectedGraphVar graphVar, IntVar[] degrees,
 							 IntVar costVar, int[][] edgeCosts,
 							 int lagrMode) {
+		return dcmst(graphVar, degrees, costVar, EdgeCost.of(edgeCosts), lagrMode);
+	}
+
+	/**
+	 * Creates a degree-constrained minimum spanning tree constraint,
+	 * with edge costs that may be computed on demand.
+	 * The Lagrangian relaxation, if any, materializes the full cost matrix.
+	 * <p>
+	 * BEWARE : assumes the channeling between GRAPH and DEGREES is already done
+	 *
+	 * @param graphVar      an undirected graph variable
+	 * @param degrees    the degree of every vertex
+	 * @param costVar    variable representing the cost of the mst
+	 * @param edgeCosts symmetric edge costs
+	 * @param lagrMode  use the Lagrangian relaxation of the dcmst
+	 *                   {0:no Lagrangian relaxation,
+	 *                   1:Lagrangian relaxation (since root node),
+	 *                   2:Lagrangian relaxation but wait a first solution before running it}
+	 * @return a degree-constrained minimum spanning tree constraint
+	 */
+	default Constraint dcmst(UndirectedGraphVar graphVar, IntVar[] degrees,
+							 IntVar costVar, EdgeCost edgeCosts,
+							 int lagrMode) {
 		Propagator[] props = ArrayUtils.append(
 				tree(graphVar).getPropagators()
 				, new Propagator[]{
 						new PropTreeCostSimple(graphVar, costVar, edgeCosts)
+						, new PropTreeCostMST(graphVar, costVar, edgeCosts)
 						, new PropMaxDegVarTree(graphVar, degrees)
 				}
 		);
 		if (lagrMode > 0) {
-			PropGenericLagrDCMST hk = new PropGenericLagrDCMST(graphVar, costVar, degrees, edgeCosts, lagrMode == 2);
+			PropGenericLagrDCMST hk = new PropGenericLagrDCMST(graphVar, costVar, degrees, edgeCosts.toMatrix(), lagrMode == 2);
 			props = ArrayUtils.append(props, new Propagator[]{hk});
 		}
 		return new Constraint("dcmst", props);
@@ -1073,41 +1109,7 @@ public interface IGraphConstraintFactory {
 	 * @param graph graph to be constrainted
 	 */
 	default void postSymmetryBreaking(DirectedGraphVar graph) {
-		Model m = _me();
-		// ---------------------- variables ------------------------
-		int n = graph.getNbMaxNodes();
-		// t[i, j]
-		BoolVar[] t = m.boolVarArray("T[]", n * n);
-		// p[i]
-		IntVar[] p = new IntVar[n];
-		p[0] = m.intVar("P[0]", 0);
-		for (int i = 1; i < n; i++) {
-			p[i] = m.intVar("P[" + i + "]", 0, i - 1);
-		}
-		// ---------------------- constraints -----------------------
-		// t[i, j] <-> G
-		new Constraint("AdjacencyMatrix", new PropIncrementalAdjacencyMatrix(graph, t)).post();
-
-		// (p[j] == i) ⇔ t[i, j] and AND(!t[k, j], 0 ≤ k < j)
-		for (int i = 0; i < n - 1; i++) {
-			IntVar I = m.intVar(i);
-			for (int j = 1; j < n; j++) {
-				BoolVar[] clause = new BoolVar[i + 1];
-				clause[i] = t[i + j * n];
-				for (int k = 0; k < i; k++) {
-					clause[k] = t[k + j * n].not();
-				}
-				Constraint c = m.and(clause);
-				Constraint pij = m.arithm(p[j], "=", I);
-				m.ifThen(pij, c);
-				m.ifThen(c, pij);
-			}
-		}
-
-		// p[i] ≤ p[i + 1]
-		for (int i = 1; i < n - 1; i++) {
-			m.arithm(p[i], "<=", p[i + 1]).post();
-		}
+		new Constraint("symmBreakBFS", new PropBFSSymmetryBreaking(graph)).post();
 	}
 
 	/**
@@ -1123,43 +1125,7 @@ public interface IGraphConstraintFactory {
 	 * @param graph graph to be constrainted
 	 */
 	default void postSymmetryBreaking(UndirectedGraphVar graph) {
-		Model m = _me();
-		// ---------------------- variables ------------------------
-		int n = graph.getNbMaxNodes();
-
-		// t[i, j]
-		BoolVar[] t = m.boolVarArray("T[]", n * n);
-
-		// p[i]
-		IntVar[] p = new IntVar[n];
-		p[0] = m.intVar("P[0]", 0);
-		for (int i = 1; i < n; i++) {
-			p[i] = m.intVar("P[" + i + "]", 0, i - 1);
-		}
-		// ---------------------- constraints -----------------------
-		// t[i, j] <-> G
-		new Constraint("AdjacencyMatrix", new PropIncrementalAdjacencyUndirectedMatrix(graph, t)).post();
-
-		// (p[j] == i) ⇔ t[i, j] and AND(!t[k, j], 0 ≤ k < j)
-		for (int i = 0; i < n - 1; i++) {
-			IntVar I = m.intVar(i);
-			for (int j = 1; j < n; j++) {
-				BoolVar[] clause = new BoolVar[i + 1];
-				clause[i] = t[i + j * n];
-				for (int k = 0; k < i; k++) {
-					clause[k] = t[k + j * n].not();
-				}
-				Constraint c = m.and(clause);
-				Constraint pij = m.arithm(p[j], "=", I);
-				m.ifThen(pij, c);
-				m.ifThen(c, pij);
-			}
-		}
-
-		// p[i] ≤ p[i + 1]
-		for (int i = 1; i < n - 1; i++) {
-			m.arithm(p[i], "<=", p[i + 1]).post();
-		}
+		new Constraint("symmBreakBFS", new PropBFSSymmetryBreaking(graph)).post();
 	}
 
 	/**
@@ -1174,12 +1140,7 @@ public interface IGraphConstraintFactory {
 	 * @param graph graph to be constrainted
 	 */
 	default Constraint symmetryBreaking2(UndirectedGraphVar graph) {
-		int n = graph.getNbMaxNodes();
-		BoolVar[] t = _me().boolVarArray("T[]", n * n);
-		return new Constraint("symmBreak",
-				new PropIncrementalAdjacencyUndirectedMatrix(graph, t),
-				new PropSymmetryBreaking(t)
-		);
+		return new Constraint("symmBreak", new PropSymmetryBreaking(ArrayUtils.flatten(_me().adjacencyView(graph))));
 	}
 
 	/**
@@ -1194,11 +1155,6 @@ public interface IGraphConstraintFactory {
 	 * @param graph graph to be constrainted
 	 */
 	default Constraint symmetryBreaking3(UndirectedGraphVar graph) {
-		int n = graph.getNbMaxNodes();
-		BoolVar[] t = _me().boolVarArray("T[]", n * n);
-		return new Constraint("symmBreakEx",
-				new PropIncrementalAdjacencyUndirectedMatrix(graph, t),
-				new PropSymmetryBreakingEx(t)
-		);
+		return new Constraint("symmBreakEx", new PropSymmetryBreakingEx(ArrayUtils.flatten(_me().adjacencyView(graph))));
 	}
 }
@@ -60,7 +60,7 @@ public class PropAntiSymmetric extends Propagator<DirectedGraphVar> {
 	public PropAntiSymmetric(DirectedGraphVar graph) {
 		super(graph);
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 		enf = (from, to) -> {
 			if (from != to) {
 				g.removeArc(to, from, PropAntiSymmetric.this);
@@ -24,26 +24,36 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-
 package org.chocosolver.graphsolver.cstrs.basic;
 
-import gnu.trove.list.array.TIntArrayList;
+import org.chocosolver.graphsolver.variables.GraphEventType;
+import org.chocosolver.graphsolver.util.MultiSourceBFS;
 import org.chocosolver.graphsolver.variables.GraphVar;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 
-import java.util.BitSet;
+import java.util.function.IntFunction;
 
 /**
- * Propagator for the diameter constraint
+ * Propagator for the diameter constraint (the graph is assumed to be connected)
+ * <p>
+ * The lower bound is the largest distance between two mandatory nodes in the potential graph,
+ * the upper bound is the diameter of the mandatory graph once every potential node is mandatory.
+ * In the undirected case, both are computed with iFUB (Crescenzi et al., 2013), which only runs BFS
+ * from the mandatory nodes that are the farthest from a central root, until the remaining ones cannot improve the bound.
+ * BFS are run by batches of 64 sources with a {@link MultiSourceBFS}.
+ * Every BFS from a mandatory node removes the potential nodes that are farther than the diameter upper bound.
+ * Bounds are only recomputed after the graph events that may change them.
  *
  * @author Jean-Guillaume Fages
  */
-public class PropDiameter extends Propagator<GraphVar> {
+public class PropDiameter extends Propagator<Variable> {
 
 	//***********************************************************************************
 	// VARIABLES
@@ -51,73 +61,285 @@ public class PropDiameter extends Propagator<GraphVar> {
 
 	private GraphVar g;
 	private IntVar diameter;
-	private BitSet visited;
-	private TIntArrayList set, nextSet;
-
+	private int n;
+	private boolean lbDirty, ubDirty;
+	// batched BFS data
+	private MultiSourceBFS bfs;
+	private MultiSourceBFS.Visitor visitor;
+	private IntFunction<ISet> mandSucc, mandPred, potSucc, potPred;
+	private int[] sources;
+	private ISet mand;
+	// per source of a batch: eccentricity among mandatory nodes, and number of mandatory nodes reached
+	private int[] ecc, reached;
+	// far[x] == stamp iff x has been reached farther than ub
+	private int[] far;
+	private int stamp, ub;
+	// if record, mandatory nodes by increasing distance from the (single) source
+	private boolean record;
+	private int nbOrdered;
+	private int[] order, level;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
 
 	public PropDiameter(GraphVar graph, IntVar maxDiam) {
-		super(new GraphVar[]{graph}, PropagatorPriority.LINEAR, false);
+		super(new Variable[]{graph, maxDiam}, PropagatorPriority.QUADRATIC, true);
 		this.g = graph;
 		this.diameter = maxDiam;
-		visited = new BitSet(g.getNbMaxNodes());
-		set = new TIntArrayList();
-		nextSet = new TIntArrayList();
+		this.n = g.getNbMaxNodes();
+		bfs = new MultiSourceBFS(n);
+		mandSucc = g::getMandSuccOrNeighOf;
+		mandPred = g::getMandPredOrNeighOf;
+		potSucc = g::getPotSuccOrNeighOf;
+		potPred = g::getPotPredOrNeighOf;
+		sources = new int[n];
+		ecc = new int[MultiSourceBFS.MAX_SOURCES];
+		reached = new int[MultiSourceBFS.MAX_SOURCES];
+		far = new int[n];
+		order = new int[n];
+		level = new int[n];
+		visitor = (node, srcs, depth) -> {
+			if (mand.contains(node)) {
+				for (long m = srcs; m != 0; m &= m - 1) {
+					int b = Long.numberOfTrailingZeros(m);
+					ecc[b] = depth;
+					reached[b]++;
+				}
+				if (record) {
+					order[nbOrdered] = node;
+					level[nbOrdered++] = depth;
+				}
+			} else if (depth > ub) {
+				far[node] = stamp;
+			}
+		};
 	}
 
 	//***********************************************************************************
 	// PROPAGATIONS
 	//***********************************************************************************
 
+	@Override
+	public int getPropagationConditions(int vIdx) {
+		if (vIdx == 0) {
+			return GraphEventType.ALL_EVENTS;
+		}
+		return IntEventType.boundAndInst();
+	}
+
 	@Override
 	public void propagate(int evtmask) throws ContradictionException {
-		int max = -1;
-		for (int i : g.getPotentialNodes()) {
-			if (g.getMandatoryNodes().contains(i)) {
-				diameter.updateLowerBound(depthBFS(i, true), this);
+		lbDirty = true;
+		ubDirty = true;
+		filter();
+	}
+
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		if (idxVarInProp == 0) {
+			// distances in the potential graph increase when it loses arcs or nodes, and more nodes are mandatory
+			lbDirty |= (mask & (GraphEventType.REMOVE_ARC.getMask() | GraphEventType.REMOVE_NODE.getMask()
+					| GraphEventType.ADD_NODE.getMask())) != 0;
+			// distances in the mandatory graph decrease when it gains arcs, and it covers the graph when nodes are decided
+			ubDirty |= (mask & (GraphEventType.ADD_ARC.getMask() | GraphEventType.REMOVE_NODE.getMask()
+					| GraphEventType.ADD_NODE.getMask())) != 0;
+		} else {
+			// node pruning depends on the diameter upper bound
+			lbDirty = true;
+		}
+		filter();
+	}
+
+	private void filter() throws ContradictionException {
+		do {
+			if (lbDirty) {
+				lbDirty = false;
+				int nbPot = g.getPotentialNodes().size();
+				diameter.updateLowerBound(lowerBound(), this);
+				if (g.getPotentialNodes().size() < nbPot) {
+					lbDirty = true;
+					ubDirty = true;
+				}
+			}
+			if (ubDirty) {
+				ubDirty = false;
+				diameter.updateUpperBound(upperBound(), this);
+			}
+		} while (lbDirty);
+	}
+
+	/**
+	 * @return a lower bound of the diameter: the largest distance between two mandatory nodes in the potential graph
+	 */
+	private int lowerBound() throws ContradictionException {
+		int lb = diameter.getLB();
+		if (g.getMandatoryNodes().size() == 0) {
+			return lb;
+		}
+		sources[0] = root(false);
+		if (g.isDirected()) {
+			eccentricities(sources, 0, 1, false, true);
+			if (ecc[0] == -1) {
+				fails();
+			}
+			int size = mandatoryNodes();
+			for (int k = 0; k < size; k += MultiSourceBFS.MAX_SOURCES) {
+				int count = Math.min(MultiSourceBFS.MAX_SOURCES, size - k);
+				eccentricities(sources, k, count, false, false);
+				for (int i = 0; i < count; i++) {
+					if (ecc[i] == -1) {
+						fails();
+					}
+					lb = Math.max(lb, ecc[i]);
+				}
+				diameter.updateLowerBound(lb, this);
 			}
-			max = Math.max(max, depthBFS(i, false));
+			return lb;
 		}
-		diameter.updateUpperBound(max, this);
+		record = true;
+		eccentricities(sources, 0, 1, false, false);
+		record = false;
+		if (ecc[0] == -1) {
+			fails();
+		}
+		return iFUB(Math.max(lb, ecc[0]), false);
 	}
 
-	private int depthBFS(int root, boolean min) {
-		nextSet.clear();
-		set.clear();
-		visited.clear();
-		int i = root;
-		set.add(i);
-		visited.set(i);
-		ISet nei;
-		int depth = 0;
-		int nbMand = g.getMandatoryNodes().size();
-		int count = 1;
-		while (!set.isEmpty()) {
-			for (i = set.size() - 1; i >= 0; i--) {
-				nei = g.getPotSuccOrNeighOf(set.get(i));
-				for (int j : nei) {
-					if (!visited.get(j)) {
-						visited.set(j);
-						nextSet.add(j);
-						if (min && g.getMandatoryNodes().contains(j)) {
-							count++;
-							if (count == nbMand) {
-								return depth + 1;
-							}
-						}
+	/**
+	 * @return an upper bound of the diameter: the diameter of the mandatory graph if every potential node is mandatory,
+	 * the number of potential nodes minus one otherwise
+	 */
+	private int upperBound() throws ContradictionException {
+		int nbNodes = g.getPotentialNodes().size();
+		if (g.getMandatoryNodes().size() < nbNodes || nbNodes == 0) {
+			return nbNodes - 1;
+		}
+		if (g.isDirected()) {
+			int max = 0;
+			int size = mandatoryNodes();
+			for (int k = 0; k < size; k += MultiSourceBFS.MAX_SOURCES) {
+				int count = Math.min(MultiSourceBFS.MAX_SOURCES, size - k);
+				eccentricities(sources, k, count, true, false);
+				for (int i = 0; i < count; i++) {
+					if (ecc[i] == -1) {
+						return nbNodes - 1;
 					}
+					max = Math.max(max, ecc[i]);
 				}
 			}
-			depth++;
-			TIntArrayList tmp = nextSet;
-			nextSet = set;
-			set = tmp;
-			nextSet.clear();
+			return max;
 		}
-		return depth;
+		sources[0] = root(true);
+		record = true;
+		eccentricities(sources, 0, 1, true, false);
+		record = false;
+		if (ecc[0] == -1) {
+			return nbNodes - 1;
+		}
+		return iFUB(ecc[0], true);
+	}
+
+	/**
+	 * iFUB on an undirected graph: given the mandatory nodes recorded by increasing distance to a root,
+	 * computes eccentricities level by level from the farthest one, until pairs of closer nodes,
+	 * which are at distance at most twice their level, cannot exceed the bound
+	 *
+	 * @param bound     a lower bound of the diameter of the considered graph
+	 * @param mandatory whether the mandatory graph is considered (the potential graph otherwise)
+	 * @return the largest distance between two mandatory nodes (or bound if larger)
+	 */
+	private int iFUB(int bound, boolean mandatory) throws ContradictionException {
+		int size = nbOrdered;
+		for (int k = size - 1; k > 0; ) {
+			int i = level[k];
+			if (bound >= 2 * i) {
+				break;
+			}
+			int first = k;
+			while (first > 1 && level[first - 1] == i) {
+				first--;
+			}
+			for (int b = first; b <= k; b += MultiSourceBFS.MAX_SOURCES) {
+				int count = Math.min(MultiSourceBFS.MAX_SOURCES, k - b + 1);
+				eccentricities(order, b, count, mandatory, false);
+				for (int j = 0; j < count; j++) {
+					if (ecc[j] == -1) {
+						fails();
+					}
+					bound = Math.max(bound, ecc[j]);
+				}
+				if (!mandatory) {
+					diameter.updateLowerBound(bound, this);
+				}
+			}
+			k = first - 1;
+		}
+		return bound;
+	}
+
+	/**
+	 * Runs a BFS from each source in the mandatory (or potential) graph and stores the eccentricity of each source
+	 * among mandatory nodes in ecc (-1 if one of them is not reached).
+	 * In the potential graph, nodes that cannot belong to the graph are removed:
+	 * those that are not reachable from a source or farther than the diameter upper bound
+	 *
+	 * @param backward whether arcs are followed backward (directed graphs only)
+	 */
+	private void eccentricities(int[] src, int from, int count, boolean mandatory, boolean backward) throws ContradictionException {
+		mand = g.getMandatoryNodes();
+		ub = diameter.getUB();
+		stamp++;
+		nbOrdered = 0;
+		for (int i = 0; i < count; i++) {
+			ecc[i] = 0;
+			reached[i] = 0;
+		}
+		bfs.run(src, from, count, mandatory ? (backward ? mandPred : mandSucc) : (backward ? potPred : potSucc), visitor);
+		int nbMand = mand.size();
+		for (int i = 0; i < count; i++) {
+			if (reached[i] < nbMand) {
+				ecc[i] = -1;
+			}
+		}
+		if (!mandatory) {
+			long all = MultiSourceBFS.all(count);
+			ISet pot = g.getPotentialNodes();
+			for (int y = 0; y < n; y++) {
+				if (pot.contains(y) && !mand.contains(y) && (far[y] == stamp || bfs.getSeen(y) != all)) {
+					g.removeNode(y, this);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stores mandatory nodes in sources
+	 *
+	 * @return the number of mandatory nodes
+	 */
+	private int mandatoryNodes() {
+		int size = 0;
+		for (int x : g.getMandatoryNodes()) {
+			sources[size++] = x;
+		}
+		return size;
+	}
+
+	/**
+	 * @return the mandatory node of largest degree, a cheap guess for a central node
+	 */
+	private int root(boolean mandatory) {
+		int root = -1;
+		int best = -1;
+		for (int x : g.getMandatoryNodes()) {
+			int degree = mandatory ? g.getMandSuccOrNeighOf(x).size() : g.getPotSuccOrNeighOf(x).size();
+			if (degree > best) {
+				best = degree;
+				root = x;
+			}
+		}
+		return root;
 	}
 
 	//***********************************************************************************
@@ -126,6 +348,29 @@ public class PropDiameter extends Propagator<GraphVar> {
 
 	@Override
 	public ESat isEntailed() {
-		throw new UnsupportedOperationException("isEntail() not implemented yet");
+		if (!g.isInstantiated()) {
+			return ESat.UNDEFINED;
+		}
+		int d = 0;
+		int size = mandatoryNodes();
+		for (int k = 0; k < size; k += MultiSourceBFS.MAX_SOURCES) {
+			int count = Math.min(MultiSourceBFS.MAX_SOURCES, size - k);
+			try {
+				eccentricities(sources, k, count, true, false);
+			} catch (ContradictionException e) {
+				// cannot happen: the mandatory graph is not pruned
+				return ESat.FALSE;
+			}
+			for (int i = 0; i < count; i++) {
+				if (ecc[i] == -1) {
+					return ESat.FALSE;
+				}
+				d = Math.max(d, ecc[i]);
+			}
+		}
+		if (!diameter.contains(d)) {
+			return ESat.FALSE;
+		}
+		return diameter.isInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
 	}
 }
@@ -27,7 +27,9 @@
 
 package org.chocosolver.graphsolver.cstrs.basic;
 
+import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.nvalue.amnv.mis.F;
@@ -36,6 +38,7 @@ import org.chocosolver.solver.constraints.nary.nvalue.amnv.rules.R;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.graphs.UndirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISet;
@@ -45,6 +48,11 @@ import java.util.BitSet;
 
 /**
  * Propagator for the number of cliques in a graph
+ * <p>
+ * Mandatory nodes that are pairwise non adjacent in the potential graph belong to different cliques,
+ * so the size of an independent set of the support graph (potential edges among mandatory nodes) is a lower bound.
+ * The support graph is backtrackable and maintained from graph deltas.
+ * The independent set is computed by MDRk at initial propagation only, and then repaired from one propagation to the next.
  *
  * @author Jean-Guillaume Fages
  */
@@ -55,58 +63,105 @@ public class PropNbCliques extends Propagator<Variable> {
 	//***********************************************************************************
 
 	private UndirectedGraphVar g;
+	private GraphDeltaMonitor gdm;
 	private UndirectedGraph support;
 	private IntVar[] nb;
 	private R[] rules;
-	private F heur;
+	private F heur, warm;
 	private int delta;
+	// independent set of the last propagation, and nodes that can extend it
+	private BitSet mis, free;
+	private int[] freeDegree;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
 
 	public PropNbCliques(UndirectedGraphVar g, IntVar nb) {
-		super(new Variable[]{g, nb}, PropagatorPriority.QUADRATIC, false);
+		super(new Variable[]{g, nb}, PropagatorPriority.QUADRATIC, true);
 		this.g = g;
-		this.support = new UndirectedGraph(g.getNbMaxNodes(), SetType.BITSET, false);
+		int n = g.getNbMaxNodes();
+		this.gdm = g.monitorDelta(this, GraphEventType.ADD_NODE, GraphEventType.REMOVE_ARC);
+		this.support = new UndirectedGraph(g.getModel(), n, SetType.BITSET, false);
 		this.nb = new IntVar[]{nb};
 		this.rules = new R[]{new Rcustom()};
 		this.heur = new MDRk(support, 30);
+		this.warm = new WarmMIS();
+		this.mis = new BitSet(n);
+		this.free = new BitSet(n);
+		this.freeDegree = new int[n];
 	}
 
 	//***********************************************************************************
 	// METHODS
 	//***********************************************************************************
 
+	@Override
+	public int getPropagationConditions(int vIdx) {
+		if (vIdx == 0) {
+			return GraphEventType.ADD_NODE.getMask() | GraphEventType.REMOVE_ARC.getMask();
+		}
+		return IntEventType.boundAndInst();
+	}
+
 	@Override
 	public void propagate(int evtmask) throws ContradictionException {
 		// reset
 		int n = g.getNbMaxNodes();
-		support.getNodes().clear();
 		for (int i = 0; i < n; i++) {
 			support.getNeighOf(i).clear();
 		}
 		ISet nodes = g.getMandatoryNodes();
-		for (int i : nodes) {
-			support.addNode(i);
-		}
 		for (int i : nodes) {
 			ISet nei = g.getPotNeighOf(i);
 			for (int j : nei) {
-				if (i < j) {
+				if (i < j && nodes.contains(j)) {
 					support.addEdge(i, j);
 				}
 			}
 		}
-		delta = n - g.getMandatoryNodes().size();
+		delta = n - nodes.size();
 		// algorithm
+		mis.clear();
 		heur.prepare();
 		do {
 			heur.computeMIS();
+			if (heur.getMIS().cardinality() > mis.cardinality()) {
+				mis.clear();
+				mis.or(heur.getMIS());
+			}
 			for (R rule : rules) {
 				rule.filter(nb, support, heur, this);
 			}
 		} while (heur.hasNextMIS());
+		gdm.unfreeze();
+	}
+
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		if (idxVarInProp == 0) {
+			gdm.freeze();
+			gdm.forEachNode(this::addNode, GraphEventType.ADD_NODE);
+			gdm.forEachArc(support::removeEdge, GraphEventType.REMOVE_ARC);
+			gdm.unfreeze();
+		}
+		delta = g.getNbMaxNodes() - g.getMandatoryNodes().size();
+		warm.computeMIS();
+		for (R rule : rules) {
+			rule.filter(nb, support, warm, this);
+		}
+	}
+
+	/**
+	 * Adds to the support graph the potential edges between x, which became mandatory, and mandatory nodes
+	 */
+	private void addNode(int x) {
+		ISet nodes = g.getMandatoryNodes();
+		for (int j : g.getPotNeighOf(x)) {
+			if (j != x && nodes.contains(j)) {
+				support.addEdge(x, j);
+			}
+		}
 	}
 
 	@Override
@@ -114,6 +169,76 @@ public class PropNbCliques extends Propagator<Variable> {
 		return ESat.TRUE; // redundant propagator (in addition to transitivity and nbConnectedComponents
 	}
 
+	/**
+	 * Independent set heuristic warm-started from the previous independent set:
+	 * nodes adjacent to a smaller node of the set are dropped, then the set is greedily extended,
+	 * node of minimum degree among candidates first
+	 */
+	class WarmMIS implements F {
+		@Override
+		public void prepare() {
+		}
+
+		@Override
+		public void computeMIS() {
+			int n = g.getNbMaxNodes();
+			// repair
+			for (int i = mis.nextSetBit(0); i >= 0; i = mis.nextSetBit(i + 1)) {
+				for (int j : support.getNeighOf(i)) {
+					if (j < i && mis.get(j)) {
+						mis.clear(i);
+						break;
+					}
+				}
+			}
+			// extension
+			free.clear();
+			free.set(0, n);
+			free.andNot(mis);
+			for (int i = mis.nextSetBit(0); i >= 0; i = mis.nextSetBit(i + 1)) {
+				for (int j : support.getNeighOf(i)) {
+					free.clear(j);
+				}
+			}
+			for (int i = free.nextSetBit(0); i >= 0; i = free.nextSetBit(i + 1)) {
+				freeDegree[i] = 0;
+				for (int j : support.getNeighOf(i)) {
+					if (free.get(j)) {
+						freeDegree[i]++;
+					}
+				}
+			}
+			while (!free.isEmpty()) {
+				int best = free.nextSetBit(0);
+				for (int i = free.nextSetBit(best + 1); i >= 0; i = free.nextSetBit(i + 1)) {
+					if (freeDegree[i] < freeDegree[best]) {
+						best = i;
+					}
+				}
+				mis.set(best);
+				free.clear(best);
+				for (int j : support.getNeighOf(best)) {
+					if (free.get(j)) {
+						free.clear(j);
+						for (int k : support.getNeighOf(j)) {
+							freeDegree[k]--;
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNextMIS() {
+			return false;
+		}
+
+		@Override
+		public BitSet getMIS() {
+			return mis;
+		}
+	}
+
 	class Rcustom implements R {
 		@Override
 		public void filter(IntVar[] nbCliques, UndirectedGraph graph, F heur, Propagator aCause) throws ContradictionException {
@@ -62,7 +62,7 @@ public class PropSymmetric extends Propagator<DirectedGraphVar> {
 	public PropSymmetric(DirectedGraphVar graph) {
 		super(new DirectedGraphVar[]{graph}, PropagatorPriority.UNARY, true);
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 		enf = (from, to) -> {
 			if (from != to) {
 				g.enforceArc(to, from, PropSymmetric.this);
@@ -61,7 +61,7 @@ public class PropTransitivity<V extends GraphVar> extends Propagator<V> {
 	public PropTransitivity(V graph) {
 		super((V[]) new GraphVar[]{graph}, PropagatorPriority.LINEAR, true);
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
 		int n = g.getNbMaxNodes();
 		eF = new TIntArrayList(n);
 		eT = new TIntArrayList(n);
@@ -66,7 +66,7 @@ public class PropNeighBoolsChannel1 extends Propagator<GraphVar> {
 		assert n == matrix[0].length;
 		this.g = gV;
 		assert (n == g.getNbMaxNodes());
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
 		arcForced = (i, j) -> {
 			matrix[i][j].setToTrue(this);
 			if (!g.isDirected()) {
@@ -70,7 +70,7 @@ public class PropNeighSetsChannel1 extends Propagator<GraphVar> {
 		n = sets.length;
 		this.g = gV;
 		assert (n == g.getNbMaxNodes());
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
 		arcForced = (i, j) -> {
 			sets[i].force(j, this);
 			if (!g.isDirected()) {
@@ -63,7 +63,7 @@ public class PropSuccIntsChannel1 extends Propagator<DirectedGraphVar> {
 		n = succs.length;
 		this.g = gV;
 		assert (n == g.getNbMaxNodes());
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
 		for (int i = 0; i < n; i++) {
 			assert succs[i].hasEnumeratedDomain() : "channeling variables should be enumerated";
 		}
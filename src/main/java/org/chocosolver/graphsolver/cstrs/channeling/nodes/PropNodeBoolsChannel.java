@@ -65,7 +65,7 @@ public class PropNodeBoolsChannel extends Propagator<Variable> {
 		super(ArrayUtils.append(vertices, new Variable[]{gV}), PropagatorPriority.LINEAR, true);
 		this.bools = vertices;
 		this.g = gV;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_NODE, GraphEventType.ADD_NODE);
 		forceG = element -> bools[element].setToTrue(this);
 		remG = element -> bools[element].setToFalse(this);
 		super.linkVariables();
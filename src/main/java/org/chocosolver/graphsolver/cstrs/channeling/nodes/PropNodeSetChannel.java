@@ -67,7 +67,7 @@ public class PropNodeSetChannel extends Propagator<Variable> {
 		this.set = vertexSet;
 		this.g = gV;
 		sdm = set.monitorDelta(this);
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_NODE, GraphEventType.ADD_NODE);
 		forceS = element -> g.enforceNode(element, this);
 		remS = element -> g.removeNode(element, this);
 		forceG = element -> set.force(element, this);
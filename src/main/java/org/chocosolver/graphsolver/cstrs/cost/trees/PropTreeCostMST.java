@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.cstrs.cost.trees;
+
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.GraphEventType;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.Arrays;
+
+/**
+ * Lower bound of the cost of a spanning tree (over all nodes, which are enforced) by the minimum spanning tree
+ * of the potential graph that contains all mandatory edges, with reduced-cost filtering.
+ * - For minimization problem
+ * <p>
+ * The minimum spanning tree is backtrackable and maintained from graph deltas: a removed tree edge is replaced
+ * by the cheapest potential edge crossing the cut, found in the list of edges sorted once by cost,
+ * and an enforced edge replaces the most expensive non mandatory edge of the tree path between its endpoints.
+ * Non tree edges are filtered from the most expensive one, as long as their cost allows a reduced cost beyond
+ * the cost upper bound. Replacement costs of all tree edges are computed in a single pass over non tree edges.
+ * <p>
+ * Only the tree is maintained incrementally, filtering is not bounded by the size of the change:
+ * each propagation re-roots the tree and recomputes replacements over all potential edges, in O(m.α(n)),
+ * and each removed tree edge scans the sorted edge list from its start, in O(m).
+ */
+public class PropTreeCostMST extends Propagator<Variable> {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private UndirectedGraphVar g;
+	private IntVar sum;
+	private EdgeCost costs;
+	private int n;
+	private GraphDeltaMonitor gdm;
+	// minimum spanning tree and its cost
+	private UndirectedGraph tree;
+	private IStateInt treeCost;
+	// potential edges at initial propagation, by increasing cost
+	private int[] edgeFrom, edgeTo, edgeCost;
+	private int nbEdges;
+	// rooted tree
+	private int[] parent, depth, queue;
+	// replacement edge of each tree edge (x, parent[x]), and covering structure to compute them
+	private int[] rep, jump;
+	// side[x] == stamp iff x belongs to the marked side of a cut
+	private int[] side;
+	private int stamp;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public PropTreeCostMST(UndirectedGraphVar graph, IntVar obj, int[][] costMatrix) {
+		this(graph, obj, EdgeCost.of(costMatrix));
+	}
+
+	/**
+	 * @param graph a graph variable, that must be a spanning tree
+	 * @param obj   the sum of edge costs
+	 * @param costs edge costs, possibly computed on demand
+	 */
+	public PropTreeCostMST(UndirectedGraphVar graph, IntVar obj, EdgeCost costs) {
+		super(new Variable[]{graph, obj}, PropagatorPriority.QUADRATIC, true);
+		g = graph;
+		sum = obj;
+		this.costs = costs;
+		n = g.getNbMaxNodes();
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
+		tree = new UndirectedGraph(g.getModel(), n, SetType.BITSET, true);
+		treeCost = g.getEnvironment().makeInt(0);
+		parent = new int[n];
+		depth = new int[n];
+		rep = new int[n];
+		jump = new int[n];
+		queue = new int[n];
+		side = new int[n];
+	}
+
+	//***********************************************************************************
+	// PROPAGATIONS
+	//***********************************************************************************
+
+	@Override
+	public int getPropagationConditions(int vIdx) {
+		if (vIdx == 0) {
+			return GraphEventType.REMOVE_ARC.getMask() | GraphEventType.ADD_ARC.getMask();
+		}
+		return IntEventType.boundAndInst();
+	}
+
+	@Override
+	public void propagate(int evtmask) throws ContradictionException {
+		for (int i = 0; i < n; i++) {
+			g.enforceNode(i, this);
+		}
+		sortEdges();
+		kruskal();
+		gdm.unfreeze();
+		filter();
+	}
+
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		if (idxVarInProp == 0) {
+			gdm.freeze();
+			gdm.forEachArc(this::edgeRemoved, GraphEventType.REMOVE_ARC);
+			gdm.forEachArc(this::edgeEnforced, GraphEventType.ADD_ARC);
+			gdm.unfreeze();
+		}
+		filter();
+	}
+
+	private void sortEdges() {
+		nbEdges = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getPotNeighOf(i)) {
+				if (i < j) {
+					nbEdges++;
+				}
+			}
+		}
+		int[] from = new int[nbEdges];
+		int[] to = new int[nbEdges];
+		// cost and index of each edge
+		long[] keys = new long[nbEdges];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getPotNeighOf(i)) {
+				if (i < j) {
+					from[m] = i;
+					to[m] = j;
+					keys[m] = ((long) costs.getCost(i, j) << 32) | m;
+					m++;
+				}
+			}
+		}
+		Arrays.sort(keys);
+		edgeFrom = new int[nbEdges];
+		edgeTo = new int[nbEdges];
+		edgeCost = new int[nbEdges];
+		for (int k = 0; k < nbEdges; k++) {
+			int e = (int) keys[k];
+			edgeFrom[k] = from[e];
+			edgeTo[k] = to[e];
+			edgeCost[k] = (int) (keys[k] >> 32);
+		}
+	}
+
+	/**
+	 * Computes from scratch the minimum spanning tree containing all mandatory edges
+	 */
+	private void kruskal() throws ContradictionException {
+		for (int i = 0; i < n; i++) {
+			tree.getNeighOf(i).clear();
+			parent[i] = i;
+		}
+		int cost = 0;
+		int size = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getMandNeighOf(i)) {
+				if (i < j) {
+					if (!union(i, j)) {
+						// mandatory cycle
+						fails();
+					}
+					tree.addEdge(i, j);
+					cost += costs.getCost(i, j);
+					size++;
+				}
+			}
+		}
+		for (int k = 0; k < nbEdges && size < n - 1; k++) {
+			if (union(edgeFrom[k], edgeTo[k])) {
+				tree.addEdge(edgeFrom[k], edgeTo[k]);
+				cost += edgeCost[k];
+				size++;
+			}
+		}
+		if (size < n - 1) {
+			fails();
+		}
+		treeCost.set(cost);
+	}
+
+	private boolean union(int i, int j) {
+		int ri = find(i);
+		int rj = find(j);
+		parent[ri] = rj;
+		return ri != rj;
+	}
+
+	private int find(int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Replaces tree edge (i,j) by the cheapest potential edge reconnecting the tree
+	 */
+	private void edgeRemoved(int i, int j) throws ContradictionException {
+		if (i == j || !tree.getNeighOf(i).contains(j)) {
+			return;
+		}
+		tree.removeEdge(i, j);
+		treeCost.add(-costs.getCost(i, j));
+		int k = replacement(i);
+		if (k == -1) {
+			fails();
+		}
+		tree.addEdge(edgeFrom[k], edgeTo[k]);
+		treeCost.add(edgeCost[k]);
+	}
+
+	/**
+	 * Enforced edge (i,j) replaces the most expensive non mandatory edge of the tree path between i and j
+	 */
+	private void edgeEnforced(int i, int j) throws ContradictionException {
+		if (i == j || tree.getNeighOf(i).contains(j)) {
+			return;
+		}
+		root(i);
+		int worst = -1;
+		for (int x = j; x != i; x = parent[x]) {
+			if (!g.getMandNeighOf(x).contains(parent[x]) && (worst == -1 || cost(x) > cost(worst))) {
+				worst = x;
+			}
+		}
+		if (worst == -1) {
+			// mandatory cycle
+			fails();
+		}
+		tree.removeEdge(worst, parent[worst]);
+		treeCost.add(costs.getCost(i, j) - cost(worst));
+		tree.addEdge(i, j);
+	}
+
+	private void filter() throws ContradictionException {
+		int lb = treeCost.get();
+		sum.updateLowerBound(lb, this);
+		int slack = sum.getUB() - lb;
+		root(0);
+		int minFree = Integer.MAX_VALUE;
+		for (int x = 1; x < n; x++) {
+			if (!g.getMandNeighOf(x).contains(parent[x])) {
+				minFree = Math.min(minFree, cost(x));
+			}
+		}
+		// a non tree edge replaces a tree edge costing at least minFree
+		for (int k = nbEdges - 1; k >= 0 && (minFree == Integer.MAX_VALUE || edgeCost[k] - minFree > slack); k--) {
+			int i = edgeFrom[k];
+			int j = edgeTo[k];
+			if (g.getPotNeighOf(i).contains(j) && !tree.getNeighOf(i).contains(j)) {
+				int max = maxOnPath(i, j);
+				// the edge would close a cycle of mandatory edges
+				if (max == Integer.MIN_VALUE || edgeCost[k] - max > slack) {
+					g.removeArc(i, j, this);
+				}
+			}
+		}
+		// a tree edge is enforced if it has no replacement or an expensive one
+		replacements();
+		for (int x = 1; x < n; x++) {
+			int y = parent[x];
+			if (!g.getMandNeighOf(x).contains(y) && (rep[x] == -1 || edgeCost[rep[x]] - cost(x) > slack)) {
+				g.enforceArc(x, y, this);
+			}
+		}
+	}
+
+	//***********************************************************************************
+	// TREE TRAVERSALS
+	//***********************************************************************************
+
+	/**
+	 * Roots the tree at r, filling parent and depth
+	 */
+	private void root(int r) {
+		parent[r] = -1;
+		depth[r] = 0;
+		queue[0] = r;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			int x = queue[head];
+			for (int y : tree.getNeighOf(x)) {
+				if (y != parent[x]) {
+					parent[y] = x;
+					depth[y] = depth[x] + 1;
+					queue[tail++] = y;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stores in rep[x] the index of the cheapest non tree edge whose tree path contains edge (x, parent[x]),
+	 * -1 if none: non tree edges are scanned by increasing cost, and each one covers the uncovered edges of its path,
+	 * which are found by skipping covered ones as in a union-find structure.
+	 * Nothing is kept between calls: this costs O(m.α(n)) per propagation.
+	 */
+	private void replacements() {
+		for (int x = 0; x < n; x++) {
+			jump[x] = x;
+			rep[x] = -1;
+		}
+		int uncovered = n - 1;
+		for (int k = 0; k < nbEdges && uncovered > 0; k++) {
+			int i = edgeFrom[k];
+			int j = edgeTo[k];
+			if (!g.getPotNeighOf(i).contains(j) || tree.getNeighOf(i).contains(j)) {
+				continue;
+			}
+			i = top(i);
+			j = top(j);
+			while (i != j) {
+				if (depth[i] < depth[j]) {
+					int t = i;
+					i = j;
+					j = t;
+				}
+				// i is deeper, so it is not the lowest common ancestor
+				rep[i] = k;
+				uncovered--;
+				jump[i] = parent[i];
+				i = top(i);
+			}
+		}
+	}
+
+	/**
+	 * @return the deepest ancestor of x (x included) whose edge to its parent is not covered yet
+	 */
+	private int top(int x) {
+		while (jump[x] != x) {
+			jump[x] = jump[jump[x]];
+			x = jump[x];
+		}
+		return x;
+	}
+
+	/**
+	 * @return the cost of the edge between x and its parent
+	 */
+	private int cost(int x) {
+		return costs.getCost(x, parent[x]);
+	}
+
+	/**
+	 * @return the largest cost of a non mandatory edge of the tree path between i and j,
+	 * Integer.MIN_VALUE if they are all mandatory
+	 */
+	private int maxOnPath(int i, int j) {
+		int max = Integer.MIN_VALUE;
+		while (i != j) {
+			if (depth[i] < depth[j]) {
+				int t = i;
+				i = j;
+				j = t;
+			}
+			if (!g.getMandNeighOf(i).contains(parent[i])) {
+				max = Math.max(max, cost(i));
+			}
+			i = parent[i];
+		}
+		return max;
+	}
+
+	/**
+	 * @return the index of the cheapest potential edge between the tree component of x and the rest of the nodes,
+	 * -1 if none (O(m) as the sorted edge list is scanned from its start)
+	 */
+	private int replacement(int x) {
+		stamp++;
+		side[x] = stamp;
+		queue[0] = x;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			for (int z : tree.getNeighOf(queue[head])) {
+				if (side[z] != stamp) {
+					side[z] = stamp;
+					queue[tail++] = z;
+				}
+			}
+		}
+		for (int k = 0; k < nbEdges; k++) {
+			int i = edgeFrom[k];
+			int j = edgeTo[k];
+			if ((side[i] == stamp) != (side[j] == stamp) && g.getPotNeighOf(i).contains(j)) {
+				return k;
+			}
+		}
+		return -1;
+	}
+
+	//***********************************************************************************
+	// INFO
+	//***********************************************************************************
+
+	@Override
+	public ESat isEntailed() {
+		if (!g.isInstantiated()) {
+			return ESat.UNDEFINED;
+		}
+		int cost = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getMandNeighOf(i)) {
+				if (i < j) {
+					cost += costs.getCost(i, j);
+				}
+			}
+		}
+		if (!sum.contains(cost)) {
+			return ESat.FALSE;
+		}
+		return sum.isInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+	}
+}
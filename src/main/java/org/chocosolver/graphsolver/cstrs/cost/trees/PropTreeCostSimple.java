@@ -27,6 +27,7 @@
 
 package org.chocosolver.graphsolver.cstrs.cost.trees;
 
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
 import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
 import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
@@ -55,7 +56,7 @@ public class PropTreeCostSimple extends Propagator<UndirectedGraphVar> {
 	private PairProcedure edgeEnf, edgeRem;
 	protected int n;
 	protected IntVar sum;
-	protected int[][] distMatrix;
+	protected EdgeCost costs;
 	private IStateInt minSum, maxSum;
 
 	//***********************************************************************************
@@ -63,17 +64,26 @@ public class PropTreeCostSimple extends Propagator<UndirectedGraphVar> {
 	//***********************************************************************************
 
 	public PropTreeCostSimple(UndirectedGraphVar graph, IntVar obj, int[][] costMatrix) {
+		this(graph, obj, EdgeCost.of(costMatrix));
+	}
+
+	/**
+	 * @param graph a graph variable
+	 * @param obj   the sum of edge costs
+	 * @param costs edge costs, possibly computed on demand
+	 */
+	public PropTreeCostSimple(UndirectedGraphVar graph, IntVar obj, EdgeCost costs) {
 		super(new UndirectedGraphVar[]{graph}, PropagatorPriority.LINEAR, true);
 		g = graph;
 		sum = obj;
 		n = g.getNbMaxNodes();
-		distMatrix = costMatrix;
+		this.costs = costs;
 		IEnvironment environment = graph.getEnvironment();
 		minSum = environment.makeInt(0);
 		maxSum = environment.makeInt(0);
-		gdm = g.monitorDelta(this);
-		edgeEnf = (i, j) -> minSum.add(distMatrix[i][j]);
-		edgeRem = (i, j) -> maxSum.add(-distMatrix[i][j]);
+		gdm = g.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
+		edgeEnf = (i, j) -> minSum.add(costs.getCost(i, j));
+		edgeRem = (i, j) -> maxSum.add(-costs.getCost(i, j));
 	}
 
 	//***********************************************************************************
@@ -88,9 +98,9 @@ public class PropTreeCostSimple extends Propagator<UndirectedGraphVar> {
 			ISet nei = g.getPotNeighOf(i);
 			for (int j : nei) {
 				if (i <= j) {
-					max += distMatrix[i][j];
+					max += costs.getCost(i, j);
 					if (g.getMandNeighOf(i).contains(j)) {
-						min += distMatrix[i][j];
+						min += costs.getCost(i, j);
 					}
 				}
 			}
@@ -125,9 +135,9 @@ public class PropTreeCostSimple extends Propagator<UndirectedGraphVar> {
 			ISet nei = g.getPotNeighOf(i);
 			for (int j : nei) {
 				if (i <= j) {
-					max += distMatrix[i][j];
+					max += costs.getCost(i, j);
 					if (g.getMandNeighOf(i).contains(j)) {
-						min += distMatrix[i][j];
+						min += costs.getCost(i, j);
 					}
 				}
 			}
@@ -80,7 +80,7 @@ public class PropTreeNoSubtour extends Propagator<UndirectedGraphVar> {
 	public PropTreeNoSubtour(UndirectedGraphVar graph) {
 		super(new UndirectedGraphVar[]{graph}, PropagatorPriority.LINEAR, true);
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 		this.n = g.getNbMaxNodes();
 		arcEnforced = new EnfArc();
 		fifo = new int[n];
@@ -27,8 +27,10 @@
 
 package org.chocosolver.graphsolver.cstrs.cost.tsp;
 
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
 import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
@@ -38,12 +40,17 @@ import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
  * Compute the cost of the graph by summing edge costs
  * Supposes that each node must have two neighbors (cycle)
  * - For minimization problem
+ * <p>
+ * The potential neighbors of each node are sorted by cost once, at construction.
+ * Trailed pointers to the cheapest and most expensive remaining neighbors skip removed ones,
+ * so that best and worst neighbors are found in amortized constant time.
  */
 public class PropCycleCostSimple extends Propagator<Variable> {
 
@@ -54,20 +61,51 @@ public class PropCycleCostSimple extends Propagator<Variable> {
 	protected UndirectedGraphVar g;
 	protected int n;
 	protected IntVar sum;
-	protected int[][] distMatrix;
+	protected EdgeCost costs;
 	protected int[] replacementCost;
+	// potential neighbors of each node, by increasing cost
+	protected int[][] sorted;
+	// removed neighbors of i are out of sorted[i][first[i], last[i]] (which may contain some of them)
+	protected IStateInt[] first, last;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
 
 	public PropCycleCostSimple(UndirectedGraphVar graph, IntVar obj, int[][] costMatrix) {
+		this(graph, obj, EdgeCost.of(costMatrix));
+	}
+
+	/**
+	 * @param graph a graph variable
+	 * @param obj   the sum of edge costs
+	 * @param costs edge costs, possibly computed on demand
+	 */
+	public PropCycleCostSimple(UndirectedGraphVar graph, IntVar obj, EdgeCost costs) {
 		super(new Variable[]{graph, obj}, PropagatorPriority.LINEAR, false);
 		g = graph;
 		sum = obj;
 		n = g.getNbMaxNodes();
-		distMatrix = costMatrix;
+		this.costs = costs;
 		replacementCost = new int[n];
+		sorted = new int[n][];
+		first = new IStateInt[n];
+		last = new IStateInt[n];
+		for (int i = 0; i < n; i++) {
+			ISet nei = g.getPotNeighOf(i);
+			long[] keys = new long[nei.size()];
+			int k = 0;
+			for (int j : nei) {
+				keys[k++] = ((long) costs.getCost(i, j) << 32) | j;
+			}
+			Arrays.sort(keys);
+			sorted[i] = new int[keys.length];
+			for (k = 0; k < keys.length; k++) {
+				sorted[i][k] = (int) keys[k];
+			}
+			first[i] = g.getEnvironment().makeInt(0);
+			last[i] = g.getEnvironment().makeInt(keys.length - 1);
+		}
 	}
 
 	//***********************************************************************************
@@ -92,9 +130,9 @@ public class PropCycleCostSimple extends Propagator<Variable> {
 			ISet ker = g.getMandNeighOf(i);
 			for (int j : env) {
 				if (i <= j) {
-					maxSum += distMatrix[i][j];
+					maxSum += costs.getCost(i, j);
 					if (ker.contains(j)) {
-						minSum += distMatrix[i][j];
+						minSum += costs.getCost(i, j);
 					}
 				}
 			}
@@ -136,16 +174,35 @@ public class PropCycleCostSimple extends Propagator<Variable> {
 	}
 
 	protected void filter(int minSum) throws ContradictionException {
-		ISet succs;
 		int delta = sum.getUB() - minSum;
+		int minReplacement = Integer.MAX_VALUE;
 		for (int i = 0; i < n; i++) {
-			succs = g.getPotNeighOf(i);
-			for (int j : succs) {
-				if (i < j && !g.getMandNeighOf(i).contains(j)) {
-					if (replacementCost[i] == -1 || replacementCost[j] == -1) {
-						g.removeArc(i, j, this);
+			if (replacementCost[i] != -1) {
+				minReplacement = Math.min(minReplacement, replacementCost[i]);
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			ISet nei = g.getPotNeighOf(i);
+			ISet ker = g.getMandNeighOf(i);
+			int[] s = sorted[i];
+			int lo = first[i].get();
+			if (replacementCost[i] == -1) {
+				// i already has two mandatory neighbors
+				for (int k = last[i].get(); k >= lo; k--) {
+					if (nei.contains(s[k]) && !ker.contains(s[k])) {
+						g.removeArc(i, s[k], this);
+					}
+				}
+			} else {
+				// most expensive neighbors first, until no replacement cost can make an edge too expensive
+				for (int k = last[i].get(); k >= lo; k--) {
+					int j = s[k];
+					int c = costs.getCost(i, j);
+					if ((2 * c - replacementCost[i] - minReplacement) / 2 <= delta) {
+						break;
 					}
-					if ((2 * distMatrix[i][j] - replacementCost[i] - replacementCost[j]) / 2 > delta) {
+					if (nei.contains(j) && !ker.contains(j) && replacementCost[j] != -1
+							&& (2 * c - replacementCost[i] - replacementCost[j]) / 2 > delta) {
 						g.removeArc(i, j, this);
 					}
 				}
@@ -156,68 +213,70 @@ public class PropCycleCostSimple extends Propagator<Variable> {
 	protected int findTwoBest(int i) throws ContradictionException {
 		if (g.getMandNeighOf(i).isEmpty()) {
 			int mc1 = getBestNot(i, -2);
-			int cost = distMatrix[i][getBestNot(i, mc1)];
+			int cost = costs.getCost(i, getBestNot(i, mc1));
 			replacementCost[i] = cost;
-			return distMatrix[i][mc1] + cost;
+			return costs.getCost(i, mc1) + cost;
 		} else {
 			Iterator<Integer> it = g.getMandNeighOf(i).iterator();
 			int mc1 = it.next();
 			if (it.hasNext()) {
 				int mc2 = it.next();
 				replacementCost[i] = -1;
-				return distMatrix[i][mc1] + distMatrix[i][mc2];
+				return costs.getCost(i, mc1) + costs.getCost(i, mc2);
 			}
-			int cost = distMatrix[i][getBestNot(i, mc1)];
+			int cost = costs.getCost(i, getBestNot(i, mc1));
 			replacementCost[i] = cost;
-			return distMatrix[i][mc1] + cost;
+			return costs.getCost(i, mc1) + cost;
 
 		}
 	}
 
 	protected int getBestNot(int i, int not) throws ContradictionException {
 		ISet nei = g.getPotNeighOf(i);
-		int cost = -1;
-		int idx = -1;
-		for (int j : nei) {
-			if (j != not && (idx == -1 || cost > distMatrix[i][j])) {
-				idx = j;
-				cost = distMatrix[i][j];
-			}
+		int[] s = sorted[i];
+		int k = first[i].get();
+		while (k < s.length && !nei.contains(s[k])) {
+			k++;
 		}
-		if (idx == -1) {
-			fails();
+		first[i].set(k);
+		for (; k < s.length; k++) {
+			if (s[k] != not && nei.contains(s[k])) {
+				return s[k];
+			}
 		}
-		return idx;
+		fails();
+		return -1;
 	}
 
 	protected int findTwoWorst(int i) throws ContradictionException {
 		if (g.getMandNeighOf(i).isEmpty()) {
 			int mc1 = getWorstNot(i, -2);
-			return distMatrix[i][mc1] + distMatrix[i][getWorstNot(i, mc1)];
+			return costs.getCost(i, mc1) + costs.getCost(i, getWorstNot(i, mc1));
 		} else {
 			Iterator<Integer> it = g.getMandNeighOf(i).iterator();
 			int mc1 = it.next();
 			if (it.hasNext()) {
-				return distMatrix[i][mc1] + distMatrix[i][it.next()];
+				return costs.getCost(i, mc1) + costs.getCost(i, it.next());
 			}
-			return distMatrix[i][mc1] + distMatrix[i][getWorstNot(i, mc1)];
+			return costs.getCost(i, mc1) + costs.getCost(i, getWorstNot(i, mc1));
 		}
 	}
 
 	protected int getWorstNot(int i, int not) throws ContradictionException {
 		ISet nei = g.getPotNeighOf(i);
-		int cost = -1;
-		int idx = -1;
-		for (int j : nei) {
-			if (j != not && (idx == -1 || cost < distMatrix[i][j])) {
-				idx = j;
-				cost = distMatrix[i][j];
-			}
+		int[] s = sorted[i];
+		int k = last[i].get();
+		while (k >= 0 && !nei.contains(s[k])) {
+			k--;
 		}
-		if (idx == -1) {
-			fails();
+		last[i].set(k);
+		for (; k >= 0; k--) {
+			if (s[k] != not && nei.contains(s[k])) {
+				return s[k];
+			}
 		}
-		return idx;
+		fails();
+		return -1;
 	}
 
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.cstrs.cost.tsp.lagrangian;
+
+import org.chocosolver.graphsolver.cstrs.cost.GraphLagrangianRelaxation;
+import org.chocosolver.graphsolver.cstrs.cost.trees.lagrangian.AbstractTreeFinder;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+
+import java.util.stream.IntStream;
+
+/**
+ * Computes a minimum 1-tree (a spanning tree of nodes 1..n-1 plus the two best edges of node 0)
+ * with Boruvka's algorithm: at each round, the cheapest outgoing edge of every node is searched
+ * in parallel on the common fork-join pool, and components are merged along the cheapest edge of each of them.
+ * Mandatory edges come first; ties are broken by endpoints, so that selected edges never close a cycle.
+ * Meant for large graphs, where scanning the edges dominates.
+ */
+public class BoruvkaOneTreeFinder extends AbstractTreeFinder {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private double[][] costs;
+	// component of each node, in the union-find structure
+	private int[] comp, parent;
+	// target of the best outgoing edge of each node, source of the best outgoing edge of each component
+	private int[] nodeBest, compBest;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public BoruvkaOneTreeFinder(int nbNodes, GraphLagrangianRelaxation propagator) {
+		super(nbNodes, propagator);
+		comp = new int[n];
+		parent = new int[n];
+		nodeBest = new int[n];
+		compBest = new int[n];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public void computeMST(double[][] costs, UndirectedGraph graph) throws ContradictionException {
+		g = graph;
+		this.costs = costs;
+		for (int i = 0; i < n; i++) {
+			Tree.getNeighOf(i).clear();
+			comp[i] = i;
+			parent[i] = i;
+		}
+		treeCost = 0;
+		int nbComps = n - 1;
+		while (nbComps > 1) {
+			IntStream.range(1, n).parallel().forEach(this::selectEdge);
+			for (int i = 1; i < n; i++) {
+				compBest[i] = -1;
+			}
+			for (int i = 1; i < n; i++) {
+				int c = comp[i];
+				if (nodeBest[i] != -1 && (compBest[c] == -1 || better(i, nodeBest[i], compBest[c], nodeBest[compBest[c]]))) {
+					compBest[c] = i;
+				}
+			}
+			int merged = 0;
+			for (int c = 1; c < n; c++) {
+				if (comp[c] == c && compBest[c] != -1) {
+					int i = compBest[c];
+					int j = nodeBest[i];
+					int ri = find(i);
+					int rj = find(j);
+					if (ri != rj) {
+						parent[ri] = rj;
+						addArc(i, j);
+						merged++;
+					}
+				}
+			}
+			if (merged == 0) {
+				// disconnected
+				propHK.contradiction();
+			}
+			nbComps -= merged;
+			for (int i = 1; i < n; i++) {
+				comp[i] = find(i);
+			}
+		}
+		addOneNodeArcs();
+	}
+
+	/**
+	 * Stores in nodeBest[i] the other end of the best edge between i and another component (-1 if none)
+	 */
+	private void selectEdge(int i) {
+		int best = -1;
+		for (int j : g.getNeighOf(i)) {
+			if (j != 0 && comp[j] != comp[i] && (best == -1 || better(i, j, i, best))) {
+				best = j;
+			}
+		}
+		nodeBest[i] = best;
+	}
+
+	/**
+	 * Adds the two best edges of node 0
+	 */
+	private void addOneNodeArcs() throws ContradictionException {
+		int min1 = -1;
+		int min2 = -1;
+		for (int j : g.getNeighOf(0)) {
+			if (j == 0) {
+				continue;
+			}
+			if (min1 == -1 || better(0, j, 0, min1)) {
+				min2 = min1;
+				min1 = j;
+			} else if (min2 == -1 || better(0, j, 0, min2)) {
+				min2 = j;
+			}
+		}
+		if (min1 == -1 || min2 == -1) {
+			propHK.contradiction();
+		}
+		addArc(0, min1);
+		addArc(0, min2);
+	}
+
+	/**
+	 * @return true iff edge (i,j) is better than edge (k,l): it is mandatory and (k,l) is not,
+	 * or it is cheaper, or it has smaller endpoints
+	 */
+	private boolean better(int i, int j, int k, int l) {
+		boolean mij = propHK.isMandatory(i, j);
+		boolean mkl = propHK.isMandatory(k, l);
+		if (mij != mkl) {
+			return mij;
+		}
+		if (!mij && costs[i][j] != costs[k][l]) {
+			return costs[i][j] < costs[k][l];
+		}
+		int a = Math.min(i, j);
+		int b = Math.min(k, l);
+		if (a != b) {
+			return a < b;
+		}
+		return Math.max(i, j) < Math.max(k, l);
+	}
+
+	private void addArc(int from, int to) {
+		Tree.addEdge(from, to);
+		treeCost += costs[from][to];
+	}
+
+	private int find(int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	@Override
+	public void performPruning(double UB) throws ContradictionException {
+		throw new UnsupportedOperationException("bound computation only, no filtering!");
+	}
+}
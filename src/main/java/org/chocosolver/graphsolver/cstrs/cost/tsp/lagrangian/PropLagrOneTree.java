@@ -42,6 +42,8 @@ import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.graphs.UndirectedGraph;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 
+import java.util.stream.IntStream;
+
 /**
  * TSP Lagrangian relaxation
  * Inspired from the work of Held & Karp
@@ -68,7 +70,9 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 	private UndirectedGraph mst;
 	private double step;
 	private final AbstractTreeFinder HKfilter, HK;
+	private AbstractTreeFinder parallelHK;
 	private int nbSprints;
+	private int parallelThreshold;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
@@ -83,6 +87,7 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 		penalities = new double[n];
 		mandatoryArcsList = new TIntArrayList();
 		nbSprints = 30;
+		parallelThreshold = Integer.MAX_VALUE;
 		HK = new PrimOneTreeFinder(n, this);
 		HKfilter = new KruskalOneTreeGAC(n, this);
 	}
@@ -113,6 +118,7 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 	}
 
 	private void lagrangianRelaxation() throws ContradictionException {
+		AbstractTreeFinder oneTree = n > parallelThreshold ? parallelHK : HK;
 		double hkb;
 		double alpha = 2;
 		double beta = 0.5;
@@ -129,12 +135,12 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 		HKfilter.performPruning((double) (obj.getUB()) + totalPenalities + 0.001);
 		for (int iter = 5; iter > 0; iter--) {
 			for (int i = nbSprints; i > 0; i--) {
-				HK.computeMST(costs, g);
-				hkb = HK.getBound() - totalPenalities;
+				oneTree.computeMST(costs, g);
+				hkb = oneTree.getBound() - totalPenalities;
 				if (hkb > bestHKB + 1) {
 					bestHKB = hkb;
 				}
-				mst = HK.getMST();
+				mst = oneTree.getMST();
 				if (hkb - Math.floor(hkb) < 0.001) {
 					hkb = Math.floor(hkb);
 				}
@@ -229,6 +235,10 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 	}
 
 	private void updateCostMatrix() {
+		if (n > parallelThreshold) {
+			IntStream.range(0, n).parallel().forEach(this::updateCostRow);
+			return;
+		}
 		ISet nei;
 		for (int i = 0; i < n; i++) {
 			nei = g.getNeighOf(i);
@@ -241,6 +251,17 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 		}
 	}
 
+	/**
+	 * Updates row i of the cost matrix, computing each cost as in the symmetric update so that it remains symmetric
+	 */
+	private void updateCostRow(int i) {
+		for (int j : g.getNeighOf(i)) {
+			int a = Math.min(i, j);
+			int b = Math.max(i, j);
+			costs[i][j] = originalCosts[a][b] + penalities[a] + penalities[b];
+		}
+	}
+
 	//***********************************************************************************
 	// INFERENCE
 	//***********************************************************************************
@@ -291,6 +312,20 @@ public class PropLagrOneTree extends Propagator<Variable> implements GraphLagran
 		waitFirstSol = b;
 	}
 
+	/**
+	 * Above the given number of nodes, 1-trees are computed by a parallel Boruvka algorithm
+	 * and cost matrix updates are spread over rows, on the common fork-join pool.
+	 * By default, everything is sequential.
+	 *
+	 * @param threshold number of nodes above which computations are parallel
+	 */
+	public void setParallelThreshold(int threshold) {
+		parallelThreshold = threshold;
+		if (parallelHK == null) {
+			parallelHK = new BoruvkaOneTreeFinder(n, this);
+		}
+	}
+
 	public boolean contains(int i, int j) {
 		return mst == null || mst.edgeExists(i, j);
 	}
@@ -68,7 +68,7 @@ public class PropACyclic extends Propagator<GraphVar> {
 		this.fifo = new int[n];
 		this.rfFrom = new BitSet(n);
 		this.rfTo = new BitSet(n);
-		this.gdm = g.monitorDelta(this);
+		this.gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 	}
 
 	//***********************************************************************************
@@ -63,7 +63,7 @@ public class PropCycle extends Propagator<UndirectedGraphVar> {
 	public PropCycle(UndirectedGraphVar graph) {
 		super(new UndirectedGraphVar[]{graph}, PropagatorPriority.LINEAR, true);
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 		this.n = g.getNbMaxNodes();
 		e1 = new IStateInt[n];
 		e2 = new IStateInt[n];
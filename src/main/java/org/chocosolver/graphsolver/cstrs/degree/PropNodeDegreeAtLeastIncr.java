@@ -81,7 +81,7 @@ public class PropNodeDegreeAtLeastIncr extends Propagator<GraphVar> {
 				throw new UnsupportedOperationException();
 		}
 		nodeProc = this::checkAtLeast;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_NODE, GraphEventType.REMOVE_ARC);
 	}
 
 	public PropNodeDegreeAtLeastIncr(UndirectedGraphVar graph, int degree) {
@@ -93,7 +93,7 @@ public class PropNodeDegreeAtLeastIncr extends Propagator<GraphVar> {
 		target = new IncidentSet.SuccOrNeighSet();
 		g = graph;
 		this.degrees = degrees;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_NODE, GraphEventType.REMOVE_ARC);
 		proc = (i, j) -> {
 			checkAtLeast(i);
 			checkAtLeast(j);
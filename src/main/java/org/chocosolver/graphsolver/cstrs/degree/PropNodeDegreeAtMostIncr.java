@@ -39,6 +39,7 @@ import org.chocosolver.util.procedure.PairProcedure;
 
 /**
  * Propagator that ensures that a node has at most N successors/predecessors/neighbors
+ * Incremental version: only the endpoints of newly enforced arcs are checked
  *
  * @author Jean-Guillaume Fages
  */
@@ -65,7 +66,7 @@ public class PropNodeDegreeAtMostIncr extends Propagator<GraphVar> {
 	public PropNodeDegreeAtMostIncr(DirectedGraphVar graph, Orientation setType, int[] degrees) {
 		super(new DirectedGraphVar[]{graph}, PropagatorPriority.BINARY, true);
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 		this.degrees = degrees;
 		switch (setType) {
 			case SUCCESSORS:
@@ -89,7 +90,7 @@ public class PropNodeDegreeAtMostIncr extends Propagator<GraphVar> {
 		super(new UndirectedGraphVar[]{graph}, PropagatorPriority.BINARY, true);
 		target = new IncidentSet.SuccOrNeighSet();
 		g = graph;
-		gdm = g.monitorDelta(this);
+		gdm = g.monitorDelta(this, GraphEventType.ADD_ARC);
 		this.degrees = degrees;
 		enf_proc = (i, j) -> {
 			checkAtMost(i);
@@ -28,17 +28,22 @@
 package org.chocosolver.graphsolver.cstrs.degree;
 
 import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.graphsolver.variables.GraphVar;
 import org.chocosolver.graphsolver.variables.IncidentSet;
 import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 import org.chocosolver.util.objects.graphs.Orientation;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.procedure.PairProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
 import java.util.BitSet;
@@ -47,6 +52,10 @@ import java.util.BitSet;
  * Propagator that ensures that a node has at most N successors/predecessors/neighbors
  * ENSURES EVERY VERTEX i FOR WHICH DEGREE[i]>0 IS MANDATORY
  *
+ * Incremental: the mandatory and potential degrees of a node are read in constant time
+ * from the (backtrackable) incident sets, so only the endpoints of removed/enforced arcs
+ * and the nodes whose degree variable has changed are filtered.
+ *
  * @author Jean-Guillaume Fages
  */
 public class PropNodeDegreeVar extends Propagator<Variable> {
@@ -60,30 +69,44 @@ public class PropNodeDegreeVar extends Propagator<Variable> {
 	private IntVar[] degrees;
 	private IncidentSet target;
 	private BitSet toDo;
+	private GraphDeltaMonitor gdm;
+	private PairProcedure arcProc;
+	private IntProcedure nodeProc;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
 
 	public PropNodeDegreeVar(DirectedGraphVar graph, Orientation setType, IntVar[] degrees) {
-		super(ArrayUtils.append(degrees, new Variable[]{graph}), PropagatorPriority.BINARY, false);
+		super(ArrayUtils.append(degrees, new Variable[]{graph}), PropagatorPriority.BINARY, true);
 		this.g = graph;
 		this.n = g.getNbMaxNodes();
 		this.degrees = degrees;
+		this.toDo = new BitSet(n);
+		this.gdm = g.monitorDelta(this, GraphEventType.REMOVE_NODE, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
 		if (setType == Orientation.PREDECESSORS) {
 			this.target = new IncidentSet.PredOrNeighSet();
+			this.arcProc = (i, j) -> toDo.set(j);
 		} else {
 			this.target = new IncidentSet.SuccOrNeighSet();
+			this.arcProc = (i, j) -> toDo.set(i);
 		}
+		this.nodeProc = toDo::set;
 	}
 
 	public PropNodeDegreeVar(UndirectedGraphVar graph, IntVar[] degrees) {
-		super(ArrayUtils.append(degrees, new Variable[]{graph}), PropagatorPriority.BINARY, false);
+		super(ArrayUtils.append(degrees, new Variable[]{graph}), PropagatorPriority.BINARY, true);
 		this.target = new IncidentSet.SuccOrNeighSet();
 		this.g = graph;
 		this.n = g.getNbMaxNodes();
 		this.degrees = degrees;
 		this.toDo = new BitSet(n);
+		this.gdm = g.monitorDelta(this, GraphEventType.REMOVE_NODE, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
+		this.arcProc = (i, j) -> {
+			toDo.set(i);
+			toDo.set(j);
+		};
+		this.nodeProc = toDo::set;
 	}
 
 	//***********************************************************************************
@@ -92,49 +115,32 @@ public class PropNodeDegreeVar extends Propagator<Variable> {
 
 	@Override
 	public void propagate(int evtmask) throws ContradictionException {
-		if (g.isDirected()) {
-			propagateDirected();
-		} else {
-			propagateUndirected();
-		}
+		toDo.set(0, n);
+		filterToDo();
+		gdm.unfreeze();
 	}
 
-	public void propagateDirected() throws ContradictionException {
-		for (int i = 0; i < n; i++) {
-			if (!g.getPotentialNodes().contains(i)) {
-				degrees[i].instantiateTo(0, this);
-			} else if (degrees[i].getLB() > 0) {
-				g.enforceNode(i, this);
-			}
-			ISet env = target.getPotSet(g, i);
-			ISet ker = target.getMandSet(g, i);
-			degrees[i].updateLowerBound(ker.size(), this);
-			degrees[i].updateUpperBound(env.size(), this);
-			if (ker.size() < env.size() && degrees[i].isInstantiated()) {
-				int d = degrees[i].getValue();
-				if (env.size() == d) {
-					for (int s : env) {
-						target.enforce(g, i, s, this);
-					}
-				} else if (ker.size() == d) {
-					for (int s : env) {
-						if (!ker.contains(s)) {
-							target.remove(g, i, s, this);
-						}
-					}
-				}
-			}
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		if (idxVarInProp < n) {
+			toDo.set(idxVarInProp);
+		} else {
+			gdm.freeze();
+			gdm.forEachNode(nodeProc, GraphEventType.REMOVE_NODE);
+			gdm.forEachArc(arcProc, GraphEventType.REMOVE_ARC);
+			gdm.forEachArc(arcProc, GraphEventType.ADD_ARC);
+			gdm.unfreeze();
 		}
+		filterToDo();
 	}
 
-	public void propagateUndirected() throws ContradictionException {
-		assert !g.isDirected();
-		toDo.clear();
-		for (int i = 0; i < n; i++) {
-			toDo.set(i);
-		}
-		int i = toDo.nextSetBit(0);
-		do {
+	/**
+	 * Filters every node in toDo, until a fix point is reached
+	 * (in the undirected case, modifying an edge changes the degree of both endpoints)
+	 */
+	private void filterToDo() throws ContradictionException {
+		boolean undirected = !g.isDirected();
+		for (int i = toDo.nextSetBit(0); i >= 0; i = toDo.nextSetBit(0)) {
 			toDo.clear(i);
 			if (!g.getPotentialNodes().contains(i)) {
 				degrees[i].instantiateTo(0, this);
@@ -143,34 +149,40 @@ public class PropNodeDegreeVar extends Propagator<Variable> {
 			}
 			ISet env = target.getPotSet(g, i);
 			ISet ker = target.getMandSet(g, i);
-			degrees[i].updateLowerBound(ker.size(), this);
-			degrees[i].updateUpperBound(env.size(), this);
+			degrees[i].updateBounds(ker.size(), env.size(), this);
 			if (ker.size() < env.size() && degrees[i].isInstantiated()) {
 				int d = degrees[i].getValue();
 				if (env.size() == d) {
 					for (int s : env) {
-						if (target.enforce(g, i, s, this)) {
+						if (target.enforce(g, i, s, this) && undirected) {
 							toDo.set(s);
 						}
 					}
 				} else if (ker.size() == d) {
 					for (int s : env) {
 						if (!ker.contains(s)) {
-							if (target.remove(g, i, s, this)) {
+							if (target.remove(g, i, s, this) && undirected) {
 								toDo.set(s);
 							}
 						}
 					}
 				}
 			}
-			i = toDo.nextSetBit(0);
-		} while (i >= 0);
+		}
 	}
 
 	//***********************************************************************************
 	// INFO
 	//***********************************************************************************
 
+	@Override
+	public int getPropagationConditions(int vIdx) {
+		if (vIdx < n) {
+			return IntEventType.boundAndInst();
+		}
+		return GraphEventType.REMOVE_NODE.getMask() + GraphEventType.REMOVE_ARC.getMask() + GraphEventType.ADD_ARC.getMask();
+	}
+
 	@Override
 	public ESat isEntailed() {
 		boolean done = true;
@@ -60,7 +60,10 @@ public class PropInclusion extends Propagator<GraphVar> {
 	public PropInclusion(GraphVar g1, GraphVar g2) {
 		super(new GraphVar[]{g1, g2}, PropagatorPriority.LINEAR, true);
 		g = new GraphVar[]{g1, g2};
-		gdm = new GraphDeltaMonitor[]{g1.monitorDelta(this), g2.monitorDelta(this)};
+		gdm = new GraphDeltaMonitor[]{
+				g1.monitorDelta(this, GraphEventType.ADD_NODE, GraphEventType.ADD_ARC),
+				g2.monitorDelta(this, GraphEventType.REMOVE_NODE, GraphEventType.REMOVE_ARC)
+		};
 		prNode = new IntProcedure[]{
 				i -> g[1].enforceNode(i, this),
 				i -> g[0].removeNode(i, this)
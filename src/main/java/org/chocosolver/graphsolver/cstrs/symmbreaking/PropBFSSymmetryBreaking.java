@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.cstrs.symmbreaking;
+
+import org.chocosolver.graphsolver.variables.GraphEventType;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+/**
+ * Global BFS-based symmetry breaking propagator (Ulyantsev et al.).
+ * <p>
+ * Let p(j) be the smallest predecessor (neighbor, for undirected graphs) of node j.
+ * For every j > 0, p(j) must exist and be smaller than j, and p(1) ≤ p(2) ≤ ... ≤ p(n-1).
+ * <p>
+ * The parent variables of the decomposition are replaced by two bound arrays,
+ * computed by a forward and a backward pass in O(n + m).
+ */
+public class PropBFSSymmetryBreaking extends Propagator<GraphVar> {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private GraphVar g;
+	private int n;
+	private int[] lo, hi;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	public PropBFSSymmetryBreaking(GraphVar graph) {
+		super(new GraphVar[]{graph}, PropagatorPriority.LINEAR, false);
+		this.g = graph;
+		this.n = graph.getNbMaxNodes();
+		this.lo = new int[n];
+		this.hi = new int[n];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public int getPropagationConditions(int vIdx) {
+		return GraphEventType.ADD_ARC.getMask() + GraphEventType.REMOVE_ARC.getMask();
+	}
+
+	@Override
+	public void propagate(int evtmask) throws ContradictionException {
+		// forward pass: smallest feasible parent, given the one of the previous node
+		int prev = 0;
+		for (int j = 1; j < n; j++) {
+			int p = minPotAtLeast(j, prev);
+			if (p == -1) {
+				fails();
+			}
+			lo[j] = prev = p;
+		}
+		// backward pass: largest feasible parent, given the one of the next node
+		int next = n;
+		for (int j = n - 1; j > 0; j--) {
+			int bound = Math.min(next, j - 1);
+			for (int i : g.getMandPredOrNeighOf(j)) {
+				if (i < bound) {
+					bound = i;
+				}
+			}
+			int p = maxPotAtMost(j, bound);
+			if (p < lo[j]) {
+				fails();
+			}
+			hi[j] = next = p;
+		}
+		// filtering: no predecessor below the parent, the parent is known once both bounds meet
+		for (int j = 1; j < n; j++) {
+			ISet pot = g.getPotPredOrNeighOf(j);
+			for (int i : pot) {
+				if (i < lo[j]) {
+					g.removeArc(i, j, this);
+				}
+			}
+			if (lo[j] == hi[j]) {
+				g.enforceArc(lo[j], j, this);
+			}
+		}
+	}
+
+	/**
+	 * @return the smallest potential predecessor of j in [min, j-1], or -1 if none
+	 */
+	private int minPotAtLeast(int j, int min) {
+		int best = -1;
+		for (int i : g.getPotPredOrNeighOf(j)) {
+			if (i >= min && i < j && (best == -1 || i < best)) {
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return the largest potential predecessor of j in [0, max], or -1 if none
+	 */
+	private int maxPotAtMost(int j, int max) {
+		int best = -1;
+		for (int i : g.getPotPredOrNeighOf(j)) {
+			if (i <= max && i > best) {
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	@Override
+	public ESat isEntailed() {
+		int prev = 0;
+		for (int j = 1; j < n; j++) {
+			int p = minPotAtLeast(j, prev);
+			if (p == -1) {
+				return ESat.FALSE;
+			}
+			prev = p;
+		}
+		if (!g.isInstantiated()) {
+			return ESat.UNDEFINED;
+		}
+		prev = 0;
+		for (int j = 1; j < n; j++) {
+			int p = minPotAtLeast(j, 0);
+			if (p < prev) {
+				return ESat.FALSE;
+			}
+			prev = p;
+		}
+		return ESat.TRUE;
+	}
+}
@@ -1,16 +1,28 @@
 package org.chocosolver.graphsolver.cstrs.symmbreaking;
 
+import org.chocosolver.graphsolver.util.MultiSourceBFS;
+import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.util.ESat;
+import org.chocosolver.util.objects.setDataStructures.ISet;
 
-import java.util.HashSet;
+import java.util.function.IntFunction;
 
 /**
+ * Propagator linking an undirected graph to its girth (length of its shortest cycle, n + 1 if it has no cycle).
+ * <p>
+ * Girths are computed by BFS from every node, run 64 at a time by a {@link MultiSourceBFS} and cut off as soon
+ * as they cannot improve the best cycle found so far. The girth of the mandatory graph is maintained incrementally, from the shortest
+ * cycle through each enforced edge. The girth of the potential graph is only recomputed when an edge of its
+ * shortest cycle is removed.
+ *
  * @author Моклев Вячеслав
  */
 public class PropGirth extends Propagator<Variable> {
@@ -18,107 +30,242 @@ public class PropGirth extends Propagator<Variable> {
 	private UndirectedGraphVar graph;
 	private int n;
 	private IntVar girth;
+	private GraphDeltaMonitor gdm;
+	// girths of the mandatory and of the potential graphs
+	private IStateInt mandGirth, potGirth;
+	private boolean removed;
+	// BFS data
+	private int[] dist, parent, queue, visited;
+	private int stamp;
+	// batched BFS data
+	private MultiSourceBFS bfs;
+	private MultiSourceBFS.Visitor girthVisitor;
+	private IntFunction<ISet> mandNeigh, potNeigh;
+	private int[] roots;
+	private int offset, best, bestRoot;
+	// closed walk of length potGirth (edge i is (witnessA[i], witnessB[i]))
+	private int[] witnessA, witnessB;
+	private int witnessSize;
 
 	public PropGirth(UndirectedGraphVar graphVar, IntVar girth) {
-		super(new Variable[]{girth, graphVar}, PropagatorPriority.LINEAR, false);
+		super(new Variable[]{girth, graphVar}, PropagatorPriority.LINEAR, true);
 		graph = graphVar;
 		n = graphVar.getNbMaxNodes();
 		this.girth = girth;
+		gdm = graph.monitorDelta(this, GraphEventType.ADD_ARC, GraphEventType.REMOVE_ARC);
+		mandGirth = graph.getEnvironment().makeInt(n + 1);
+		potGirth = graph.getEnvironment().makeInt(n + 1);
+		dist = new int[n];
+		parent = new int[n];
+		queue = new int[n];
+		visited = new int[n];
+		witnessA = new int[2 * n + 1];
+		witnessB = new int[2 * n + 1];
+		bfs = new MultiSourceBFS(n);
+		mandNeigh = graph::getMandNeighOf;
+		potNeigh = graph::getPotNeighOf;
+		roots = new int[n];
+		girthVisitor = new MultiSourceBFS.Visitor() {
+			@Override
+			public void reached(int node, long sources, int depth) {
+			}
+
+			@Override
+			public void cycle(long sources, int length) {
+				if (length < best) {
+					best = length;
+					bestRoot = roots[offset + Long.numberOfTrailingZeros(sources)];
+				}
+			}
+
+			@Override
+			public boolean expand(int depth) {
+				// cycles found from now on have length at least 2 * depth + 1
+				return 2 * depth + 1 < best;
+			}
+		};
 	}
 
 	@Override
-	public void propagate(int evtmask) throws ContradictionException {
-		int upperGraphGirth = getUpperGraphGirth();
-		int lowerGraphGirth = getLowerGraphGirth();
-		if (upperGraphGirth < girth.getUB()) {
-			girth.updateUpperBound(upperGraphGirth, this);
-		}
-		if (upperGraphGirth < girth.getLB()) {
-			throw new ContradictionException();
-		}
-		if (lowerGraphGirth > girth.getLB()) {
-			girth.updateLowerBound(lowerGraphGirth, this);
-		}
-		if (lowerGraphGirth > girth.getUB()) {
-			throw new ContradictionException();
+	public int getPropagationConditions(int vIdx) {
+		if (vIdx == 1) {
+			return GraphEventType.ADD_ARC.getMask() | GraphEventType.REMOVE_ARC.getMask();
 		}
+		return super.getPropagationConditions(vIdx);
 	}
 
 	@Override
-	public ESat isEntailed() {
-		int upperGraphGirth = getUpperGraphGirth();
-		int lowerGraphGirth = getLowerGraphGirth();
-		if (upperGraphGirth < girth.getLB()) {
-			return ESat.FALSE;
-		}
-		if (lowerGraphGirth > girth.getUB()) {
-			return ESat.FALSE;
-		}
-		if (graph.isInstantiated() && girth.isInstantiatedTo(lowerGraphGirth)) {
-			return ESat.TRUE;
-		}
-		return ESat.UNDEFINED;
+	public void propagate(int evtmask) throws ContradictionException {
+		mandGirth.set(girth(true, n + 1));
+		potGirth.set(girth(false, potCutOff()));
+		filter();
+		gdm.unfreeze();
 	}
 
-	private int getUpperGraphGirth() {
-		int g = n + 1;
-		for (int i = 0; i < n; i++) {
-			int pg = getUpperGraphGirth(i);
-			if (pg < g) {
-				g = pg;
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		if (idxVarInProp == 1) {
+			removed = false;
+			gdm.freeze();
+			gdm.forEachArc((u, v) -> mandGirth.set(cycleThrough(u, v, mandGirth.get())), GraphEventType.ADD_ARC);
+			gdm.forEachArc((u, v) -> removed = true, GraphEventType.REMOVE_ARC);
+			gdm.unfreeze();
+			// removals cannot matter if the potential graph was already acyclic or beyond the girth upper bound
+			int g = potGirth.get();
+			if (removed && g <= n && g <= girth.getUB() && !witnessHolds()) {
+				potGirth.set(girth(false, potCutOff()));
 			}
 		}
-		return g;
+		filter();
+	}
+
+	private void filter() throws ContradictionException {
+		girth.updateLowerBound(potGirth.get(), this);
+		girth.updateUpperBound(mandGirth.get(), this);
+	}
+
+	private int potCutOff() {
+		return Math.min(n + 1, girth.getUB() + 1);
 	}
 
-	private int getLowerGraphGirth() {
-		int g = n + 1;
-		for (int i = 0; i < n; i++) {
-			int pg = getLowerGraphGirth(i);
-			if (pg < g) {
-				g = pg;
+	/**
+	 * Computes the girth of the mandatory (or potential) graph, by a BFS from each vertex,
+	 * run by batches of 64 sources
+	 *
+	 * @param mandatory whether the mandatory graph is considered
+	 * @param cutOff    value returned if there is no shorter cycle
+	 * @return the minimum between the girth and cutOff
+	 */
+	private int girth(boolean mandatory, int cutOff) {
+		best = cutOff;
+		bestRoot = -1;
+		int size = 0;
+		for (int r : mandatory ? graph.getMandatoryNodes() : graph.getPotentialNodes()) {
+			roots[size++] = r;
+		}
+		for (offset = 0; offset < size; offset += MultiSourceBFS.MAX_SOURCES) {
+			int count = Math.min(MultiSourceBFS.MAX_SOURCES, size - offset);
+			bfs.run(roots, offset, count, mandatory ? mandNeigh : potNeigh, girthVisitor);
+		}
+		if (!mandatory) {
+			witnessSize = 0;
+			if (bestRoot != -1) {
+				girthFrom(bestRoot, best + 1);
 			}
 		}
-		return g;
+		return best;
 	}
 
-	private int getUpperGraphGirth(int vertex) {
-		HashSet<Pair<Integer, Integer>> reachable = new HashSet<>();
-		reachable.add(new Pair<>(vertex, -1));
-		for (int i = 1; i <= n; i++) {
-			HashSet<Pair<Integer, Integer>> set = new HashSet<>();
-			for (Pair<Integer, Integer> u : reachable) {
-				for (int v : graph.getMandNeighOf(u.getA())) {
-					if (v != u.getB()) {
-						if (v == vertex) {
-							return i;
-						}
-						set.add(new Pair<>(v, u.getA()));
-					}
+	/**
+	 * Single BFS from root in the potential graph, recording the shortest closed walk found
+	 *
+	 * @param root   a node
+	 * @param cutOff only walks shorter than cutOff are recorded
+	 */
+	private void girthFrom(int root, int cutOff) {
+		int shortest = cutOff;
+		stamp++;
+		visited[root] = stamp;
+		dist[root] = 0;
+		parent[root] = -1;
+		queue[0] = root;
+		int head = 0;
+		int tail = 1;
+		while (head < tail) {
+			int u = queue[head++];
+			// cycles found from now on have length at least 2 * dist[u] + 1
+			if (2 * dist[u] + 1 >= shortest) {
+				break;
+			}
+			for (int v : graph.getPotNeighOf(u)) {
+				if (visited[v] != stamp) {
+					visited[v] = stamp;
+					dist[v] = dist[u] + 1;
+					parent[v] = u;
+					queue[tail++] = v;
+				} else if (v != parent[u] && dist[u] + dist[v] + 1 < shortest) {
+					shortest = dist[u] + dist[v] + 1;
+					recordWitness(u, v);
 				}
 			}
-			reachable = set;
 		}
-		return n + 1;
 	}
 
-	private int getLowerGraphGirth(int vertex) {
-		HashSet<Pair<Integer, Integer>> reachable = new HashSet<>();
-		reachable.add(new Pair<>(vertex, -1));
-		for (int i = 1; i <= n; i++) {
-			HashSet<Pair<Integer, Integer>> set = new HashSet<>();
-			for (Pair<Integer, Integer> u : reachable) {
-				for (int v : graph.getPotNeighOf(u.getA())) {
-					if (v != u.getB()) {
-						if (v == vertex) {
-							return i;
-						}
-						set.add(new Pair<>(v, u.getA()));
+	/**
+	 * @return the length of the shortest cycle of the mandatory graph through edge (u,v), or cutOff if none is shorter
+	 */
+	private int cycleThrough(int u, int v, int cutOff) {
+		if (u == v) {
+			return 1;
+		}
+		stamp++;
+		visited[u] = stamp;
+		dist[u] = 0;
+		queue[0] = u;
+		int head = 0;
+		int tail = 1;
+		while (head < tail) {
+			int x = queue[head++];
+			// reaching v from x closes a cycle of length dist[x] + 2
+			if (dist[x] + 2 >= cutOff) {
+				break;
+			}
+			for (int y : graph.getMandNeighOf(x)) {
+				if (visited[y] != stamp && !(x == u && y == v)) {
+					if (y == v) {
+						return dist[x] + 2;
 					}
+					visited[y] = stamp;
+					dist[y] = dist[x] + 1;
+					queue[tail++] = y;
 				}
 			}
-			reachable = set;
 		}
-		return n + 1;
+		return cutOff;
+	}
+
+	/**
+	 * Records the closed walk made of the BFS tree paths from u and v and edge (u,v)
+	 */
+	private void recordWitness(int u, int v) {
+		witnessSize = 0;
+		witnessA[witnessSize] = u;
+		witnessB[witnessSize++] = v;
+		for (int x = u; parent[x] != -1; x = parent[x]) {
+			witnessA[witnessSize] = x;
+			witnessB[witnessSize++] = parent[x];
+		}
+		for (int x = v; parent[x] != -1; x = parent[x]) {
+			witnessA[witnessSize] = x;
+			witnessB[witnessSize++] = parent[x];
+		}
+	}
+
+	/**
+	 * @return true iff the recorded walk still belongs to the potential graph and has length potGirth,
+	 * in which case potGirth is still the girth of the potential graph
+	 */
+	private boolean witnessHolds() {
+		if (witnessSize != potGirth.get()) {
+			return false;
+		}
+		for (int i = 0; i < witnessSize; i++) {
+			if (!graph.getPotNeighOf(witnessA[i]).contains(witnessB[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public ESat isEntailed() {
+		int mandatoryGirth = girth(true, n + 1);
+		if (girth(false, n + 1) > girth.getUB() || mandatoryGirth < girth.getLB()) {
+			return ESat.FALSE;
+		}
+		if (graph.isInstantiated() && girth.isInstantiatedTo(mandatoryGirth)) {
+			return ESat.TRUE;
+		}
+		return ESat.UNDEFINED;
 	}
 }
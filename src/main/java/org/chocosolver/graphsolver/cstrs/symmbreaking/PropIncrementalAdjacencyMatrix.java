@@ -14,12 +14,14 @@ import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.procedure.PairProcedure;
 import org.chocosolver.util.tools.ArrayUtils;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
+ * Channels a graph variable with the boolean matrix t, where t[from + to * n] represents arc (from,to).
+ *
  * @author Моклев Вячеслав
+ * @deprecated use the boolean views given by {@link org.chocosolver.graphsolver.variables.GraphVar#arcView(int, int)},
+ * which require neither extra storage nor channeling
  */
+@Deprecated
 public class PropIncrementalAdjacencyMatrix extends Propagator<Variable> {
 
 	private DirectedGraphVar graph;
@@ -32,7 +34,7 @@ public class PropIncrementalAdjacencyMatrix extends Propagator<Variable> {
 	public PropIncrementalAdjacencyMatrix(DirectedGraphVar graphVar, BoolVar[] t) {
 		super(ArrayUtils.append(new Variable[]{graphVar}, t), PropagatorPriority.LINEAR, true);
 		graph = graphVar;
-		gdm = graph.monitorDelta(this);
+		gdm = graph.monitorDelta(this, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
 		enforce = (from, to) -> t[from + to * n].instantiateTo(1, this);
 		remove = (from, to) -> t[from + to * n].instantiateTo(0, this);
 		n = graphVar.getNbMaxNodes();
@@ -68,12 +70,9 @@ public class PropIncrementalAdjacencyMatrix extends Propagator<Variable> {
 			}
 		}
 		for (int u = 0; u < n; u++) {
-			Set<Integer> set = new HashSet<>();
-			for (int v : graph.getPotSuccOf(u)) {
-				set.add(v);
-			}
+			ISet pot = graph.getPotSuccOf(u);
 			for (int v = 0; v < n; v++) {
-				if (!set.contains(v)) {
+				if (!pot.contains(v)) {
 					t[u + v * n].instantiateTo(0, this);
 				}
 			}
@@ -89,7 +88,15 @@ public class PropIncrementalAdjacencyMatrix extends Propagator<Variable> {
 			gdm.forEachArc(remove, GraphEventType.REMOVE_ARC);
 			gdm.unfreeze();
 		} else {
-			propagateTChanged();
+			// only the modified cell is channeled to the graph
+			int i = (idxVarInProp - 1) % n;
+			int j = (idxVarInProp - 1) / n;
+			int v = t[i + j * n].getValue();
+			if (v == 1) {
+				graph.enforceArc(i, j, this);
+			} else {
+				graph.removeArc(i, j, this);
+			}
 		}
 	}
 
@@ -0,0 +1,230 @@
+package org.chocosolver.graphsolver.cstrs.symmbreaking;
+
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lexicographic ordering (column j1 ≤lex column j2) over pairs of columns of an n*n boolean matrix,
+ * where t[i + j * n] is the cell of row i and column j.
+ * <p>
+ * Each pair keeps a backtrackable pointer alpha to its first row that is not fixed to equal values,
+ * so the fixed prefix is never rescanned. Only pairs sharing a modified column are re-examined,
+ * where a variable held by several cells (e.g. t[i + j * n] and t[j + i * n] of a symmetric matrix) modifies all their columns.
+ * Filtering is GAC: at alpha, x ≤ y is enforced, and x < y whenever the rest of the rows cannot be
+ * lexicographically ordered (checked by scanning from alpha + 1 to the first row where the lower bounds of
+ * the first column and the upper bounds of the second one differ).
+ */
+public abstract class PropLexColumns extends Propagator<BoolVar> {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	protected int n;
+	protected BoolVar[] t;
+	// pair p compares the rows rows[p] of columns first[p] and second[p]
+	private int[] first, second;
+	private int[][] rows;
+	private IStateInt[] alpha;
+	// pairs involving each column
+	private int[][] pairsOf;
+	// columns of every cell holding the variable of each cell (a symmetric matrix holds each variable twice)
+	private int[][] columnsOf;
+	// pairs to re-examine
+	private int[] queue;
+	private boolean[] queued;
+	private int head, size;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * @param t            n*n boolean matrix
+	 * @param pairs        pairs {j1, j2} of columns such that column j1 ≤lex column j2
+	 * @param skipOwnRows  whether rows j1 and j2 are ignored when comparing columns j1 and j2
+	 */
+	protected PropLexColumns(BoolVar[] t, int[][] pairs, boolean skipOwnRows) {
+		super(t, PropagatorPriority.QUADRATIC, true);
+		this.t = t;
+		this.n = (int) Math.round(Math.sqrt(t.length));
+		int nbPairs = pairs.length;
+		first = new int[nbPairs];
+		second = new int[nbPairs];
+		rows = new int[nbPairs][];
+		alpha = new IStateInt[nbPairs];
+		int[] degree = new int[n];
+		for (int p = 0; p < nbPairs; p++) {
+			first[p] = pairs[p][0];
+			second[p] = pairs[p][1];
+			degree[first[p]]++;
+			degree[second[p]]++;
+			int nbRows = 0;
+			rows[p] = new int[n];
+			for (int i = 0; i < n; i++) {
+				if (!skipOwnRows || (i != first[p] && i != second[p])) {
+					rows[p][nbRows++] = i;
+				}
+			}
+			if (nbRows < n) {
+				int[] r = new int[nbRows];
+				System.arraycopy(rows[p], 0, r, 0, nbRows);
+				rows[p] = r;
+			}
+			alpha[p] = getModel().getEnvironment().makeInt(0);
+		}
+		pairsOf = new int[n][];
+		for (int j = 0; j < n; j++) {
+			pairsOf[j] = new int[degree[j]];
+			degree[j] = 0;
+		}
+		for (int p = 0; p < nbPairs; p++) {
+			pairsOf[first[p]][degree[first[p]]++] = p;
+			pairsOf[second[p]][degree[second[p]]++] = p;
+		}
+		queue = new int[nbPairs];
+		queued = new boolean[nbPairs];
+		Map<BoolVar, List<Integer>> cells = new IdentityHashMap<>();
+		for (int idx = 0; idx < t.length; idx++) {
+			cells.computeIfAbsent(t[idx], v -> new ArrayList<>()).add(idx);
+		}
+		columnsOf = new int[t.length][];
+		for (int idx = 0; idx < t.length; idx++) {
+			columnsOf[idx] = cells.get(t[idx]).stream().mapToInt(c -> c / n).distinct().toArray();
+		}
+	}
+
+	//***********************************************************************************
+	// PROPAGATIONS
+	//***********************************************************************************
+
+	@Override
+	public void propagate(int evtmask) throws ContradictionException {
+		for (int p = 0; p < first.length; p++) {
+			schedule(p);
+		}
+		filter();
+	}
+
+	@Override
+	public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+		scheduleColumns(idxVarInProp);
+		filter();
+	}
+
+	private void schedule(int p) {
+		if (!queued[p]) {
+			queued[p] = true;
+			queue[(head + size++) % queue.length] = p;
+		}
+	}
+
+	/**
+	 * Schedules the pairs involving a column of a cell holding the variable of cell idx
+	 */
+	private void scheduleColumns(int idx) {
+		for (int j : columnsOf[idx]) {
+			for (int p : pairsOf[j]) {
+				schedule(p);
+			}
+		}
+	}
+
+	private void filter() throws ContradictionException {
+		try {
+			while (size > 0) {
+				int p = queue[head];
+				head = (head + 1) % queue.length;
+				size--;
+				queued[p] = false;
+				filter(p);
+			}
+		} finally {
+			while (size > 0) {
+				queued[queue[head]] = false;
+				head = (head + 1) % queue.length;
+				size--;
+			}
+		}
+	}
+
+	private void filter(int p) throws ContradictionException {
+		int[] r = rows[p];
+		int c1 = first[p] * n;
+		int c2 = second[p] * n;
+		int a = alpha[p].get();
+		while (a < r.length) {
+			int x = r[a] + c1;
+			int y = r[a] + c2;
+			if (t[x].isInstantiated() && t[y].isInstantiated()) {
+				if (t[x].getValue() > t[y].getValue()) {
+					fails();
+				}
+				if (t[x].getValue() < t[y].getValue()) {
+					// strictly ordered: the remaining rows are free
+					break;
+				}
+				a++;
+			} else if (orderable(p, a + 1)) {
+				// x ≤ y
+				if (t[x].isInstantiatedTo(1)) {
+					instantiate(y, 1);
+				} else if (t[y].isInstantiatedTo(0)) {
+					instantiate(x, 0);
+				}
+				if (!t[x].isInstantiated() || !t[y].isInstantiated()) {
+					break;
+				}
+			} else {
+				// x < y
+				instantiate(x, 0);
+				instantiate(y, 1);
+				break;
+			}
+		}
+		alpha[p].set(a);
+	}
+
+	private void instantiate(int idx, int value) throws ContradictionException {
+		if (t[idx].instantiateTo(value, this)) {
+			// the propagator is not notified of its own modifications
+			scheduleColumns(idx);
+		}
+	}
+
+	/**
+	 * @return true iff the rows of pair p from index k can still be lexicographically ordered
+	 */
+	private boolean orderable(int p, int k) {
+		int[] r = rows[p];
+		int c1 = first[p] * n;
+		int c2 = second[p] * n;
+		for (; k < r.length; k++) {
+			int min = t[r[k] + c1].getLB();
+			int max = t[r[k] + c2].getUB();
+			if (min != max) {
+				return min < max;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public ESat isEntailed() {
+		for (int p = 0; p < first.length; p++) {
+			if (!orderable(p, 0)) {
+				return ESat.FALSE;
+			}
+		}
+		return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+	}
+}
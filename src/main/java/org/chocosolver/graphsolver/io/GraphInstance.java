@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.io;
+
+import org.chocosolver.graphsolver.util.CompleteDirectedGraph;
+import org.chocosolver.graphsolver.util.CompleteUndirectedGraph;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.util.cost.EuclideanCost;
+import org.chocosolver.graphsolver.util.cost.GeoCost;
+import org.chocosolver.solver.Model;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.Arrays;
+
+/**
+ * Graph instance loaded by a {@link GraphReader}.
+ * An instance is either
+ * - complete, with costs given by coordinates (computed on demand) or by a full matrix,
+ * - or sparse, given by a list of arcs (edges), possibly weighted.
+ * Arc costs of sparse instances are stored in compressed sparse rows, built on demand.
+ */
+public class GraphInstance {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final String name;
+	private final int n;
+	private final boolean directed;
+	// explicit arcs (null for complete instances)
+	private final int[] tails, heads, weights;
+	// full cost matrix (explicit complete instances)
+	private final int[][] matrix;
+	// costs computed on demand (coordinate-based instances)
+	private final EdgeCost distances;
+	// arcs leaving node i are rowHeads[offsets[i]], ..., rowHeads[offsets[i+1]-1], sorted by head
+	private int[] offsets, rowHeads, rowWeights;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	private GraphInstance(String name, int n, boolean directed, int[] tails, int[] heads, int[] weights,
+						  int[][] matrix, EdgeCost distances) {
+		this.name = name;
+		this.n = n;
+		this.directed = directed;
+		this.tails = tails;
+		this.heads = heads;
+		this.weights = weights;
+		this.matrix = matrix;
+		this.distances = distances;
+	}
+
+	/**
+	 * Sparse instance
+	 *
+	 * @param weights arc weights, may be null
+	 */
+	static GraphInstance ofArcs(String name, int n, boolean directed, int[] tails, int[] heads, int[] weights) {
+		for (int k = 0; k < tails.length; k++) {
+			if (tails[k] < 0 || tails[k] >= n || heads[k] < 0 || heads[k] >= n) {
+				throw new IllegalArgumentException("arc (" + tails[k] + "," + heads[k] + ") out of [0," + (n - 1) + "]");
+			}
+		}
+		return new GraphInstance(name, n, directed, tails, heads, weights, null, null);
+	}
+
+	/**
+	 * Complete instance with explicit costs
+	 */
+	static GraphInstance ofMatrix(String name, boolean directed, int[][] matrix) {
+		return new GraphInstance(name, matrix.length, directed, null, null, null, matrix, null);
+	}
+
+	/**
+	 * Complete undirected instance with costs computed from coordinates
+	 *
+	 * @param weightType EUC_2D, CEIL_2D, ATT or GEO (TSPLIB conventions)
+	 */
+	static GraphInstance ofCoordinates(String name, double[] x, double[] y, String weightType) {
+		EdgeCost distances;
+		switch (weightType) {
+			case "EUC_2D":
+				distances = new EuclideanCost(x, y, EuclideanCost.Rounding.NEAREST);
+				break;
+			case "CEIL_2D":
+				distances = new EuclideanCost(x, y, EuclideanCost.Rounding.CEIL);
+				break;
+			case "ATT":
+				distances = new EuclideanCost(x, y, EuclideanCost.Rounding.ATT);
+				break;
+			case "GEO":
+				distances = new GeoCost(x, y);
+				break;
+			default:
+				throw new UnsupportedOperationException("edge weight type " + weightType + " is not supported");
+		}
+		return new GraphInstance(name, x.length, false, null, null, null, null, distances);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * @return the name of the instance
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+	public int getNbNodes() {
+		return n;
+	}
+
+	/**
+	 * @return true iff the instance is directed
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * @return true iff every pair of distinct nodes is linked
+	 */
+	public boolean isComplete() {
+		return tails == null;
+	}
+
+	/**
+	 * @return true iff arcs have costs
+	 */
+	public boolean hasCosts() {
+		return tails == null || weights != null;
+	}
+
+	/**
+	 * @return the number of arcs (edges in the undirected case)
+	 */
+	public long getNbArcs() {
+		if (isComplete()) {
+			return directed ? (long) n * (n - 1) : (long) n * (n - 1) / 2;
+		}
+		return tails.length;
+	}
+
+	/**
+	 * @param k index of an arc, in [0, getNbArcs()-1] (sparse instances only)
+	 * @return the tail of arc k
+	 */
+	public int getTail(int k) {
+		return tails[k];
+	}
+
+	/**
+	 * @param k index of an arc, in [0, getNbArcs()-1] (sparse instances only)
+	 * @return the head of arc k
+	 */
+	public int getHead(int k) {
+		return heads[k];
+	}
+
+	/**
+	 * Cost of arc (i,j). Costs of coordinate-based instances are computed on each call.
+	 *
+	 * @param i tail
+	 * @param j head
+	 * @return the cost of arc (i,j)
+	 * @throws IllegalArgumentException if (i,j) is not an arc of a sparse instance
+	 */
+	public int getCost(int i, int j) {
+		if (matrix != null) {
+			return matrix[i][j];
+		}
+		if (distances != null) {
+			return distances.getCost(i, j);
+		}
+		if (weights == null) {
+			throw new UnsupportedOperationException("instance " + name + " has no cost");
+		}
+		if (offsets == null) {
+			buildRows();
+		}
+		int k = Arrays.binarySearch(rowHeads, offsets[i], offsets[i + 1], j);
+		if (k < 0) {
+			throw new IllegalArgumentException("(" + i + "," + j + ") is not an arc of " + name);
+		}
+		return rowWeights[k];
+	}
+
+	/**
+	 * @return the costs of the instance: computed on demand for coordinate-based instances,
+	 * backed by the matrix for explicit ones, looked up in sparse rows for weighted sparse instances
+	 */
+	public EdgeCost getCosts() {
+		if (distances != null) {
+			return distances;
+		}
+		if (matrix != null) {
+			return EdgeCost.of(matrix);
+		}
+		if (!hasCosts()) {
+			throw new UnsupportedOperationException("instance " + name + " has no cost");
+		}
+		return new EdgeCost() {
+			@Override
+			public int getNbNodes() {
+				return n;
+			}
+
+			@Override
+			public int getCost(int i, int j) {
+				return GraphInstance.this.getCost(i, j);
+			}
+		};
+	}
+
+	/**
+	 * @return a dense cost matrix (0 for pairs which are not arcs)
+	 */
+	public int[][] getCostMatrix() {
+		if (!hasCosts()) {
+			throw new UnsupportedOperationException("instance " + name + " has no cost");
+		}
+		int[][] costs = new int[n][n];
+		if (isComplete()) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					if (i != j) {
+						costs[i][j] = getCost(i, j);
+					}
+				}
+			}
+		} else {
+			for (int k = 0; k < tails.length; k++) {
+				costs[tails[k]][heads[k]] = weights[k];
+				if (!directed) {
+					costs[heads[k]][tails[k]] = weights[k];
+				}
+			}
+		}
+		return costs;
+	}
+
+	/**
+	 * Creates a backtrackable undirected graph, with all nodes, containing every edge of the instance.
+	 * It can be used as an upper bound of an undirected graph variable.
+	 * The upper bound of a complete instance is implicit (see {@link CompleteUndirectedGraph}): it is built in O(n).
+	 *
+	 * @param model a model
+	 * @param type  data structure of neighborhoods (ignored for complete instances)
+	 * @return an undirected graph containing every edge of the instance
+	 */
+	public UndirectedGraph createUndirectedUB(Model model, SetType type) {
+		if (directed) {
+			throw new UnsupportedOperationException("instance " + name + " is directed");
+		}
+		if (isComplete()) {
+			return new CompleteUndirectedGraph(model, n, true, false);
+		}
+		UndirectedGraph ub = new UndirectedGraph(model, n, type, true);
+		for (int k = 0; k < tails.length; k++) {
+			ub.addEdge(tails[k], heads[k]);
+		}
+		return ub;
+	}
+
+	/**
+	 * Creates a backtrackable directed graph, with all nodes, containing every arc of the instance
+	 * (both (i,j) and (j,i) for each edge {i,j} of an undirected instance).
+	 * It can be used as an upper bound of a directed graph variable.
+	 * The upper bound of a complete instance is implicit (see {@link CompleteDirectedGraph}): it is built in O(n).
+	 *
+	 * @param model a model
+	 * @param type  data structure of successors and predecessors (ignored for complete instances)
+	 * @return a directed graph containing every arc of the instance
+	 */
+	public DirectedGraph createDirectedUB(Model model, SetType type) {
+		if (isComplete()) {
+			return new CompleteDirectedGraph(model, n, true, false);
+		}
+		DirectedGraph ub = new DirectedGraph(model, n, type, true);
+		for (int k = 0; k < tails.length; k++) {
+			ub.addArc(tails[k], heads[k]);
+			if (!directed) {
+				ub.addArc(heads[k], tails[k]);
+			}
+		}
+		return ub;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + n + " nodes, " + getNbArcs() + (directed ? " arcs)" : " edges)");
+	}
+
+	//***********************************************************************************
+	// PROCEDURES
+	//***********************************************************************************
+
+	private void buildRows() {
+		int m = tails.length;
+		int[] off = new int[n + 1];
+		for (int k = 0; k < m; k++) {
+			off[tails[k] + 1]++;
+			if (!directed && tails[k] != heads[k]) {
+				off[heads[k] + 1]++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			off[i + 1] += off[i];
+		}
+		// rows are sorted by head, arcs being packed as (head, weight)
+		long[] packed = new long[off[n]];
+		int[] next = Arrays.copyOf(off, n);
+		for (int k = 0; k < m; k++) {
+			packed[next[tails[k]]++] = ((long) heads[k] << 32) | (weights[k] & 0xFFFFFFFFL);
+			if (!directed && tails[k] != heads[k]) {
+				packed[next[heads[k]]++] = ((long) tails[k] << 32) | (weights[k] & 0xFFFFFFFFL);
+			}
+		}
+		int[] h = new int[packed.length];
+		int[] w = new int[packed.length];
+		for (int i = 0; i < n; i++) {
+			Arrays.sort(packed, off[i], off[i + 1]);
+			for (int k = off[i]; k < off[i + 1]; k++) {
+				h[k] = (int) (packed[k] >>> 32);
+				w[k] = (int) packed[k];
+			}
+		}
+		rowHeads = h;
+		rowWeights = w;
+		offsets = off;
+	}
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.io;
+
+import gnu.trove.list.array.TIntArrayList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Streaming readers of graph instances:
+ * - TSPLIB (TSP, ATSP and HCP files, with EUC_2D, CEIL_2D, ATT, GEO or EXPLICIT edge weights),
+ * - DIMACS (graph coloring / clique "p edge" files and shortest path "p sp" files),
+ * - plain edge lists ("u v" or "u v w" per line, 0-based, '#' and '%' starting comment lines).
+ * Files are mapped in memory and parsed without splitting lines.
+ * Nodes are indexed from 0.
+ */
+public class GraphReader {
+
+	private GraphReader() {
+	}
+
+	//***********************************************************************************
+	// TSPLIB
+	//***********************************************************************************
+
+	/**
+	 * Reads a TSPLIB file
+	 *
+	 * @param path a TSPLIB file
+	 * @return the instance (complete for TSP and ATSP files, sparse for HCP files)
+	 * @throws IOException if the file cannot be read or is not well formed
+	 */
+	public static GraphInstance readTSPLIB(Path path) throws IOException {
+		try (Tokenizer tok = new Tokenizer(path)) {
+			return readTSPLIB(tok);
+		}
+	}
+
+	/**
+	 * Reads a TSPLIB instance
+	 *
+	 * @param in a stream in TSPLIB format (closed by this method)
+	 * @return the instance (complete for TSP and ATSP files, sparse for HCP files)
+	 * @throws IOException if the stream cannot be read or is not well formed
+	 */
+	public static GraphInstance readTSPLIB(InputStream in) throws IOException {
+		try (Tokenizer tok = new Tokenizer(in)) {
+			return readTSPLIB(tok);
+		}
+	}
+
+	private static GraphInstance readTSPLIB(Tokenizer tok) throws IOException {
+		String name = "";
+		String type = "TSP";
+		String weightType = null;
+		String weightFormat = "FULL_MATRIX";
+		String dataFormat = "EDGE_LIST";
+		int n = -1;
+		double[] x = null;
+		double[] y = null;
+		int[][] matrix = null;
+		TIntArrayList tails = null;
+		TIntArrayList heads = null;
+		String line;
+		while ((line = tok.nextLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+			int colon = line.indexOf(':');
+			String key = (colon < 0 ? line : line.substring(0, colon)).trim().toUpperCase();
+			String value = colon < 0 ? "" : line.substring(colon + 1).trim();
+			if (key.equals("EOF")) {
+				break;
+			}
+			switch (key) {
+				case "NAME":
+					name = value;
+					break;
+				case "TYPE":
+					type = value.toUpperCase();
+					break;
+				case "DIMENSION":
+					n = Integer.parseInt(value);
+					break;
+				case "EDGE_WEIGHT_TYPE":
+					weightType = value.toUpperCase();
+					break;
+				case "EDGE_WEIGHT_FORMAT":
+					weightFormat = value.toUpperCase();
+					break;
+				case "EDGE_DATA_FORMAT":
+					dataFormat = value.toUpperCase();
+					break;
+				case "NODE_COORD_SECTION":
+					checkDimension(n);
+					x = new double[n];
+					y = new double[n];
+					for (int k = 0; k < n; k++) {
+						int i = tok.nextInt() - 1;
+						x[i] = tok.nextDouble();
+						y[i] = tok.nextDouble();
+					}
+					break;
+				case "DISPLAY_DATA_SECTION":
+					checkDimension(n);
+					for (int k = 0; k < n; k++) {
+						tok.nextInt();
+						tok.nextDouble();
+						tok.nextDouble();
+					}
+					break;
+				case "EDGE_WEIGHT_SECTION":
+					checkDimension(n);
+					matrix = readMatrix(tok, n, weightFormat);
+					break;
+				case "EDGE_DATA_SECTION":
+					tails = new TIntArrayList();
+					heads = new TIntArrayList();
+					if (dataFormat.equals("ADJ_LIST")) {
+						while (tok.hasNumber()) {
+							int i = tok.nextInt();
+							if (i == -1) {
+								break;
+							}
+							for (int j = tok.nextInt(); j != -1; j = tok.nextInt()) {
+								tails.add(i - 1);
+								heads.add(j - 1);
+							}
+						}
+					} else {
+						while (tok.hasNumber()) {
+							int i = tok.nextInt();
+							if (i == -1) {
+								break;
+							}
+							tails.add(i - 1);
+							heads.add(tok.nextInt() - 1);
+						}
+					}
+					break;
+				default:
+					// other specifications (COMMENT, CAPACITY, ...) are ignored
+					break;
+			}
+		}
+		checkDimension(n);
+		boolean directed = type.startsWith("ATSP");
+		if (tails != null) {
+			return GraphInstance.ofArcs(name, n, directed, tails.toArray(), heads.toArray(), null);
+		}
+		if (matrix != null) {
+			return GraphInstance.ofMatrix(name, directed, matrix);
+		}
+		if (x != null && weightType != null) {
+			return GraphInstance.ofCoordinates(name, x, y, weightType);
+		}
+		throw new IOException("no edge data nor edge weight found in " + name);
+	}
+
+	private static int[][] readMatrix(Tokenizer tok, int n, String format) throws IOException {
+		int[][] m = new int[n][n];
+		switch (format) {
+			case "FULL_MATRIX":
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j < n; j++) {
+						m[i][j] = tok.nextInt();
+					}
+				}
+				break;
+			case "UPPER_ROW":
+			case "LOWER_COL":
+				for (int i = 0; i < n; i++) {
+					for (int j = i + 1; j < n; j++) {
+						m[i][j] = m[j][i] = tok.nextInt();
+					}
+				}
+				break;
+			case "LOWER_ROW":
+			case "UPPER_COL":
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j < i; j++) {
+						m[i][j] = m[j][i] = tok.nextInt();
+					}
+				}
+				break;
+			case "UPPER_DIAG_ROW":
+			case "LOWER_DIAG_COL":
+				for (int i = 0; i < n; i++) {
+					for (int j = i; j < n; j++) {
+						m[i][j] = m[j][i] = tok.nextInt();
+					}
+				}
+				break;
+			case "LOWER_DIAG_ROW":
+			case "UPPER_DIAG_COL":
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j <= i; j++) {
+						m[i][j] = m[j][i] = tok.nextInt();
+					}
+				}
+				break;
+			default:
+				throw new UnsupportedOperationException("edge weight format " + format + " is not supported");
+		}
+		return m;
+	}
+
+	//***********************************************************************************
+	// DIMACS
+	//***********************************************************************************
+
+	/**
+	 * Reads a DIMACS file.
+	 * "p sp" files (arcs "a u v w") give directed weighted instances,
+	 * other files (edges "e u v", optionally weighted) give undirected instances.
+	 *
+	 * @param path a DIMACS file
+	 * @return the (sparse) instance
+	 * @throws IOException if the file cannot be read or is not well formed
+	 */
+	public static GraphInstance readDIMACS(Path path) throws IOException {
+		try (Tokenizer tok = new Tokenizer(path)) {
+			return readDIMACS(tok, path.getFileName().toString());
+		}
+	}
+
+	/**
+	 * Reads a DIMACS instance
+	 *
+	 * @param in a stream in DIMACS format (closed by this method)
+	 * @return the (sparse) instance
+	 * @throws IOException if the stream cannot be read or is not well formed
+	 */
+	public static GraphInstance readDIMACS(InputStream in) throws IOException {
+		try (Tokenizer tok = new Tokenizer(in)) {
+			return readDIMACS(tok, "");
+		}
+	}
+
+	private static GraphInstance readDIMACS(Tokenizer tok, String name) throws IOException {
+		int n = -1;
+		boolean directed = false;
+		TIntArrayList tails = new TIntArrayList();
+		TIntArrayList heads = new TIntArrayList();
+		TIntArrayList weights = new TIntArrayList();
+		String kind;
+		while ((kind = tok.nextToken()) != null) {
+			switch (kind) {
+				case "p":
+					directed = "sp".equals(tok.nextToken());
+					n = tok.nextInt();
+					int m = tok.nextInt();
+					tails.ensureCapacity(m);
+					heads.ensureCapacity(m);
+					break;
+				case "e":
+				case "a":
+					tails.add(tok.nextInt() - 1);
+					heads.add(tok.nextInt() - 1);
+					if (tok.hasNumberOnLine()) {
+						weights.add(tok.nextInt());
+					}
+					break;
+				default:
+					// comments and node descriptors
+					tok.nextLine();
+					break;
+			}
+		}
+		checkDimension(n);
+		return GraphInstance.ofArcs(name, n, directed, tails.toArray(), heads.toArray(), weights(weights, tails.size()));
+	}
+
+	//***********************************************************************************
+	// EDGE LISTS
+	//***********************************************************************************
+
+	/**
+	 * Reads an edge list file: one "u v" or "u v w" line per arc (edge), nodes being indexed from 0.
+	 * The number of nodes is the largest node index plus one.
+	 *
+	 * @param path     an edge list file
+	 * @param directed true if lines are arcs, false if they are edges
+	 * @return the (sparse) instance
+	 * @throws IOException if the file cannot be read or is not well formed
+	 */
+	public static GraphInstance readEdgeList(Path path, boolean directed) throws IOException {
+		try (Tokenizer tok = new Tokenizer(path)) {
+			return readEdgeList(tok, path.getFileName().toString(), directed);
+		}
+	}
+
+	/**
+	 * Reads an edge list: one "u v" or "u v w" line per arc (edge), nodes being indexed from 0.
+	 *
+	 * @param in       a stream (closed by this method)
+	 * @param directed true if lines are arcs, false if they are edges
+	 * @return the (sparse) instance
+	 * @throws IOException if the stream cannot be read or is not well formed
+	 */
+	public static GraphInstance readEdgeList(InputStream in, boolean directed) throws IOException {
+		try (Tokenizer tok = new Tokenizer(in)) {
+			return readEdgeList(tok, "", directed);
+		}
+	}
+
+	private static GraphInstance readEdgeList(Tokenizer tok, String name, boolean directed) throws IOException {
+		TIntArrayList tails = new TIntArrayList();
+		TIntArrayList heads = new TIntArrayList();
+		TIntArrayList weights = new TIntArrayList();
+		int n = 0;
+		while (true) {
+			tok.skipWhitespaces();
+			int c = tok.peek();
+			if (c == -1) {
+				break;
+			}
+			if (c == '#' || c == '%') {
+				tok.nextLine();
+				continue;
+			}
+			int i = tok.nextInt();
+			int j = tok.nextInt();
+			tails.add(i);
+			heads.add(j);
+			n = Math.max(n, Math.max(i, j) + 1);
+			if (tok.hasNumberOnLine()) {
+				weights.add(tok.nextInt());
+			}
+		}
+		return GraphInstance.ofArcs(name, n, directed, tails.toArray(), heads.toArray(), weights(weights, tails.size()));
+	}
+
+	//***********************************************************************************
+	// PROCEDURES
+	//***********************************************************************************
+
+	private static int[] weights(TIntArrayList weights, int m) throws IOException {
+		if (weights.isEmpty()) {
+			return null;
+		}
+		if (weights.size() != m) {
+			throw new IOException("some arcs are weighted and others are not");
+		}
+		return weights.toArray();
+	}
+
+	private static void checkDimension(int n) throws IOException {
+		if (n < 0) {
+			throw new IOException("the number of nodes should be given first");
+		}
+	}
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming ASCII tokenizer, reading either a memory-mapped file or an input stream through a fixed size buffer.
+ * Integers are parsed without creating intermediate strings.
+ */
+class Tokenizer implements Closeable {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final InputStream in;
+	private final FileChannel channel;
+	private final MappedByteBuffer mapped;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private final StringBuilder sb = new StringBuilder();
+	private int pos, len;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Reads an input stream
+	 *
+	 * @param in an input stream (closed with this tokenizer)
+	 */
+	Tokenizer(InputStream in) {
+		this.in = in;
+		this.channel = null;
+		this.mapped = null;
+	}
+
+	/**
+	 * Reads a file, mapped in memory
+	 *
+	 * @param path a file path (smaller than 2GB)
+	 * @throws IOException if the file cannot be opened
+	 */
+	Tokenizer(Path path) throws IOException {
+		this.in = null;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		if (channel.size() > Integer.MAX_VALUE) {
+			channel.close();
+			throw new IOException(path + " is too large to be mapped in memory");
+		}
+		this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * @return the next character, without consuming it, -1 at the end of the input
+	 */
+	int peek() throws IOException {
+		if (pos == len) {
+			fill();
+			if (len == 0) {
+				return -1;
+			}
+		}
+		return buffer[pos] & 0xff;
+	}
+
+	/**
+	 * @return the next character, -1 at the end of the input
+	 */
+	int read() throws IOException {
+		int c = peek();
+		if (c != -1) {
+			pos++;
+		}
+		return c;
+	}
+
+	/**
+	 * Skips spaces, tabs and line breaks
+	 */
+	void skipWhitespaces() throws IOException {
+		int c = peek();
+		while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+			pos++;
+			c = peek();
+		}
+	}
+
+	/**
+	 * Skips spaces and tabs, but not line breaks
+	 */
+	void skipBlanks() throws IOException {
+		int c = peek();
+		while (c == ' ' || c == '\t' || c == '\r') {
+			pos++;
+			c = peek();
+		}
+	}
+
+	/**
+	 * @return true iff the next token is a number
+	 */
+	boolean hasNumber() throws IOException {
+		skipWhitespaces();
+		return isNumberStart(peek());
+	}
+
+	/**
+	 * @return true iff the next token is a number located on the current line
+	 */
+	boolean hasNumberOnLine() throws IOException {
+		skipBlanks();
+		return isNumberStart(peek());
+	}
+
+	/**
+	 * @return the next integer
+	 * @throws IOException if the next token is not an integer
+	 */
+	int nextInt() throws IOException {
+		skipWhitespaces();
+		int c = read();
+		boolean neg = c == '-';
+		if (c == '-' || c == '+') {
+			c = read();
+		}
+		if (c < '0' || c > '9') {
+			throw new IOException("integer expected");
+		}
+		int v = 0;
+		while (c >= '0' && c <= '9') {
+			v = v * 10 + (c - '0');
+			c = peek();
+			if (c >= '0' && c <= '9') {
+				pos++;
+			}
+		}
+		if (c == '.' || c == 'e' || c == 'E') {
+			throw new IOException("integer expected");
+		}
+		return neg ? -v : v;
+	}
+
+	/**
+	 * @return the next real number
+	 * @throws IOException if the next token is not a number
+	 */
+	double nextDouble() throws IOException {
+		String token = nextToken();
+		if (token == null) {
+			throw new IOException("number expected");
+		}
+		try {
+			return Double.parseDouble(token);
+		} catch (NumberFormatException e) {
+			throw new IOException("number expected, found " + token);
+		}
+	}
+
+	/**
+	 * @return the next token (maximal sequence of non whitespace characters), null at the end of the input
+	 */
+	String nextToken() throws IOException {
+		skipWhitespaces();
+		sb.setLength(0);
+		int c = peek();
+		while (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+			sb.append((char) c);
+			pos++;
+			c = peek();
+		}
+		return sb.length() == 0 ? null : sb.toString();
+	}
+
+	/**
+	 * @return the rest of the current line (without line break), null at the end of the input
+	 */
+	String nextLine() throws IOException {
+		int c = read();
+		if (c == -1) {
+			return null;
+		}
+		sb.setLength(0);
+		while (c != -1 && c != '\n') {
+			if (c != '\r') {
+				sb.append((char) c);
+			}
+			c = read();
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (in != null) {
+			in.close();
+		}
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	//***********************************************************************************
+	// PROCEDURES
+	//***********************************************************************************
+
+	private static boolean isNumberStart(int c) {
+		return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+	}
+
+	private void fill() throws IOException {
+		pos = 0;
+		if (mapped != null) {
+			len = Math.min(BUFFER_SIZE, mapped.remaining());
+			mapped.get(buffer, 0, len);
+		} else {
+			len = Math.max(0, in.read(buffer, 0, BUFFER_SIZE));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.lns;
+
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.GraphVar;
+
+import java.util.Arrays;
+
+/**
+ * LNS neighborhood that relaxes a spatial cluster:
+ * a random node and its closest nodes, with respect to a cost (distance) matrix
+ */
+public class ClusterNeighbor extends GraphNeighbor {
+
+	private EdgeCost costs;
+	private long[] keys;
+
+	/**
+	 * @param g           graph variable
+	 * @param costMatrix  cost (distance) between every pair of nodes
+	 * @param clusterSize initial number of nodes to relax
+	 * @param seed        randomness seed
+	 */
+	public ClusterNeighbor(GraphVar g, int[][] costMatrix, int clusterSize, long seed) {
+		this(g, EdgeCost.of(costMatrix), clusterSize, seed);
+	}
+
+	/**
+	 * @param g           graph variable
+	 * @param costs       costs (distances) between every pair of nodes, possibly computed on demand
+	 * @param clusterSize initial number of nodes to relax
+	 * @param seed        randomness seed
+	 */
+	public ClusterNeighbor(GraphVar g, EdgeCost costs, int clusterSize, long seed) {
+		super(g, clusterSize, seed);
+		this.costs = costs;
+		this.keys = new long[n];
+	}
+
+	@Override
+	protected void selectRelaxedNodes() {
+		int center = randomNode();
+		if (center == -1) {
+			return;
+		}
+		// sorts nodes by increasing distance to the center (node index in low bits)
+		int size = 0;
+		for (int j : solution.getNodes()) {
+			keys[size++] = ((long) costs.getCost(center, j) << 32) | j;
+		}
+		Arrays.sort(keys, 0, size);
+		relax(center);
+		int count = 1;
+		for (int k = 0; k < size && count < nbRelaxed; k++) {
+			if (relax((int) keys[k])) {
+				count++;
+			}
+		}
+	}
+}
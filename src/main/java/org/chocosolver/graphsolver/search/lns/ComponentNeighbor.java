@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.lns;
+
+import org.chocosolver.graphsolver.util.ConnectivityFinder;
+import org.chocosolver.graphsolver.util.StrongConnectivityFinder;
+import org.chocosolver.graphsolver.variables.GraphSnapshot;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+
+/**
+ * LNS neighborhood that relaxes whole connected components (undirected case)
+ * or strongly connected components (directed case) of the last solution.
+ * Random components are relaxed until at least nbRelaxed nodes are relaxed
+ * (initially, a single component is relaxed).
+ */
+public class ComponentNeighbor extends GraphNeighbor {
+
+	private ConnectivityFinder ccFinder;
+	private StrongConnectivityFinder sccFinder;
+
+	/**
+	 * @param g    graph variable
+	 * @param seed randomness seed
+	 */
+	public ComponentNeighbor(GraphVar g, long seed) {
+		super(g, 1, seed);
+		if (g.isDirected()) {
+			sccFinder = new StrongConnectivityFinder((DirectedGraph) solution);
+		} else {
+			ccFinder = new ConnectivityFinder(solution);
+		}
+	}
+
+	@Override
+	protected void storeSolution(GraphSnapshot value) {
+		super.storeSolution(value);
+		if (g.isDirected()) {
+			sccFinder.findAllSCC();
+		} else {
+			ccFinder.findAllCC();
+		}
+	}
+
+	@Override
+	protected void selectRelaxedNodes() {
+		int count = 0;
+		int i = randomNode();
+		while (i >= 0 && count < nbRelaxed) {
+			if (g.isDirected()) {
+				for (int j = sccFinder.getSCCFirstNode(sccFinder.getNodesSCC()[i]); j >= 0; j = sccFinder.getNextNode(j)) {
+					relax(j);
+					count++;
+				}
+			} else {
+				for (int j = ccFinder.getCCFirstNode()[ccFinder.getNodeCC()[i]]; j >= 0; j = ccFinder.getCCNextNode()[j]) {
+					relax(j);
+					count++;
+				}
+			}
+			i = randomNode();
+		}
+	}
+}
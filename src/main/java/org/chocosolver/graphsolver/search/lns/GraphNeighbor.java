@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.lns;
+
+import org.chocosolver.graphsolver.GraphSolution;
+import org.chocosolver.graphsolver.variables.GraphSnapshot;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Base class of LNS neighborhoods over a graph variable.
+ * The last solution is stored in a graph object. At each LNS iteration, a subset of nodes is relaxed
+ * (see selectRelaxedNodes()) and every arc between two unrelaxed nodes takes its value in the last solution:
+ * it is enforced if it belongs to the solution, removed otherwise.
+ * Nodes of the solution are enforced, other nodes are removed unless they may be linked to a relaxed node.
+ * The number of relaxed nodes increases when the neighborhood fails to improve the solution.
+ */
+public abstract class GraphNeighbor implements INeighbor {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	protected final GraphVar g;
+	protected final int n;
+	protected final Random rd;
+	protected final IGraph solution;
+	protected final BitSet relaxed;
+	protected int nbRelaxed, nbRL;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * @param g         graph variable
+	 * @param nbRelaxed initial number of nodes to relax
+	 * @param seed      randomness seed
+	 */
+	protected GraphNeighbor(GraphVar g, int nbRelaxed, long seed) {
+		this.g = g;
+		this.n = g.getNbMaxNodes();
+		this.nbRelaxed = Math.max(1, nbRelaxed);
+		this.rd = new Random(seed);
+		this.relaxed = new BitSet(n);
+		if (g.isDirected()) {
+			solution = new DirectedGraph(n, SetType.LINKED_LIST, false);
+		} else {
+			solution = new UndirectedGraph(n, SetType.LINKED_LIST, false);
+		}
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * Adds nodes to the relaxed set
+	 * (relaxed is empty when this method is called)
+	 */
+	protected abstract void selectRelaxedNodes();
+
+	@Override
+	public void recordSolution() {
+		storeSolution(g.getSnapshot());
+	}
+
+	/**
+	 * Stores value as the solution to relax
+	 *
+	 * @param value a value of g
+	 */
+	protected void storeSolution(GraphSnapshot value) {
+		for (int i = 0; i < n; i++) {
+			solution.getSuccOrNeighOf(i).clear();
+			solution.getPredOrNeighOf(i).clear();
+		}
+		solution.getNodes().clear();
+		for (int i = value.nextNode(0); i != -1; i = value.nextNode(i + 1)) {
+			solution.addNode(i);
+		}
+		for (int i = value.nextNode(0); i != -1; i = value.nextNode(i + 1)) {
+			for (int k = 0; k < value.getDegree(i); k++) {
+				int j = value.getSuccOrNeigh(i, k);
+				if (g.isDirected()) {
+					((DirectedGraph) solution).addArc(i, j);
+				} else if (i <= j) {
+					((UndirectedGraph) solution).addEdge(i, j);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void fixSomeVariables() throws ContradictionException {
+		relaxed.clear();
+		selectRelaxedNodes();
+		for (int i : solution.getNodes()) {
+			if (!relaxed.get(i)) {
+				g.enforceNode(i, this);
+				for (int j : solution.getSuccOrNeighOf(i)) {
+					if (!relaxed.get(j)) {
+						g.enforceArc(i, j, this);
+					}
+				}
+			}
+		}
+		for (int i : g.getPotentialNodes().toArray()) {
+			if (!relaxed.get(i)) {
+				if (!solution.getNodes().contains(i) && !isNextToRelaxed(i)) {
+					g.removeNode(i, this);
+				} else {
+					for (int j : g.getPotSuccOrNeighOf(i).toArray()) {
+						if (!relaxed.get(j) && !solution.getSuccOrNeighOf(i).contains(j)) {
+							g.removeArc(i, j, this);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param i a node
+	 * @return true iff i has a relaxed potential successor or predecessor (neighbor)
+	 */
+	private boolean isNextToRelaxed(int i) {
+		for (int j : g.getPotSuccOrNeighOf(i)) {
+			if (relaxed.get(j)) {
+				return true;
+			}
+		}
+		if (g.isDirected()) {
+			for (int j : g.getPotPredOrNeighOf(i)) {
+				if (relaxed.get(j)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void restrictLess() {
+		nbRL++;
+		// increases the number of relaxed nodes
+		if (nbRL > nbRelaxed) {
+			nbRL = 0;
+			nbRelaxed = Math.min(n, nbRelaxed + (nbRelaxed * 3) / 2);
+		}
+	}
+
+	@Override
+	public boolean isSearchComplete() {
+		return nbRelaxed >= n;
+	}
+
+	/**
+	 * Loads the value of g from solution, which must be a {@link GraphSolution}
+	 *
+	 * @param solution a solution storing g
+	 */
+	@Override
+	public void loadFromSolution(Solution solution) {
+		GraphSnapshot value = solution instanceof GraphSolution ? ((GraphSolution) solution).getGraphVal(g) : null;
+		if (value == null) {
+			throw new UnsupportedOperationException("the solution should be a recorded GraphSolution storing " + g.getName());
+		}
+		storeSolution(value);
+	}
+
+	/**
+	 * @return a random node of the last solution which is not relaxed yet, -1 if there is none
+	 */
+	protected int randomNode() {
+		int size = solution.getNodes().size();
+		if (relaxed.cardinality() >= size) {
+			return -1;
+		}
+		int i = rd.nextInt(n);
+		while (relaxed.get(i) || !solution.getNodes().contains(i)) {
+			i = (i + 1) % n;
+		}
+		return i;
+	}
+
+	/**
+	 * Marks node i as relaxed
+	 *
+	 * @param i a node
+	 * @return true iff i was not relaxed yet
+	 */
+	protected boolean relax(int i) {
+		if (relaxed.get(i)) {
+			return false;
+		}
+		relaxed.set(i);
+		return true;
+	}
+
+	/**
+	 * @param i a node
+	 * @return a random successor (or neighbor) of i in the last solution which is not relaxed yet, -1 if none
+	 */
+	protected int randomFreeSuccOrNeigh(int i) {
+		ISet next = solution.getSuccOrNeighOf(i);
+		int k = 0, sel = -1;
+		for (int j : next) {
+			if (!relaxed.get(j) && rd.nextInt(++k) == 0) {
+				sel = j;
+			}
+		}
+		return sel;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.lns;
+
+import org.chocosolver.graphsolver.variables.GraphVar;
+
+/**
+ * LNS neighborhood that relaxes (sub)paths of the last solution (e.g. segments of a cycle).
+ * A path is followed from a random node until enough nodes are relaxed (or the path stops),
+ * in which case another path is started from another random node.
+ */
+public class SubpathNeighbor extends GraphNeighbor {
+
+	/**
+	 * @param g           graph variable
+	 * @param nbFreeNodes initial number of consecutive nodes to relax
+	 * @param seed        randomness seed
+	 */
+	public SubpathNeighbor(GraphVar g, int nbFreeNodes, long seed) {
+		super(g, nbFreeNodes, seed);
+	}
+
+	@Override
+	protected void selectRelaxedNodes() {
+		int count = 0;
+		int i = randomNode();
+		while (i >= 0 && count < nbRelaxed) {
+			relax(i);
+			count++;
+			i = randomFreeSuccOrNeigh(i);
+			if (i == -1) {
+				i = randomNode();
+			}
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.lns;
+
+import org.chocosolver.graphsolver.variables.GraphSnapshot;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.GraphVar;
+
+import java.util.Arrays;
+
+/**
+ * LNS neighborhood that relaxes nodes whose incident arcs are the most expensive in the last solution.
+ * The nbRelaxed nodes are randomly picked among the 2*nbRelaxed worst nodes, to diversify the search.
+ */
+public class WorstCostNeighbor extends GraphNeighbor {
+
+	private EdgeCost costs;
+	private long[] keys;
+	private int size;
+
+	/**
+	 * @param g          graph variable
+	 * @param costMatrix cost of every arc/edge
+	 * @param nbWorst    initial number of nodes to relax
+	 * @param seed       randomness seed
+	 */
+	public WorstCostNeighbor(GraphVar g, int[][] costMatrix, int nbWorst, long seed) {
+		this(g, EdgeCost.of(costMatrix), nbWorst, seed);
+	}
+
+	/**
+	 * @param g          graph variable
+	 * @param costs      costs of every arc/edge, possibly computed on demand
+	 * @param nbWorst    initial number of nodes to relax
+	 * @param seed       randomness seed
+	 */
+	public WorstCostNeighbor(GraphVar g, EdgeCost costs, int nbWorst, long seed) {
+		super(g, nbWorst, seed);
+		this.costs = costs;
+		this.keys = new long[n];
+	}
+
+	@Override
+	protected void storeSolution(GraphSnapshot value) {
+		super.storeSolution(value);
+		// sorts nodes by decreasing cost of their incident arcs (node index in low bits)
+		size = 0;
+		for (int i : solution.getNodes()) {
+			long cost = 0;
+			for (int j : solution.getSuccOrNeighOf(i)) {
+				cost += costs.getCost(i, j);
+			}
+			if (g.isDirected()) {
+				for (int j : solution.getPredOrNeighOf(i)) {
+					cost += costs.getCost(j, i);
+				}
+			}
+			// clamped so that the negated cost fits in the high bits
+			cost = Math.max(-Integer.MAX_VALUE, Math.min(Integer.MAX_VALUE, cost));
+			keys[size++] = (-cost << 32) | i;
+		}
+		Arrays.sort(keys, 0, size);
+	}
+
+	@Override
+	protected void selectRelaxedNodes() {
+		int nbCandidates = Math.min(size, 2 * nbRelaxed);
+		// partial Fisher-Yates shuffle among the worst candidates
+		for (int k = 0; k < nbCandidates && k < nbRelaxed; k++) {
+			int r = k + rd.nextInt(nbCandidates - k);
+			long tmp = keys[k];
+			keys[k] = keys[r];
+			keys[r] = tmp;
+			relax((int) keys[k]);
+		}
+	}
+}
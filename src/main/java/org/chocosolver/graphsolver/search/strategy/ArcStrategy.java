@@ -42,6 +42,15 @@ public abstract class ArcStrategy<G extends GraphVar> {
 		this.envNodes = g.getPotentialNodes();
 	}
 
+	/**
+	 * Called once the initial propagation is done, before the first decision
+	 *
+	 * @return false if the initialization failed
+	 */
+	public boolean init() {
+		return true;
+	}
+
 	public abstract boolean computeNextArc();
 
 	public int getFrom() {
@@ -37,10 +37,17 @@ package org.chocosolver.graphsolver.search.strategy;
 import org.chocosolver.graphsolver.GraphModel;
 import org.chocosolver.graphsolver.search.GraphAssignment;
 import org.chocosolver.graphsolver.search.GraphDecision;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.Search;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.procedure.PairProcedure;
 
 public class GraphSearch extends GraphStrategy {
 
@@ -63,12 +70,30 @@ public class GraphSearch extends GraphStrategy {
 	// variables
 	private int n;
 	private int mode;
-	private int[][] costs;
+	private EdgeCost costs;
 	private GraphAssignment decisionType;
 	private int from, to;
 	private int value;
 	private boolean useLC;
 	private int lastFrom = -1;
+	// every node lower than firstNode has no undecided arc (this remains true down the search tree)
+	private IStateInt firstNode;
+	// arcs of the upper bound after the initial propagation
+	private int[] arcFrom, arcTo;
+	// priority queue over arcs: keys are updated lazily for policies whose scores can only get worse down the search tree,
+	// and from the graph delta for the other degree policies
+	private StoredArcHeap heap;
+	private int heapMode = -1;
+	// arcs incident to each node, delta monitor and world of the last key update (delta-driven policies only)
+	private int[][] incident;
+	private GraphDeltaMonitor gdm;
+	private IStateInt syncedWorld;
+	private int[] touched, touchedStamp;
+	private int nbTouched, stamp;
+	private final PairProcedure touch = (x, y) -> {
+		touch(x);
+		touch(y);
+	};
 
 	/**
 	 * Search strategy for graphs
@@ -76,7 +101,7 @@ public class GraphSearch extends GraphStrategy {
 	 * @param graphVar varriable to branch on
 	 */
 	public GraphSearch(GraphVar graphVar) {
-		this(graphVar, null);
+		this(graphVar, (EdgeCost) null);
 	}
 
 	/**
@@ -86,9 +111,20 @@ public class GraphSearch extends GraphStrategy {
 	 * @param costMatrix can be null
 	 */
 	public GraphSearch(GraphVar graphVar, int[][] costMatrix) {
+		this(graphVar, costMatrix == null ? null : EdgeCost.of(costMatrix));
+	}
+
+	/**
+	 * Search strategy for graphs
+	 *
+	 * @param graphVar varriable to branch on
+	 * @param costs    arc costs, possibly computed on demand (can be null)
+	 */
+	public GraphSearch(GraphVar graphVar, EdgeCost costs) {
 		super(graphVar, null, null, NodeArcPriority.ARCS);
-		costs = costMatrix;
+		this.costs = costs;
 		n = g.getNbMaxNodes();
+		firstNode = g.getModel().getEnvironment().makeInt(0);
 	}
 
 	/**
@@ -117,6 +153,49 @@ public class GraphSearch extends GraphStrategy {
 		return this;
 	}
 
+	/**
+	 * Records the arcs of the upper bound, once the initial propagation is done,
+	 * and builds the priority queue of arcs if the policy allows it.
+	 * Only LEX scans arcs at every decision, as do the other degree policies when they are set after this call.
+	 */
+	@Override
+	public boolean init() {
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getPotSuccOrNeighOf(i)) {
+				if (g.isDirected() || i <= j) {
+					m++;
+				}
+			}
+		}
+		arcFrom = new int[m];
+		arcTo = new int[m];
+		m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getPotSuccOrNeighOf(i)) {
+				if (g.isDirected() || i <= j) {
+					arcFrom[m] = i;
+					arcTo[m++] = j;
+				}
+			}
+		}
+		heap = null;
+		heapMode = -1;
+		if (isMonotone(mode)) {
+			buildHeap(true);
+		} else if (isDeltaDriven(mode)) {
+			buildHeap(true);
+			monitorDegrees();
+		}
+		return super.init();
+	}
+
+	@Override
+	public GraphSearch usePhaseSaving() {
+		super.usePhaseSaving();
+		return this;
+	}
+
 	public GraphSearch useLastConflict() {
 		useLC = true;
 		return this;
@@ -132,7 +211,7 @@ public class GraphSearch extends GraphStrategy {
 			dec = new GraphDecision(pool);
 		}
 		computeNextArc();
-		dec.setArc(g, from, to, decisionType);
+		dec.setArc(g, from, to, phase(from, to, decisionType));
 		lastFrom = from;
 		return dec;
 	}
@@ -140,22 +219,229 @@ public class GraphSearch extends GraphStrategy {
 	private void computeNextArc() {
 		to = -1;
 		from = -1;
+		if (heapMode == mode && isDeltaDriven(mode)) {
+			// every modification must be read, even when the decision does not come from the priority queue
+			updateKeys();
+		}
 		if (useLC && lastFrom != -1) {
 			evaluateNeighbors(lastFrom);
 			if (to != -1) {
 				return;
 			}
 		}
-		for (int i = 0; i < n; i++) {
-			if (evaluateNeighbors(i)) {
-				return;
+		if (isMonotone(mode)) {
+			if (heapMode != mode || arcFrom == null) {
+				buildHeap(arcFrom == null);
 			}
+			pollBestArc();
+		} else if (heapMode == mode && isDeltaDriven(mode)) {
+			pollBestArc();
+		} else {
+			scanArcs();
 		}
 		if (to == -1) {
 			throw new UnsupportedOperationException();
 		}
 	}
 
+	private void scanArcs() {
+		int i = firstNode.get();
+		while (i < n && g.getPotSuccOrNeighOf(i).size() == g.getMandSuccOrNeighOf(i).size()) {
+			i++;
+		}
+		firstNode.set(i);
+		if (mode == LEX || mode > MAX_DELTA_DEGREE) {
+			for (; i < n; i++) {
+				if (evaluateNeighbors(i)) {
+					return;
+				}
+			}
+		} else {
+			// degree scores are sums of a tail score and a head score:
+			// nodes whose tail score cannot beat the current best arc are skipped
+			int bestIn = 0;
+			boolean first = true;
+			for (int j = 0; j < n; j++) {
+				if (g.getPotPredOrNeighOf(j).size() > g.getMandPredOrNeighOf(j).size()) {
+					int v = inScore(j);
+					if (first || (isMinOrIn(mode) ? v < bestIn : v > bestIn)) {
+						bestIn = v;
+						first = false;
+					}
+				}
+			}
+			for (; i < n; i++) {
+				if (from == -1 || select(outScore(i) + bestIn)) {
+					evaluateNeighbors(i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Picks the best undecided arc from the priority queue.
+	 * Decided arcs are removed and outdated scores are updated lazily:
+	 * as a stored score is never better than the actual one, the first arc whose score is up to date is the best arc.
+	 * Scores of delta-driven policies are always up to date.
+	 */
+	private void pollBestArc() {
+		while (!heap.isEmpty()) {
+			int a = heap.first();
+			int i = arcFrom[a];
+			int j = arcTo[a];
+			if (!g.getPotSuccOrNeighOf(i).contains(j) || g.getMandSuccOrNeighOf(i).contains(j)) {
+				heap.removeFirst();
+			} else {
+				int k = key(i, j);
+				if (k == heap.firstKey()) {
+					from = i;
+					to = j;
+					return;
+				}
+				heap.updateKey(a, k);
+			}
+		}
+	}
+
+	/**
+	 * Builds the priority queue of arcs for the current policy
+	 *
+	 * @param exact true if the current scores are those of the root of the search tree,
+	 *              otherwise scores are initialized to the most optimistic value and updated lazily
+	 */
+	private void buildHeap(boolean exact) {
+		if (arcFrom == null) {
+			init();
+			return;
+		}
+		heap = new StoredArcHeap(g.getModel().getEnvironment(), arcFrom.length);
+		heapMode = mode;
+		for (int a = 0; a < arcFrom.length; a++) {
+			heap.add(a, exact ? key(arcFrom[a], arcTo[a]) : Integer.MIN_VALUE);
+		}
+	}
+
+	/**
+	 * Monitors arc removals and enforcings, to update the keys of the arcs incident to their endpoints
+	 */
+	private void monitorDegrees() {
+		int[] nb = new int[n];
+		for (int a = 0; a < arcFrom.length; a++) {
+			nb[arcFrom[a]]++;
+			if (arcTo[a] != arcFrom[a]) {
+				nb[arcTo[a]]++;
+			}
+		}
+		incident = new int[n][];
+		for (int i = 0; i < n; i++) {
+			incident[i] = new int[nb[i]];
+			nb[i] = 0;
+		}
+		for (int a = 0; a < arcFrom.length; a++) {
+			incident[arcFrom[a]][nb[arcFrom[a]]++] = a;
+			if (arcTo[a] != arcFrom[a]) {
+				incident[arcTo[a]][nb[arcTo[a]]++] = a;
+			}
+		}
+		touched = new int[n];
+		touchedStamp = new int[n];
+		if (gdm == null) {
+			// the search is not a propagator: the modifications of its own decisions are recorded as well
+			gdm = g.monitorDelta(new ICause() {
+			}, GraphEventType.REMOVE_ARC, GraphEventType.ADD_ARC);
+			syncedWorld = g.getModel().getEnvironment().makeInt();
+		}
+		gdm.freeze();
+		gdm.unfreeze();
+		syncedWorld.set(g.getModel().getEnvironment().getWorldIndex());
+	}
+
+	/**
+	 * Updates the keys of the arcs incident to an endpoint of an arc which has been removed or enforced
+	 * since the last decision
+	 */
+	private void updateKeys() {
+		int world = g.getModel().getEnvironment().getWorldIndex();
+		gdm.freeze();
+		if (syncedWorld.get() < world - 1) {
+			// the modifications of some worlds have not been read (e.g., another strategy made some decisions)
+			for (int a = 0; a < arcFrom.length; a++) {
+				if (heap.contains(a)) {
+					heap.updateKey(a, key(arcFrom[a], arcTo[a]));
+				}
+			}
+		} else {
+			stamp++;
+			nbTouched = 0;
+			try {
+				gdm.forEachArc(touch, GraphEventType.REMOVE_ARC);
+				gdm.forEachArc(touch, GraphEventType.ADD_ARC);
+			} catch (ContradictionException e) {
+				throw new IllegalStateException("touching nodes cannot fail", e);
+			}
+			for (int t = 0; t < nbTouched; t++) {
+				for (int a : incident[touched[t]]) {
+					if (heap.contains(a)) {
+						heap.updateKey(a, key(arcFrom[a], arcTo[a]));
+					}
+				}
+			}
+		}
+		gdm.unfreeze();
+		syncedWorld.set(world);
+	}
+
+	private void touch(int x) {
+		if (touchedStamp[x] != stamp) {
+			touchedStamp[x] = stamp;
+			touched[nbTouched++] = x;
+		}
+	}
+
+	/**
+	 * @return the score of arc (i,j) (or edge {i,j}), negated for maximization policies
+	 */
+	private int key(int i, int j) {
+		int k = isMinOrIn(mode) ? score(i, j) : -score(i, j);
+		if (!g.isDirected() && i != j) {
+			k = Math.min(k, isMinOrIn(mode) ? score(j, i) : -score(j, i));
+		}
+		return k;
+	}
+
+	private int score(int i, int j) {
+		if (mode == MIN_COST || mode == MAX_COST) {
+			return costs.getCost(i, j);
+		}
+		return outScore(i) + inScore(j);
+	}
+
+	private int outScore(int i) {
+		switch (mode) {
+			case MIN_P_DEGREE:
+			case MAX_P_DEGREE:
+				return g.getPotSuccOrNeighOf(i).size();
+			case MIN_M_DEGREE:
+			case MAX_M_DEGREE:
+				return g.getMandSuccOrNeighOf(i).size();
+			default:
+				return g.getPotSuccOrNeighOf(i).size() - g.getMandSuccOrNeighOf(i).size();
+		}
+	}
+
+	private int inScore(int j) {
+		switch (mode) {
+			case MIN_P_DEGREE:
+			case MAX_P_DEGREE:
+				return g.getPotPredOrNeighOf(j).size();
+			case MIN_M_DEGREE:
+			case MAX_M_DEGREE:
+				return g.getMandPredOrNeighOf(j).size();
+			default:
+				return g.getPotPredOrNeighOf(j).size() - g.getMandPredOrNeighOf(j).size();
+		}
+	}
+
 	private boolean evaluateNeighbors(int i) {
 		ISet set = g.getPotSuccOrNeighOf(i);
 		if (set.size() == g.getMandSuccOrNeighOf(i).size()) {
@@ -163,7 +449,7 @@ public class GraphSearch extends GraphStrategy {
 		}
 		for (int j : set) {
 			if (!g.getMandSuccOrNeighOf(i).contains(j)) {
-				int v = -1;
+				int v;
 				switch (mode) {
 					case LEX:
 						from = i;
@@ -171,24 +457,13 @@ public class GraphSearch extends GraphStrategy {
 						return true;
 					case MIN_P_DEGREE:
 					case MAX_P_DEGREE:
-						v = g.getPotSuccOrNeighOf(i).size()
-								+ g.getPotPredOrNeighOf(j).size();
-						break;
 					case MIN_M_DEGREE:
 					case MAX_M_DEGREE:
-						v = g.getMandSuccOrNeighOf(i).size()
-								+ g.getMandPredOrNeighOf(j).size();
-						break;
 					case MIN_DELTA_DEGREE:
 					case MAX_DELTA_DEGREE:
-						v = g.getPotSuccOrNeighOf(i).size()
-								+ g.getPotPredOrNeighOf(j).size()
-								- g.getMandSuccOrNeighOf(i).size()
-								- g.getMandPredOrNeighOf(j).size();
-						break;
 					case MIN_COST:
 					case MAX_COST:
-						v = costs[i][j];
+						v = score(i, j);
 						break;
 					default:
 						throw new UnsupportedOperationException("mode " + mode + " does not exist");
@@ -211,6 +486,23 @@ public class GraphSearch extends GraphStrategy {
 		return (policy % 2 == 1);
 	}
 
+	/**
+	 * @return true iff arc scores of this policy can only get worse down the search tree
+	 * (potential degrees decrease, mandatory degrees increase and costs are static)
+	 */
+	private static boolean isMonotone(int policy) {
+		return policy == MAX_P_DEGREE || policy == MIN_M_DEGREE || policy == MAX_DELTA_DEGREE
+				|| policy == MIN_COST || policy == MAX_COST;
+	}
+
+	/**
+	 * @return true iff arc scores of this policy may get better down the search tree,
+	 * so that they are updated from the graph delta after each decision
+	 */
+	private static boolean isDeltaDriven(int policy) {
+		return policy == MIN_P_DEGREE || policy == MAX_M_DEGREE || policy == MIN_DELTA_DEGREE;
+	}
+
 	public static AbstractStrategy defaultSearch(GraphModel model){
 		// overrides default search strategy to handle graph vars
 		AbstractStrategy other = Search.defaultSearch(model);
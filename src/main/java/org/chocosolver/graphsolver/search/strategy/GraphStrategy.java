@@ -34,8 +34,13 @@ import org.chocosolver.graphsolver.search.strategy.arcs.RandomArc;
 import org.chocosolver.graphsolver.search.strategy.nodes.LexNode;
 import org.chocosolver.graphsolver.search.strategy.nodes.RandomNode;
 import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
 import org.chocosolver.util.PoolManager;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
 
 /**
  * <br/>
@@ -54,6 +59,9 @@ public class GraphStrategy extends AbstractStrategy<GraphVar> {
 	protected ArcStrategy arcStrategy;
 	protected NodeArcPriority priority;
 	protected PoolManager<GraphDecision> pool;
+	// value of g in the last solution (null if phase saving is disabled or if no solution has been found yet)
+	protected IGraph phase;
+	private IMonitorSolution phaseRecorder;
 
 	public enum NodeArcPriority {
 		NODES_THEN_ARCS,
@@ -132,9 +140,78 @@ public class GraphStrategy extends AbstractStrategy<GraphVar> {
 	// METHODS
 	//***********************************************************************************
 
+	/**
+	 * Enables phase saving: once a solution has been found, each decision branches first
+	 * toward the value the node or arc had in the last solution
+	 * (enforcing it if it belonged to the solution, removing it otherwise).
+	 * Most useful with restarts and LNS, to search close to the incumbent.
+	 *
+	 * @return this strategy
+	 */
+	public GraphStrategy usePhaseSaving() {
+		if (phaseRecorder == null) {
+			phaseRecorder = this::recordPhase;
+			g.getModel().getSolver().plugMonitor(phaseRecorder);
+		}
+		return this;
+	}
+
+	private void recordPhase() {
+		int n = g.getNbMaxNodes();
+		if (phase == null) {
+			phase = g.isDirected()
+					? new DirectedGraph(n, SetType.BITSET, false)
+					: new UndirectedGraph(n, SetType.BITSET, false);
+		}
+		for (int i : phase.getNodes()) {
+			phase.getSuccOrNeighOf(i).clear();
+			phase.getPredOrNeighOf(i).clear();
+		}
+		phase.getNodes().clear();
+		for (int i : g.getMandatoryNodes()) {
+			phase.addNode(i);
+		}
+		for (int i : g.getMandatoryNodes()) {
+			for (int j : g.getMandSuccOrNeighOf(i)) {
+				if (g.isDirected()) {
+					((DirectedGraph) phase).addArc(i, j);
+				} else if (i <= j) {
+					((UndirectedGraph) phase).addEdge(i, j);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param node a node
+	 * @param dflt assignment to use when no phase is known
+	 * @return the assignment to apply first when branching on node
+	 */
+	protected GraphAssignment phase(int node, GraphAssignment dflt) {
+		if (phase == null) {
+			return dflt;
+		}
+		return phase.getNodes().contains(node) ? GraphAssignment.graph_enforcer : GraphAssignment.graph_remover;
+	}
+
+	/**
+	 * @param from tail of the arc
+	 * @param to   head of the arc
+	 * @param dflt assignment to use when no phase is known
+	 * @return the assignment to apply first when branching on (from,to)
+	 */
+	protected GraphAssignment phase(int from, int to, GraphAssignment dflt) {
+		if (phase == null) {
+			return dflt;
+		}
+		return phase.getNodes().contains(from) && phase.getSuccOrNeighOf(from).contains(to)
+				? GraphAssignment.graph_enforcer : GraphAssignment.graph_remover;
+	}
+
 	@Override
 	public boolean init() {
-		return true;
+		return (nodeStrategy == null || nodeStrategy.init())
+				&& (arcStrategy == null || arcStrategy.init());
 	}
 
 	@Override
@@ -150,13 +227,14 @@ public class GraphStrategy extends AbstractStrategy<GraphVar> {
 			case NODES_THEN_ARCS:
 				int node = nextNode();
 				if (node != -1) {
-					dec.setNode(g, node, GraphAssignment.graph_enforcer);
+					dec.setNode(g, node, phase(node, GraphAssignment.graph_enforcer));
 				} else {
 					if (arcStrategy == null) {
 						return null;
 					}
 					nextArc();
-					dec.setArc(g, arcStrategy.getFrom(), arcStrategy.getTo(), GraphAssignment.graph_enforcer);
+					dec.setArc(g, arcStrategy.getFrom(), arcStrategy.getTo(),
+							phase(arcStrategy.getFrom(), arcStrategy.getTo(), GraphAssignment.graph_enforcer));
 				}
 				break;
 			case ARCS:
@@ -164,7 +242,8 @@ public class GraphStrategy extends AbstractStrategy<GraphVar> {
 				if (!nextArc()) {
 					return null;
 				}
-				dec.setArc(g, arcStrategy.getFrom(), arcStrategy.getTo(), GraphAssignment.graph_enforcer);
+				dec.setArc(g, arcStrategy.getFrom(), arcStrategy.getTo(),
+							phase(arcStrategy.getFrom(), arcStrategy.getTo(), GraphAssignment.graph_enforcer));
 				break;
 		}
 		return dec;
@@ -40,5 +40,14 @@ public abstract class NodeStrategy<G extends GraphVar> {
 		this.kerNodes = g.getMandatoryNodes();
 	}
 
+	/**
+	 * Called once the initial propagation is done, before the first decision
+	 *
+	 * @return false if the initialization failed
+	 */
+	public boolean init() {
+		return true;
+	}
+
 	public abstract int nextNode();
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.strategy;
+
+import org.chocosolver.memory.IEnvironment;
+
+import java.util.Arrays;
+
+/**
+ * Backtrackable indexed binary heap of arcs (min-heap on int keys).
+ * Removals and key updates performed during search are undone upon backtrack,
+ * thanks to operations saved in the environment.
+ * Ties are broken by smallest arc index.
+ */
+class StoredArcHeap {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final IEnvironment env;
+	private final int[] heap, keys, positions;
+	private int size;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates an empty heap for arcs indexed in [0,capacity-1]
+	 *
+	 * @param env      environment used to undo modifications upon backtrack
+	 * @param capacity maximal number of arcs
+	 */
+	StoredArcHeap(IEnvironment env, int capacity) {
+		this.env = env;
+		this.heap = new int[capacity];
+		this.keys = new int[capacity];
+		this.positions = new int[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * Adds an arc to the heap (not backtrackable, to be used when building the heap)
+	 *
+	 * @param arc arc index
+	 * @param key initial key of arc
+	 */
+	void add(int arc, int key) {
+		insert(arc, key);
+	}
+
+	/**
+	 * @param arc arc index
+	 * @return true iff arc is in the heap
+	 */
+	boolean contains(int arc) {
+		return positions[arc] != -1;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the arc with the smallest key
+	 */
+	int first() {
+		return heap[0];
+	}
+
+	/**
+	 * @return the key of the first arc
+	 */
+	int firstKey() {
+		return keys[heap[0]];
+	}
+
+	/**
+	 * Removes the first arc, it will be put back upon backtrack
+	 */
+	void removeFirst() {
+		final int arc = heap[0];
+		final int key = keys[arc];
+		pollFirst();
+		env.save(() -> insert(arc, key));
+	}
+
+	/**
+	 * Changes the key of an arc of the heap, its former key is restored upon backtrack
+	 *
+	 * @param arc an arc of the heap
+	 * @param key new key of arc
+	 */
+	void updateKey(int arc, int key) {
+		final int old = keys[arc];
+		if (old != key) {
+			setKey(arc, key);
+			env.save(() -> setKey(arc, old));
+		}
+	}
+
+	//***********************************************************************************
+	// PROCEDURES
+	//***********************************************************************************
+
+	private void insert(int arc, int key) {
+		keys[arc] = key;
+		heap[size] = arc;
+		siftUp(size++);
+	}
+
+	private void pollFirst() {
+		positions[heap[0]] = -1;
+		heap[0] = heap[--size];
+		if (size > 0) {
+			siftDown(0);
+		}
+	}
+
+	private void setKey(int arc, int key) {
+		keys[arc] = key;
+		siftUp(positions[arc]);
+		siftDown(positions[arc]);
+	}
+
+	private boolean less(int a, int b) {
+		return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+	}
+
+	private void siftUp(int p) {
+		int arc = heap[p];
+		while (p > 0) {
+			int parent = (p - 1) >> 1;
+			if (!less(arc, heap[parent])) {
+				break;
+			}
+			heap[p] = heap[parent];
+			positions[heap[p]] = p;
+			p = parent;
+		}
+		heap[p] = arc;
+		positions[arc] = p;
+	}
+
+	private void siftDown(int p) {
+		int arc = heap[p];
+		int half = size >> 1;
+		while (p < half) {
+			int child = (p << 1) + 1;
+			if (child + 1 < size && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!less(heap[child], arc)) {
+				break;
+			}
+			heap[p] = heap[child];
+			positions[heap[p]] = p;
+			p = child;
+		}
+		heap[p] = arc;
+		positions[arc] = p;
+	}
+}
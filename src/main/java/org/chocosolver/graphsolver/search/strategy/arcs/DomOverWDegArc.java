@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.search.strategy.arcs;
+
+import org.chocosolver.graphsolver.search.strategy.ArcStrategy;
+import org.chocosolver.graphsolver.variables.GraphEventType;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.util.procedure.IntProcedure;
+import org.chocosolver.util.procedure.PairProcedure;
+
+/**
+ * Learning arc strategy, adapting dom/wdeg to arc decisions.
+ * <br>
+ * Every node has a weight, which is bumped each time a failure occurs
+ * while arcs incident to this node (or the node itself) are being decided.
+ * Optionally, nodes are also bumped by successful propagations (activity).
+ * Bumps grow geometrically with the number of failures, so that old conflicts decay.
+ * Weights are kept across restarts.
+ * <br>
+ * Branches on the node i maximizing weight(i)/undecided(i) among nodes having an undecided outgoing arc
+ * (edge in the undirected case), then on its undecided successor (neighbor) j maximizing weight(j)/undecided(j),
+ * where undecided(k) is the number of undecided arcs incident to k (incoming ones for j in the directed case).
+ */
+public class DomOverWDegArc extends ArcStrategy<GraphVar> implements IMonitorContradiction, ICause {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private static final double RESCALE = 1e100;
+
+	private final int n;
+	private final double[] weights;
+	private final double decay;
+	private final boolean activity;
+	private double increment = 1;
+	private final GraphDeltaMonitor gdm;
+	private final PairProcedure arcBump;
+	private final IntProcedure nodeBump;
+	// nodes already bumped for the current event
+	private final int[] stamps;
+	private int stamp;
+	private double bumpValue;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Conflict-driven arc strategy (failures only, no decay)
+	 *
+	 * @param g a graph variable to branch on
+	 */
+	public DomOverWDegArc(GraphVar g) {
+		this(g, 1, false);
+	}
+
+	/**
+	 * Conflict-driven arc strategy
+	 *
+	 * @param g        a graph variable to branch on
+	 * @param decay    in ]0,1], the bump of a failure is 1/decay times the bump of the previous one (1 means no decay)
+	 * @param activity true if nodes are also bumped by successful propagations (with a bump weighted by (1-decay))
+	 */
+	public DomOverWDegArc(GraphVar g, double decay, boolean activity) {
+		super(g);
+		if (decay <= 0 || decay > 1) {
+			throw new IllegalArgumentException("decay should be in ]0,1]");
+		}
+		this.n = g.getNbMaxNodes();
+		this.decay = decay;
+		this.activity = activity;
+		this.weights = new double[n];
+		this.stamps = new int[n];
+		for (int i = 0; i < n; i++) {
+			weights[i] = 1;
+		}
+		this.gdm = g.monitorDelta(this);
+		this.nodeBump = this::bump;
+		this.arcBump = (i, j) -> {
+			bump(i);
+			bump(j);
+		};
+		g.getModel().getSolver().plugMonitor(this);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public void onContradiction(ContradictionException cex) {
+		bumpLastChanges(increment);
+		increment /= decay;
+		if (increment > RESCALE) {
+			for (int i = 0; i < n; i++) {
+				weights[i] /= RESCALE;
+			}
+			increment /= RESCALE;
+		}
+	}
+
+	@Override
+	public boolean computeNextArc() {
+		if (activity) {
+			bumpLastChanges(increment * (1 - decay));
+		} else {
+			gdm.unfreeze();
+		}
+		from = to = -1;
+		double best = -1;
+		for (int i : envNodes) {
+			int u = undecidedSuccOrNeigh(i);
+			if (u > 0 && weights[i] / u > best) {
+				best = weights[i] / u;
+				from = i;
+			}
+		}
+		if (from == -1) {
+			return false;
+		}
+		best = -1;
+		for (int j : g.getPotSuccOrNeighOf(from)) {
+			if (!g.getMandSuccOrNeighOf(from).contains(j)) {
+				int u = g.getPotPredOrNeighOf(j).size() - g.getMandPredOrNeighOf(j).size();
+				if (weights[j] / u > best) {
+					best = weights[j] / u;
+					to = j;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param i a node
+	 * @return the weight of node i
+	 */
+	public double getWeight(int i) {
+		return weights[i];
+	}
+
+	//***********************************************************************************
+	// PROCEDURES
+	//***********************************************************************************
+
+	private int undecidedSuccOrNeigh(int i) {
+		return g.getPotSuccOrNeighOf(i).size() - g.getMandSuccOrNeighOf(i).size();
+	}
+
+	/**
+	 * Bumps, once, every node touched since the last call (in the current world)
+	 */
+	private void bumpLastChanges(double inc) {
+		if (inc <= 0) {
+			gdm.unfreeze();
+			return;
+		}
+		stamp++;
+		bumpValue = inc;
+		g.getDelta().lazyClear();
+		gdm.freeze();
+		try {
+			gdm.forEachNode(nodeBump, GraphEventType.REMOVE_NODE);
+			gdm.forEachNode(nodeBump, GraphEventType.ADD_NODE);
+			gdm.forEachArc(arcBump, GraphEventType.REMOVE_ARC);
+			gdm.forEachArc(arcBump, GraphEventType.ADD_ARC);
+		} catch (ContradictionException e) {
+			// bumping only updates weights, it never modifies a variable
+			throw new IllegalStateException("bumping weights cannot fail", e);
+		}
+		gdm.unfreeze();
+	}
+
+	private void bump(int i) {
+		if (stamps[i] != stamp) {
+			stamps[i] = stamp;
+			weights[i] += bumpValue;
+		}
+	}
+}
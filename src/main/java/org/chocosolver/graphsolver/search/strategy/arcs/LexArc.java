@@ -28,23 +28,31 @@ package org.chocosolver.graphsolver.search.strategy.arcs;
 
 import org.chocosolver.graphsolver.search.strategy.ArcStrategy;
 import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.memory.IStateInt;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 
 public class LexArc extends ArcStrategy<GraphVar> {
 
+	private int n;
+	// every node lower than firstNode has no undecided arc (this remains true down the search tree)
+	private IStateInt firstNode;
+
 	public LexArc(GraphVar g) {
 		super(g);
+		n = g.getNbMaxNodes();
+		firstNode = g.getModel().getEnvironment().makeInt(0);
 	}
 
 	@Override
 	public boolean computeNextArc() {
 		ISet envSuc, kerSuc;
-		for (int i : envNodes) {
+		for (int i = firstNode.get(); i < n; i++) {
 			envSuc = g.getPotSuccOrNeighOf(i);
 			kerSuc = g.getMandSuccOrNeighOf(i);
 			if (envSuc.size() != kerSuc.size()) {
 				for (int j : envSuc) {
 					if (!kerSuc.contains(j)) {
+						firstNode.set(i);
 						this.from = i;
 						this.to = j;
 						return true;
@@ -52,6 +60,7 @@ public class LexArc extends ArcStrategy<GraphVar> {
 				}
 			}
 		}
+		firstNode.set(n);
 		this.from = this.to = -1;
 		return false;
 	}
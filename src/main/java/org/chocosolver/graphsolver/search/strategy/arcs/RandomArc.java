@@ -26,50 +26,71 @@
  */
 package org.chocosolver.graphsolver.search.strategy.arcs;
 
-import gnu.trove.list.array.TIntArrayList;
 import org.chocosolver.graphsolver.search.strategy.ArcStrategy;
 import org.chocosolver.graphsolver.variables.GraphVar;
-import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.memory.IStateInt;
 
 import java.util.Random;
 
 public class RandomArc extends ArcStrategy<GraphVar> {
 
 	private Random rd;
-	private TIntArrayList pFrom, pTo;
+	// candidate arcs: the first 'size' ones are undecided or not checked yet (sparse set)
+	private int[] pFrom, pTo;
+	private IStateInt size;
 
 	public RandomArc(GraphVar g, long seed) {
 		super(g);
 		rd = new Random(seed);
-		pFrom = new TIntArrayList();
-		pTo = new TIntArrayList();
 	}
 
 	@Override
-	public boolean computeNextArc() {
-		pFrom.clear();
-		pTo.clear();
-		ISet envSuc, kerSuc;
+	public boolean init() {
+		int m = 0;
+		for (int i : envNodes) {
+			m += g.getPotSuccOrNeighOf(i).size();
+		}
+		pFrom = new int[m];
+		pTo = new int[m];
+		m = 0;
 		for (int i : envNodes) {
-			envSuc = g.getPotSuccOrNeighOf(i);
-			kerSuc = g.getMandSuccOrNeighOf(i);
-			if (envSuc.size() != kerSuc.size()) {
-				for (int j : envSuc) {
-					if (!kerSuc.contains(j)) {
-						pFrom.add(i);
-						pTo.add(j);
-					}
+			for (int j : g.getPotSuccOrNeighOf(i)) {
+				if (g.isDirected() || i <= j) {
+					pFrom[m] = i;
+					pTo[m] = j;
+					m++;
 				}
 			}
 		}
-		if (pFrom.isEmpty()) {
-			this.from = this.to = -1;
-			return false;
-		} else {
-			int idx = rd.nextInt(pFrom.size());
-			this.from = pFrom.get(idx);
-			this.to = pTo.get(idx);
-			return true;
+		size = g.getModel().getEnvironment().makeInt(m);
+		return true;
+	}
+
+	@Override
+	public boolean computeNextArc() {
+		if (size == null) {
+			init();
+		}
+		int s = size.get();
+		while (s > 0) {
+			int idx = rd.nextInt(s);
+			int i = pFrom[idx];
+			int j = pTo[idx];
+			if (g.getPotSuccOrNeighOf(i).contains(j) && !g.getMandSuccOrNeighOf(i).contains(j)) {
+				size.set(s);
+				this.from = i;
+				this.to = j;
+				return true;
+			}
+			// decided arc: swapped with the last candidate (the removal is undone on backtrack)
+			s--;
+			pFrom[idx] = pFrom[s];
+			pTo[idx] = pTo[s];
+			pFrom[s] = i;
+			pTo[s] = j;
 		}
+		size.set(0);
+		this.from = this.to = -1;
+		return false;
 	}
 }
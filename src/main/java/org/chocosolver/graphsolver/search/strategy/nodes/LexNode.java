@@ -28,20 +28,29 @@ package org.chocosolver.graphsolver.search.strategy.nodes;
 
 import org.chocosolver.graphsolver.search.strategy.NodeStrategy;
 import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.memory.IStateInt;
 
 public class LexNode extends NodeStrategy<GraphVar> {
 
+	private int n;
+	// every node lower than firstNode is decided (this remains true down the search tree)
+	private IStateInt firstNode;
+
 	public LexNode(GraphVar g) {
 		super(g);
+		n = g.getNbMaxNodes();
+		firstNode = g.getModel().getEnvironment().makeInt(0);
 	}
 
 	@Override
 	public int nextNode() {
-		for (int i : envNodes) {
-			if (!kerNodes.contains(i)) {
+		for (int i = firstNode.get(); i < n; i++) {
+			if (envNodes.contains(i) && !kerNodes.contains(i)) {
+				firstNode.set(i);
 				return i;
 			}
 		}
+		firstNode.set(n);
 		return -1;
 	}
 }
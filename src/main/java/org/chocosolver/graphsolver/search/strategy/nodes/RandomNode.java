@@ -28,34 +28,54 @@ package org.chocosolver.graphsolver.search.strategy.nodes;
 
 import org.chocosolver.graphsolver.search.strategy.NodeStrategy;
 import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.memory.IStateInt;
 
 import java.util.Random;
 
 public class RandomNode extends NodeStrategy<GraphVar> {
 
 	private Random rd;
+	// candidate nodes: the first 'size' ones are undecided or not checked yet (sparse set)
+	private int[] nodes;
+	private IStateInt size;
 
 	public RandomNode(GraphVar g, long seed) {
 		super(g);
 		this.rd = new Random(seed);
+	}
 
+	@Override
+	public boolean init() {
+		nodes = new int[envNodes.size()];
+		int m = 0;
+		for (int i : envNodes) {
+			if (!kerNodes.contains(i)) {
+				nodes[m++] = i;
+			}
+		}
+		size = g.getModel().getEnvironment().makeInt(m);
+		return true;
 	}
 
 	@Override
 	public int nextNode() {
-		int delta = envNodes.size() - kerNodes.size();
-		if (delta != 0) {
-			delta = rd.nextInt(delta);
-			for (int i : envNodes) {
-				if (!kerNodes.contains(i)) {
-					if (delta == 0) {
-						return i;
-					} else {
-						delta--;
-					}
-				}
+		if (size == null) {
+			init();
+		}
+		int s = size.get();
+		while (s > 0) {
+			int idx = rd.nextInt(s);
+			int i = nodes[idx];
+			if (envNodes.contains(i) && !kerNodes.contains(i)) {
+				size.set(s);
+				return i;
 			}
+			// decided node: swapped with the last candidate (the removal is undone on backtrack)
+			s--;
+			nodes[idx] = nodes[s];
+			nodes[s] = i;
 		}
+		size.set(0);
 		return -1;
 	}
 }
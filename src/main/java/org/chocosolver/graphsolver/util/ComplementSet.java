@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.util;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.ISetIterator;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.Arrays;
+
+/**
+ * Backtrackable subset of [0,n-1] that starts full and is stored as the complement of its removed elements.
+ * Nothing but a few fields is allocated until the first removal,
+ * the bitset of removed elements is then created once and restored on backtrack.
+ * An element can be excluded from the start (e.g. a loop), without allocating anything.
+ */
+class ComplementSet implements ISet {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final IEnvironment environment;
+	private final int n;
+	// element which never belongs to the set, -1 if there is none
+	private final int excluded;
+	// removed elements (null as long as nothing has been removed)
+	private long[] removed;
+	private int nbRemoved;
+	private ISetIterator iter;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates the backtrackable set {0, ..., n-1}
+	 *
+	 * @param environment backtracking environment
+	 * @param n           number of elements
+	 */
+	ComplementSet(IEnvironment environment, int n) {
+		this(environment, n, -1);
+	}
+
+	/**
+	 * Creates the backtrackable set {0, ..., n-1} \ {excluded}
+	 *
+	 * @param environment backtracking environment
+	 * @param n           number of elements
+	 * @param excluded    element which never belongs to the set (-1 for none)
+	 */
+	ComplementSet(IEnvironment environment, int n, int excluded) {
+		this.environment = environment;
+		this.n = n;
+		this.excluded = excluded;
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public boolean add(int element) {
+		if (element < 0 || element >= n || element == excluded || contains(element)) {
+			return false;
+		}
+		flip(element);
+		environment.save(() -> flip(element));
+		return true;
+	}
+
+	@Override
+	public boolean remove(int element) {
+		if (!contains(element)) {
+			return false;
+		}
+		if (removed == null) {
+			removed = new long[(n + 63) >>> 6];
+		}
+		flip(element);
+		environment.save(() -> flip(element));
+		return true;
+	}
+
+	private void flip(int element) {
+		long mask = 1L << element;
+		removed[element >>> 6] ^= mask;
+		nbRemoved += (removed[element >>> 6] & mask) != 0 ? 1 : -1;
+	}
+
+	@Override
+	public boolean contains(int element) {
+		return element >= 0 && element < n && element != excluded
+				&& (removed == null || (removed[element >>> 6] & (1L << element)) == 0);
+	}
+
+	@Override
+	public int size() {
+		return n - nbRemoved - (excluded == -1 ? 0 : 1);
+	}
+
+	@Override
+	public void clear() {
+		if (isEmpty()) {
+			return;
+		}
+		long[] old = removed == null ? null : removed.clone();
+		int oldNb = nbRemoved;
+		if (removed == null) {
+			removed = new long[(n + 63) >>> 6];
+		}
+		Arrays.fill(removed, -1L);
+		nbRemoved = n;
+		if (excluded != -1) {
+			// the excluded element is not counted as removed
+			removed[excluded >>> 6] ^= 1L << excluded;
+			nbRemoved--;
+		}
+		environment.save(() -> {
+			if (old == null) {
+				Arrays.fill(removed, 0L);
+			} else {
+				System.arraycopy(old, 0, removed, 0, old.length);
+			}
+			nbRemoved = oldNb;
+		});
+	}
+
+	@Override
+	public int min() {
+		if (isEmpty()) {
+			throw new IllegalStateException("cannot find minimum of an empty set");
+		}
+		return nextElement(0);
+	}
+
+	@Override
+	public int max() {
+		if (isEmpty()) {
+			throw new IllegalStateException("cannot find maximum of an empty set");
+		}
+		int i = n - 1;
+		while (!contains(i)) {
+			i--;
+		}
+		return i;
+	}
+
+	@Override
+	public SetType getSetType() {
+		return SetType.BITSET;
+	}
+
+	/**
+	 * @param from an element
+	 * @return the smallest element of the set that is greater or equal to from, or n if there is none
+	 */
+	int nextElement(int from) {
+		int next = nextNotRemoved(from);
+		return next == excluded ? nextNotRemoved(next + 1) : next;
+	}
+
+	private int nextNotRemoved(int from) {
+		if (from >= n) {
+			return n;
+		}
+		if (removed == null) {
+			return from;
+		}
+		int w = from >>> 6;
+		long word = ~removed[w] & (-1L << from);
+		while (word == 0) {
+			if (++w == removed.length) {
+				return n;
+			}
+			word = ~removed[w];
+		}
+		return Math.min(n, (w << 6) + Long.numberOfTrailingZeros(word));
+	}
+
+	@Override
+	public ISetIterator iterator() {
+		if (iter == null) {
+			iter = newIterator();
+		}
+		iter.reset();
+		return iter;
+	}
+
+	@Override
+	public ISetIterator newIterator() {
+		return new ISetIterator() {
+			private int current = -1;
+
+			@Override
+			public void reset() {
+				current = -1;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return nextElement(current + 1) < n;
+			}
+
+			@Override
+			public int nextInt() {
+				current = nextElement(current + 1);
+				return current;
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder st = new StringBuilder("{");
+		for (int i = nextElement(0); i < n; i = nextElement(i + 1)) {
+			if (st.length() > 1) {
+				st.append(", ");
+			}
+			st.append(i);
+		}
+		return st.append("}").toString();
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.util;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+/**
+ * Backtrackable directed graph which is initially complete (loops included, unless specified otherwise).
+ * Successor and predecessor sets are stored as the complement of their removed elements and are only
+ * allocated on their first removal, so that building the complete digraph takes O(n) time and memory.
+ * It is intended to be used as the upper bound of a graph variable.
+ */
+public class CompleteDirectedGraph extends DirectedGraph {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final int n;
+	private final ISet nodes;
+	private final ComplementSet[] successors, predecessors;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates the complete directed graph of n nodes
+	 *
+	 * @param model    model providing the backtracking environment
+	 * @param n        number of nodes
+	 * @param allNodes true iff nodes are fixed (cannot be removed)
+	 */
+	public CompleteDirectedGraph(Model model, int n, boolean allNodes) {
+		this(model, n, allNodes, true);
+	}
+
+	/**
+	 * Creates the complete directed graph of n nodes, possibly without loops
+	 *
+	 * @param model    model providing the backtracking environment
+	 * @param n        number of nodes
+	 * @param allNodes true iff nodes are fixed (cannot be removed)
+	 * @param loops    false iff loops are excluded (they can then never be added)
+	 */
+	public CompleteDirectedGraph(Model model, int n, boolean allNodes, boolean loops) {
+		// the (tiny) inherited storage is never used
+		super(1, SetType.LINKED_LIST, true);
+		IEnvironment environment = model.getEnvironment();
+		this.n = n;
+		this.nodes = allNodes ? SetFactory.makeConstantSet(0, n - 1) : new ComplementSet(environment, n);
+		this.successors = new ComplementSet[n];
+		this.predecessors = new ComplementSet[n];
+		for (int i = 0; i < n; i++) {
+			successors[i] = new ComplementSet(environment, n, loops ? -1 : i);
+			predecessors[i] = new ComplementSet(environment, n, loops ? -1 : i);
+		}
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public int getNbMaxNodes() {
+		return n;
+	}
+
+	@Override
+	public ISet getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public SetType getType() {
+		return SetType.BITSET;
+	}
+
+	@Override
+	public boolean addNode(int x) {
+		return !nodes.contains(x) && nodes.add(x);
+	}
+
+	@Override
+	public boolean removeNode(int x) {
+		if (nodes.remove(x)) {
+			for (int j : successors[x]) {
+				predecessors[j].remove(x);
+			}
+			successors[x].clear();
+			for (int j : predecessors[x]) {
+				successors[j].remove(x);
+			}
+			predecessors[x].clear();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean addArc(int x, int y) {
+		addNode(x);
+		addNode(y);
+		if (successors[x].add(y)) {
+			predecessors[y].add(x);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean arcExists(int x, int y) {
+		return successors[x].contains(y);
+	}
+
+	@Override
+	public boolean isArcOrEdge(int x, int y) {
+		return arcExists(x, y);
+	}
+
+	@Override
+	public boolean removeArc(int x, int y) {
+		if (successors[x].remove(y)) {
+			predecessors[y].remove(x);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public ISet getSuccOf(int x) {
+		return successors[x];
+	}
+
+	@Override
+	public ISet getSuccOrNeighOf(int x) {
+		return successors[x];
+	}
+
+	@Override
+	public ISet getPredOf(int x) {
+		return predecessors[x];
+	}
+
+	@Override
+	public ISet getPredOrNeighOf(int x) {
+		return predecessors[x];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("nodes : \n").append(nodes).append("\n");
+		sb.append("successors : \n");
+		for (int i : nodes) {
+			sb.append(i).append(" -> ").append(successors[i]).append("\n");
+		}
+		return sb.toString();
+	}
+}
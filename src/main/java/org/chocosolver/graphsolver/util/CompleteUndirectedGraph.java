@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.util;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Model;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+import org.chocosolver.util.objects.setDataStructures.SetFactory;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+/**
+ * Backtrackable undirected graph which is initially complete (loops included, unless specified otherwise).
+ * Each neighborhood is stored as the complement of its removed neighbors and is only
+ * allocated on its first removal, so that building K_n takes O(n) time and memory.
+ * It is intended to be used as the upper bound of a graph variable.
+ */
+public class CompleteUndirectedGraph extends UndirectedGraph {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final int n;
+	private final ISet nodes;
+	private final ComplementSet[] neighbors;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Creates the complete undirected graph of n nodes
+	 *
+	 * @param model    model providing the backtracking environment
+	 * @param n        number of nodes
+	 * @param allNodes true iff nodes are fixed (cannot be removed)
+	 */
+	public CompleteUndirectedGraph(Model model, int n, boolean allNodes) {
+		this(model, n, allNodes, true);
+	}
+
+	/**
+	 * Creates the complete undirected graph of n nodes, possibly without loops
+	 *
+	 * @param model    model providing the backtracking environment
+	 * @param n        number of nodes
+	 * @param allNodes true iff nodes are fixed (cannot be removed)
+	 * @param loops    false iff loops are excluded (they can then never be added)
+	 */
+	public CompleteUndirectedGraph(Model model, int n, boolean allNodes, boolean loops) {
+		// the (tiny) inherited storage is never used
+		super(1, SetType.LINKED_LIST, true);
+		IEnvironment environment = model.getEnvironment();
+		this.n = n;
+		this.nodes = allNodes ? SetFactory.makeConstantSet(0, n - 1) : new ComplementSet(environment, n);
+		this.neighbors = new ComplementSet[n];
+		for (int i = 0; i < n; i++) {
+			neighbors[i] = new ComplementSet(environment, n, loops ? -1 : i);
+		}
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public int getNbMaxNodes() {
+		return n;
+	}
+
+	@Override
+	public ISet getNodes() {
+		return nodes;
+	}
+
+	@Override
+	public SetType getType() {
+		return SetType.BITSET;
+	}
+
+	@Override
+	public boolean addNode(int x) {
+		return !nodes.contains(x) && nodes.add(x);
+	}
+
+	@Override
+	public boolean removeNode(int x) {
+		if (nodes.remove(x)) {
+			for (int j : neighbors[x]) {
+				if (j != x) {
+					neighbors[j].remove(x);
+				}
+			}
+			neighbors[x].clear();
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean addEdge(int x, int y) {
+		addNode(x);
+		addNode(y);
+		if (neighbors[x].add(y)) {
+			neighbors[y].add(x);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean edgeExists(int x, int y) {
+		return neighbors[x].contains(y);
+	}
+
+	@Override
+	public boolean isArcOrEdge(int x, int y) {
+		return edgeExists(x, y);
+	}
+
+	@Override
+	public boolean removeEdge(int x, int y) {
+		if (neighbors[x].remove(y)) {
+			neighbors[y].remove(x);
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public ISet getNeighOf(int x) {
+		return neighbors[x];
+	}
+
+	@Override
+	public ISet getPredOrNeighOf(int x) {
+		return neighbors[x];
+	}
+
+	@Override
+	public ISet getSuccOrNeighOf(int x) {
+		return neighbors[x];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("nodes : \n").append(nodes).append("\n");
+		sb.append("neighbors : \n");
+		for (int i : nodes) {
+			sb.append(i).append(" -> ").append(neighbors[i]).append("\n");
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.util;
+
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+import java.util.function.IntFunction;
+
+/**
+ * Multi-source BFS (Then et al., VLDB 2014): runs up to 64 BFS at once,
+ * with one bit per source in a long per node, so that each arc is scanned once per level for all sources.
+ * <p>
+ * Arrays are allocated once and only the reached nodes are cleared between two runs.
+ */
+public class MultiSourceBFS {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	/**
+	 * Maximum number of sources of a single run
+	 */
+	public static final int MAX_SOURCES = 64;
+
+	private int n;
+	// sources that reached each node so far, that reached it at the current level, and at the next one
+	private long[] seen, visit, next;
+	private int[] frontier, nextFrontier, touched;
+	private int nbTouched;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * @param n maximum number of nodes
+	 */
+	public MultiSourceBFS(int n) {
+		this.n = n;
+		seen = new long[n];
+		visit = new long[n];
+		next = new long[n];
+		frontier = new int[n];
+		nextFrontier = new int[n];
+		touched = new int[n];
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * Runs a BFS from each node of sources[from, from + count), source sources[from + i] being bit i
+	 *
+	 * @param sources   array of sources
+	 * @param from      index of the first source
+	 * @param count     number of sources, at most MAX_SOURCES
+	 * @param neighbors successors (or neighbors) of a node
+	 * @param visitor   called when nodes are reached and, in undirected graphs, when cycles are closed
+	 * @return the largest distance at which a node has been reached
+	 */
+	public int run(int[] sources, int from, int count, IntFunction<ISet> neighbors, Visitor visitor) {
+		assert count > 0 && count <= MAX_SOURCES;
+		for (int k = 0; k < nbTouched; k++) {
+			seen[touched[k]] = 0;
+		}
+		nbTouched = 0;
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			int s = sources[from + i];
+			if (seen[s] == 0) {
+				touched[nbTouched++] = s;
+				frontier[size++] = s;
+			}
+			seen[s] |= 1L << i;
+			visit[s] = seen[s];
+		}
+		for (int k = 0; k < size; k++) {
+			visitor.reached(frontier[k], visit[frontier[k]], 0);
+		}
+		int depth = 0;
+		while (size > 0 && visitor.expand(depth)) {
+			int nextSize = 0;
+			for (int k = 0; k < size; k++) {
+				int u = frontier[k];
+				long vu = visit[u];
+				for (int v : neighbors.apply(u)) {
+					// v is also at the current level for some sources: odd cycle
+					long odd = visit[v] & vu;
+					if (odd != 0) {
+						visitor.cycle(odd, 2 * depth + 1);
+					}
+					long fresh = vu & ~seen[v];
+					if (fresh != 0) {
+						// v is reached twice at the next level for some sources: even cycle
+						long even = next[v] & fresh;
+						if (even != 0) {
+							visitor.cycle(even, 2 * depth + 2);
+						}
+						if (next[v] == 0) {
+							nextFrontier[nextSize++] = v;
+						}
+						next[v] |= fresh;
+					}
+				}
+			}
+			for (int k = 0; k < size; k++) {
+				visit[frontier[k]] = 0;
+			}
+			depth++;
+			for (int k = 0; k < nextSize; k++) {
+				int v = nextFrontier[k];
+				if (seen[v] == 0) {
+					touched[nbTouched++] = v;
+				}
+				seen[v] |= next[v];
+				visit[v] = next[v];
+				next[v] = 0;
+				visitor.reached(v, visit[v], depth);
+			}
+			int[] tmp = frontier;
+			frontier = nextFrontier;
+			nextFrontier = tmp;
+			size = nextSize;
+		}
+		for (int k = 0; k < size; k++) {
+			visit[frontier[k]] = 0;
+		}
+		return size == 0 ? depth - 1 : depth;
+	}
+
+	/**
+	 * @param node a node
+	 * @return the sources of the last run that reached node (bit i for the i-th source)
+	 */
+	public long getSeen(int node) {
+		return seen[node];
+	}
+
+	/**
+	 * @param count a number of sources
+	 * @return the mask of all sources of a run with count sources
+	 */
+	public static long all(int count) {
+		return count == MAX_SOURCES ? -1L : (1L << count) - 1;
+	}
+
+	/**
+	 * Callbacks of a multi-source BFS
+	 */
+	public interface Visitor {
+
+		/**
+		 * Node has been reached for the first time by some sources
+		 *
+		 * @param node    a node
+		 * @param sources the sources that reached node (bit i for the i-th source)
+		 * @param depth   the distance between these sources and node
+		 */
+		void reached(int node, long sources, int depth);
+
+		/**
+		 * Only meaningful in undirected graphs: a closed walk of the given length, made of two shortest paths
+		 * from each of the given sources and one edge, has been found (it contains a cycle of at most this length)
+		 *
+		 * @param sources the sources of the walks (bit i for the i-th source)
+		 * @param length  length of the walks
+		 */
+		default void cycle(long sources, int length) {
+		}
+
+		/**
+		 * @param depth the current level
+		 * @return true iff the nodes at distance depth should be expanded
+		 */
+		default boolean expand(int depth) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.util.cost;
+
+import java.util.Arrays;
+
+/**
+ * Least recently used cache of cost rows, on top of costs computed on demand.
+ * When the cost of (i,j) is requested, the whole row i is computed and cached,
+ * as algorithms usually scan the neighbors of a node.
+ * Memory is O(nbRows * n) instead of O(n^2).
+ */
+public class CachedCost implements EdgeCost {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final EdgeCost costs;
+	private final int n;
+	private final int[][] rows;
+	// node of each cached row (-1 if free), slot of each node (-1 if not cached)
+	private final int[] nodeOfSlot, slotOfNode;
+	private final long[] lastUse;
+	private long time;
+	private int lastNode = -1, lastSlot;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * @param costs  costs to cache
+	 * @param nbRows maximal number of cached rows
+	 */
+	public CachedCost(EdgeCost costs, int nbRows) {
+		this.costs = costs;
+		this.n = costs.getNbNodes();
+		nbRows = Math.max(1, Math.min(nbRows, n));
+		this.rows = new int[nbRows][];
+		this.nodeOfSlot = new int[nbRows];
+		this.lastUse = new long[nbRows];
+		this.slotOfNode = new int[n];
+		Arrays.fill(nodeOfSlot, -1);
+		Arrays.fill(slotOfNode, -1);
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	@Override
+	public int getNbNodes() {
+		return n;
+	}
+
+	@Override
+	public int getCost(int i, int j) {
+		if (i != lastNode) {
+			lastSlot = slotOfNode[i] == -1 ? load(i) : slotOfNode[i];
+			lastNode = i;
+		}
+		lastUse[lastSlot] = ++time;
+		return rows[lastSlot][j];
+	}
+
+	private int load(int i) {
+		int slot = 0;
+		for (int s = 1; s < rows.length; s++) {
+			if (lastUse[s] < lastUse[slot]) {
+				slot = s;
+			}
+		}
+		if (nodeOfSlot[slot] != -1) {
+			slotOfNode[nodeOfSlot[slot]] = -1;
+		}
+		if (rows[slot] == null) {
+			rows[slot] = new int[n];
+		}
+		int[] row = rows[slot];
+		for (int j = 0; j < n; j++) {
+			row[j] = costs.getCost(i, j);
+		}
+		nodeOfSlot[slot] = i;
+		slotOfNode[i] = slot;
+		return slot;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.util.cost;
+
+/**
+ * Cost of arcs (edges) between nodes [0, n-1].
+ * Implementations may compute costs on demand (e.g. from coordinates),
+ * so that large instances do not require an n*n matrix.
+ */
+public interface EdgeCost {
+
+	/**
+	 * @return the number of nodes n
+	 */
+	int getNbNodes();
+
+	/**
+	 * @param i a node in [0, n-1]
+	 * @param j a node in [0, n-1]
+	 * @return the cost of arc (i,j)
+	 */
+	int getCost(int i, int j);
+
+	/**
+	 * Materializes costs in a matrix, for algorithms that need O(1) random access to all costs.
+	 *
+	 * @return the n*n cost matrix
+	 */
+	default int[][] toMatrix() {
+		int n = getNbNodes();
+		int[][] m = new int[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				m[i][j] = getCost(i, j);
+			}
+		}
+		return m;
+	}
+
+	/**
+	 * @param matrix a cost matrix
+	 * @return costs backed by matrix
+	 */
+	static EdgeCost of(int[][] matrix) {
+		return new MatrixCost(matrix);
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.util.cost;
+
+/**
+ * Euclidean distances between points of the plane, computed on demand,
+ * rounded following TSPLIB conventions.
+ */
+public class EuclideanCost implements EdgeCost {
+
+	/**
+	 * Rounding of distances
+	 */
+	public enum Rounding {
+		/** nearest integer (TSPLIB EUC_2D) */
+		NEAREST,
+		/** upper integer (TSPLIB CEIL_2D) */
+		CEIL,
+		/** pseudo-Euclidean distance (TSPLIB ATT) */
+		ATT
+	}
+
+	private final double[] x, y;
+	private final Rounding rounding;
+
+	/**
+	 * Euclidean distances rounded to the nearest integer
+	 *
+	 * @param x abscissas
+	 * @param y ordinates
+	 */
+	public EuclideanCost(double[] x, double[] y) {
+		this(x, y, Rounding.NEAREST);
+	}
+
+	/**
+	 * @param x        abscissas
+	 * @param y        ordinates
+	 * @param rounding rounding of distances
+	 */
+	public EuclideanCost(double[] x, double[] y, Rounding rounding) {
+		if (x.length != y.length) {
+			throw new IllegalArgumentException("x and y should have the same length");
+		}
+		this.x = x;
+		this.y = y;
+		this.rounding = rounding;
+	}
+
+	@Override
+	public int getNbNodes() {
+		return x.length;
+	}
+
+	@Override
+	public int getCost(int i, int j) {
+		double xd = x[i] - x[j];
+		double yd = y[i] - y[j];
+		switch (rounding) {
+			case NEAREST:
+				return (int) Math.round(Math.sqrt(xd * xd + yd * yd));
+			case CEIL:
+				return (int) Math.ceil(Math.sqrt(xd * xd + yd * yd));
+			default:
+				double rt = Math.sqrt((xd * xd + yd * yd) / 10);
+				int it = (int) Math.round(rt);
+				return it < rt ? it + 1 : it;
+		}
+	}
+}
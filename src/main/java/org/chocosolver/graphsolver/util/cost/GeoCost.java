@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.util.cost;
+
+/**
+ * Geographical distances (in km) between points of the earth, computed on demand (TSPLIB GEO convention).
+ */
+public class GeoCost implements EdgeCost {
+
+	private static final double RRR = 6378.388;
+
+	// in radians
+	private final double[] latitudes, longitudes;
+
+	/**
+	 * @param latitudes  latitudes, in DDD.MM format (degrees and minutes)
+	 * @param longitudes longitudes, in DDD.MM format (degrees and minutes)
+	 */
+	public GeoCost(double[] latitudes, double[] longitudes) {
+		if (latitudes.length != longitudes.length) {
+			throw new IllegalArgumentException("latitudes and longitudes should have the same length");
+		}
+		int n = latitudes.length;
+		this.latitudes = new double[n];
+		this.longitudes = new double[n];
+		for (int i = 0; i < n; i++) {
+			this.latitudes[i] = toRadians(latitudes[i]);
+			this.longitudes[i] = toRadians(longitudes[i]);
+		}
+	}
+
+	@Override
+	public int getNbNodes() {
+		return latitudes.length;
+	}
+
+	@Override
+	public int getCost(int i, int j) {
+		if (i == j) {
+			return 0;
+		}
+		double q1 = Math.cos(longitudes[i] - longitudes[j]);
+		double q2 = Math.cos(latitudes[i] - latitudes[j]);
+		double q3 = Math.cos(latitudes[i] + latitudes[j]);
+		return (int) (RRR * Math.acos(((1 + q1) * q2 - (1 - q1) * q3) / 2) + 1);
+	}
+
+	private static double toRadians(double v) {
+		int deg = (int) v;
+		double min = v - deg;
+		return 3.141592 * (deg + (5.0 * min) / 3.0) / 180.0;
+	}
+}
@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.graphsolver.variables;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.delta.IEnumDelta;
+import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
+import org.chocosolver.solver.variables.delta.NoDelta;
+import org.chocosolver.solver.variables.delta.OneValueDelta;
+import org.chocosolver.solver.variables.delta.monitor.OneValueDeltaMonitor;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.impl.AbstractVariable;
+import org.chocosolver.solver.variables.impl.scheduler.BoolEvtScheduler;
+import org.chocosolver.solver.variables.impl.siglit.SignedLiteral;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.iterators.DisposableRangeBoundIterator;
+import org.chocosolver.util.iterators.DisposableRangeIterator;
+import org.chocosolver.util.iterators.DisposableValueBoundIterator;
+import org.chocosolver.util.iterators.DisposableValueIterator;
+import org.chocosolver.util.iterators.EvtScheduler;
+import org.chocosolver.util.iterators.IntVarValueIterator;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableRangeSet;
+import org.chocosolver.util.objects.setDataStructures.iterable.IntIterableSet;
+
+import java.util.Iterator;
+
+/**
+ * Boolean view over the state of an arc (edge) of a graph variable:
+ * the domain of the view is read from the graph bounds, so it has no storage of its own,
+ * and instantiating the view enforces or removes the arc.
+ * <p>
+ * Views are created through {@link GraphVar#arcView(int, int)}, which notifies them when their arc is decided.
+ */
+public class ArcBoolView extends AbstractVariable implements BoolVar {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private GraphVar graph;
+	private int from, to;
+	private IEnumDelta delta = NoDelta.singleton;
+	private boolean reactOnRemoval;
+	private BoolVar not;
+	private boolean isNot;
+	private DisposableValueIterator _viterator;
+	private DisposableRangeIterator _riterator;
+	private IntVarValueIterator _javaIterator;
+	private SignedLiteral.Boolean literal;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	ArcBoolView(GraphVar graph, int from, int to) {
+		super(graph.getName() + "(" + from + "," + to + ")", graph.getModel());
+		this.graph = graph;
+		this.from = from;
+		this.to = to;
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * Called by the graph variable once the arc has been enforced or removed
+	 *
+	 * @param removed the value removed from the view
+	 */
+	void notifyArc(int removed, ICause cause) throws ContradictionException {
+		if (reactOnRemoval) {
+			delta.add(removed, cause);
+		}
+		notifyPropagators(IntEventType.INSTANTIATE, cause);
+	}
+
+	public GraphVar getGraphVar() {
+		return graph;
+	}
+
+	public int getFrom() {
+		return from;
+	}
+
+	public int getTo() {
+		return to;
+	}
+
+	@Override
+	public int getLB() {
+		return graph.getMandSuccOrNeighOf(from).contains(to) ? 1 : 0;
+	}
+
+	@Override
+	public int getUB() {
+		return graph.getPotSuccOrNeighOf(from).contains(to) ? 1 : 0;
+	}
+
+	@Override
+	public boolean isInstantiated() {
+		return getLB() == getUB();
+	}
+
+	@Override
+	public boolean isInstantiatedTo(int value) {
+		return isInstantiated() && getLB() == value;
+	}
+
+	@Override
+	public boolean contains(int value) {
+		return getLB() <= value && value <= getUB();
+	}
+
+	@Override
+	public int getValue() {
+		assert isInstantiated() : getName() + " not instantiated";
+		return getLB();
+	}
+
+	@Override
+	public ESat getBooleanValue() {
+		return isInstantiated() ? ESat.eval(getLB() == 1) : ESat.UNDEFINED;
+	}
+
+	@Override
+	public int getDomainSize() {
+		return getUB() - getLB() + 1;
+	}
+
+	@Override
+	public int getRange() {
+		return getDomainSize();
+	}
+
+	@Override
+	public int nextValue(int v) {
+		int lb = getLB();
+		if (v < lb) {
+			return lb;
+		}
+		int ub = getUB();
+		return v < ub ? ub : Integer.MAX_VALUE;
+	}
+
+	@Override
+	public int nextValueOut(int v) {
+		int lb = getLB();
+		int ub = getUB();
+		return lb <= v + 1 && v + 1 <= ub ? ub + 1 : v + 1;
+	}
+
+	@Override
+	public int previousValue(int v) {
+		int ub = getUB();
+		if (v > ub) {
+			return ub;
+		}
+		int lb = getLB();
+		return v > lb ? lb : Integer.MIN_VALUE;
+	}
+
+	@Override
+	public int previousValueOut(int v) {
+		int lb = getLB();
+		int ub = getUB();
+		return lb <= v - 1 && v - 1 <= ub ? lb - 1 : v - 1;
+	}
+
+	@Override
+	public boolean hasEnumeratedDomain() {
+		return true;
+	}
+
+	//***********************************************************************************
+	// MODIFIERS
+	//***********************************************************************************
+
+	@Override
+	public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
+		assert cause != null;
+		if (!contains(value)) {
+			contradiction(cause, MSG_INST);
+		}
+		if (isInstantiated()) {
+			return false;
+		}
+		// the graph notifies this view
+		if (value == 1) {
+			graph.enforceArc(from, to, cause);
+		} else {
+			graph.removeArc(from, to, cause);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean setToTrue(ICause cause) throws ContradictionException {
+		return instantiateTo(1, cause);
+	}
+
+	@Override
+	public boolean setToFalse(ICause cause) throws ContradictionException {
+		return instantiateTo(0, cause);
+	}
+
+	@Override
+	public boolean removeValue(int value, ICause cause) throws ContradictionException {
+		if (!contains(value)) {
+			return false;
+		}
+		return instantiateTo(1 - value, cause);
+	}
+
+	@Override
+	public boolean removeValues(IntIterableSet values, ICause cause) throws ContradictionException {
+		boolean r0 = values.contains(0) && contains(0);
+		boolean r1 = values.contains(1) && contains(1);
+		if (r0 && r1) {
+			contradiction(cause, MSG_EMPTY);
+		}
+		return r0 ? instantiateTo(1, cause) : r1 && instantiateTo(0, cause);
+	}
+
+	@Override
+	public boolean removeAllValuesBut(IntIterableSet values, ICause cause) throws ContradictionException {
+		boolean k0 = values.contains(0) && contains(0);
+		boolean k1 = values.contains(1) && contains(1);
+		if (!k0 && !k1) {
+			contradiction(cause, MSG_EMPTY);
+		}
+		return !k0 ? instantiateTo(1, cause) : !k1 && instantiateTo(0, cause);
+	}
+
+	@Override
+	public boolean removeInterval(int from, int to, ICause cause) throws ContradictionException {
+		if (from <= getLB()) {
+			return updateLowerBound(to + 1, cause);
+		} else if (getUB() <= to) {
+			return updateUpperBound(from - 1, cause);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
+		if (value > getUB()) {
+			contradiction(cause, MSG_EMPTY);
+		}
+		return value > getLB() && instantiateTo(1, cause);
+	}
+
+	@Override
+	public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
+		if (value < getLB()) {
+			contradiction(cause, MSG_EMPTY);
+		}
+		return value < getUB() && instantiateTo(0, cause);
+	}
+
+	@Override
+	public boolean updateBounds(int lb, int ub, ICause cause) throws ContradictionException {
+		if (lb > ub) {
+			contradiction(cause, MSG_EMPTY);
+		}
+		boolean hasChanged = updateLowerBound(lb, cause);
+		return updateUpperBound(ub, cause) || hasChanged;
+	}
+
+	//***********************************************************************************
+	// VARIABLE STUFF
+	//***********************************************************************************
+
+	@Override
+	public IEnumDelta getDelta() {
+		return delta;
+	}
+
+	@Override
+	public void createDelta() {
+		if (!reactOnRemoval) {
+			delta = new OneValueDelta(model.getEnvironment());
+			reactOnRemoval = true;
+		}
+	}
+
+	@Override
+	public IIntDeltaMonitor monitorDelta(ICause propagator) {
+		createDelta();
+		return new OneValueDeltaMonitor(delta, propagator);
+	}
+
+	@Override
+	public int getTypeAndKind() {
+		return VAR | BOOL;
+	}
+
+	@Override
+	protected EvtScheduler createScheduler() {
+		return new BoolEvtScheduler();
+	}
+
+	@Override
+	public DisposableValueIterator getValueIterator(boolean bottomUp) {
+		if (_viterator == null || _viterator.isNotReusable()) {
+			_viterator = new DisposableValueBoundIterator(this);
+		}
+		if (bottomUp) {
+			_viterator.bottomUpInit();
+		} else {
+			_viterator.topDownInit();
+		}
+		return _viterator;
+	}
+
+	@Override
+	public DisposableRangeIterator getRangeIterator(boolean bottomUp) {
+		if (_riterator == null || _riterator.isNotReusable()) {
+			_riterator = new DisposableRangeBoundIterator(this);
+		}
+		if (bottomUp) {
+			_riterator.bottomUpInit();
+		} else {
+			_riterator.topDownInit();
+		}
+		return _riterator;
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		if (_javaIterator == null) {
+			_javaIterator = new IntVarValueIterator(this);
+		}
+		_javaIterator.reset();
+		return _javaIterator;
+	}
+
+	@Override
+	public void _setNot(BoolVar not) {
+		this.not = not;
+	}
+
+	@Override
+	public BoolVar not() {
+		if (!hasNot()) {
+			not = model.boolNotView(this);
+			not._setNot(this);
+		}
+		return not;
+	}
+
+	@Override
+	public boolean hasNot() {
+		return not != null;
+	}
+
+	@Override
+	public boolean isLit() {
+		return true;
+	}
+
+	@Override
+	public boolean isNot() {
+		return isNot;
+	}
+
+	@Override
+	public void setNot(boolean isNot) {
+		this.isNot = isNot;
+	}
+
+	@Override
+	public void createLit(IntIterableRangeSet rootDomain) {
+		if (literal != null) {
+			throw new IllegalStateException("createLit(Implications) called twice");
+		}
+		literal = new SignedLiteral.Boolean();
+	}
+
+	@Override
+	public SignedLiteral getLit() {
+		if (literal == null) {
+			throw new NullPointerException("getLit() called on null, a call to createLit(Implications) is required");
+		}
+		return literal;
+	}
+
+	@Override
+	public String toString() {
+		if (isInstantiated()) {
+			return getName() + " = " + getValue();
+		}
+		return getName() + " = [0,1]";
+	}
+}
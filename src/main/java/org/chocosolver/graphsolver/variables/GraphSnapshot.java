@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.graphsolver.variables;
+
+import org.chocosolver.util.objects.graphs.IGraph;
+import org.chocosolver.util.objects.setDataStructures.ISet;
+
+import java.util.Arrays;
+
+/**
+ * Immutable and compact copy of a graph, used to store solutions of graph variables.
+ * Nodes are stored in a bitset and arcs in compressed sparse rows (sorted successors or neighbors of each node),
+ * so the memory is O(n/64 + n + m) instead of O(n^2) for an adjacency matrix.
+ * In the undirected case, each edge appears in the rows of both endpoints.
+ */
+public class GraphSnapshot {
+
+	//***********************************************************************************
+	// VARIABLES
+	//***********************************************************************************
+
+	private final int n;
+	private final boolean directed;
+	private final long[] nodes;
+	private final int nbNodes;
+	// successors (or neighbors) of node i are heads[offsets[i]], ..., heads[offsets[i+1]-1]
+	private final int[] offsets, heads;
+
+	//***********************************************************************************
+	// CONSTRUCTORS
+	//***********************************************************************************
+
+	/**
+	 * Copies the nodes and arcs of graph
+	 *
+	 * @param graph    a graph
+	 * @param directed true iff graph is directed
+	 */
+	public GraphSnapshot(IGraph graph, boolean directed) {
+		this.n = graph.getNbMaxNodes();
+		this.directed = directed;
+		this.nodes = new long[(n + 63) >> 6];
+		this.offsets = new int[n + 1];
+		ISet nodeSet = graph.getNodes();
+		int m = 0;
+		for (int i : nodeSet) {
+			nodes[i >> 6] |= 1L << i;
+			m += graph.getSuccOrNeighOf(i).size();
+		}
+		this.nbNodes = nodeSet.size();
+		this.heads = new int[m];
+		for (int i = 0; i < n; i++) {
+			int k = offsets[i];
+			if (containsNode(i)) {
+				for (int j : graph.getSuccOrNeighOf(i)) {
+					heads[k++] = j;
+				}
+				Arrays.sort(heads, offsets[i], k);
+			}
+			offsets[i + 1] = k;
+		}
+	}
+
+	//***********************************************************************************
+	// METHODS
+	//***********************************************************************************
+
+	/**
+	 * @return the maximal number of nodes of the graph
+	 */
+	public int getNbMaxNodes() {
+		return n;
+	}
+
+	/**
+	 * @return true iff the graph is directed
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * @return the number of nodes of the graph
+	 */
+	public int getNbNodes() {
+		return nbNodes;
+	}
+
+	/**
+	 * @return the number of arcs of the graph (twice the number of edges in the undirected case, loops excepted)
+	 */
+	public int getNbArcs() {
+		return heads.length;
+	}
+
+	/**
+	 * @param i a node index
+	 * @return true iff i belongs to the graph
+	 */
+	public boolean containsNode(int i) {
+		return (nodes[i >> 6] & (1L << i)) != 0;
+	}
+
+	/**
+	 * @param i a node index
+	 * @param j a node index
+	 * @return true iff (i,j) belongs to the graph
+	 */
+	public boolean containsArc(int i, int j) {
+		return Arrays.binarySearch(heads, offsets[i], offsets[i + 1], j) >= 0;
+	}
+
+	/**
+	 * @param i a node index
+	 * @return the number of successors (or neighbors) of i
+	 */
+	public int getDegree(int i) {
+		return offsets[i + 1] - offsets[i];
+	}
+
+	/**
+	 * @param i a node index
+	 * @param k an index in [0, getDegree(i)-1]
+	 * @return the k-th successor (or neighbor) of i, by increasing index
+	 */
+	public int getSuccOrNeigh(int i, int k) {
+		return heads[offsets[i] + k];
+	}
+
+	/**
+	 * @return the next node of the graph after i (included), -1 if there is none
+	 */
+	public int nextNode(int i) {
+		int w = i >> 6;
+		if (w >= nodes.length) {
+			return -1;
+		}
+		long word = nodes[w] & (-1L << i);
+		while (true) {
+			if (word != 0) {
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++w == nodes.length) {
+				return -1;
+			}
+			word = nodes[w];
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof GraphSnapshot)) {
+			return false;
+		}
+		GraphSnapshot s = (GraphSnapshot) o;
+		return n == s.n && directed == s.directed && Arrays.equals(nodes, s.nodes)
+				&& Arrays.equals(offsets, s.offsets) && Arrays.equals(heads, s.heads);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(nodes) + Arrays.hashCode(heads);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		String arc = directed ? "->" : "-";
+		for (int i = nextNode(0); i != -1; i = nextNode(i + 1)) {
+			sb.append(i).append(": {");
+			for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+				if (directed || i <= heads[k]) {
+					sb.append(' ').append(i).append(arc).append(heads[k]);
+				}
+			}
+			sb.append(" }\n");
+		}
+		return sb.toString();
+	}
+}
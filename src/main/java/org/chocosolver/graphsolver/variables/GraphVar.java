@@ -27,12 +27,15 @@
 
 package org.chocosolver.graphsolver.variables;
 
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.cstrs.GraphStatistics;
 import org.chocosolver.graphsolver.variables.delta.GraphDelta;
 import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
 import org.chocosolver.graphsolver.variables.impl.GraphEvtScheduler;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.impl.AbstractVariable;
@@ -40,8 +43,6 @@ import org.chocosolver.util.iterators.EvtScheduler;
 import org.chocosolver.util.objects.graphs.IGraph;
 import org.chocosolver.util.objects.setDataStructures.ISet;
 
-import java.lang.reflect.Field;
-
 public abstract class GraphVar<E extends IGraph> extends AbstractVariable implements Variable {
 
 	public static final int GRAPH = 1 << 7; // beware, this relies on choco-solver
@@ -56,6 +57,10 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 	protected int n;
 	///////////// Attributes related to Variable ////////////
 	protected boolean reactOnModification;
+	// filtering statistics, null if not recorded
+	protected GraphStatistics statistics;
+	// boolean views over arcs, created on demand
+	private ArcBoolView[][] arcViews;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
@@ -72,14 +77,8 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 		this.UB = UB;
 		this.n = UB.getNbMaxNodes();
 		assert n == LB.getNbMaxNodes();
-		Field f = null; //NoSuchFieldException
-		try {
-			AbstractVariable me = this;
-			f = me.getClass().getSuperclass().getSuperclass().getDeclaredField("scheduler");
-			f.setAccessible(true);
-			f.set(me, new GraphEvtScheduler());
-		} catch (NoSuchFieldException | IllegalAccessException e) {
-			e.printStackTrace();
+		if (solver instanceof GraphModel) {
+			statistics = ((GraphModel) solver).getGraphStatistics();
 		}
 	}
 
@@ -280,6 +279,45 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 	public abstract boolean isDirected();
 
 
+	/**
+	 * Get a boolean view over arc (from,to): the view is instantiated to 1 (resp. 0) when the arc is
+	 * enforced (resp. removed), and instantiating the view modifies the graph accordingly.
+	 * Views are cached, and the view of an undirected graph does not depend on the edge orientation.
+	 *
+	 * @param from index of a potential vertex
+	 * @param to   index of a potential vertex
+	 * @return a boolean view over arc (from,to)
+	 */
+	public BoolVar arcView(int from, int to) {
+		if (arcViews == null) {
+			arcViews = new ArcBoolView[n][];
+		}
+		if (arcViews[from] == null) {
+			arcViews[from] = new ArcBoolView[n];
+		}
+		if (arcViews[from][to] == null) {
+			arcViews[from][to] = new ArcBoolView(this, from, to);
+			if (!isDirected()) {
+				if (arcViews[to] == null) {
+					arcViews[to] = new ArcBoolView[n];
+				}
+				arcViews[to][from] = arcViews[from][to];
+			}
+		}
+		return arcViews[from][to];
+	}
+
+	/**
+	 * Notifies the view over arc (x,y), if any, that the arc has been enforced or removed
+	 *
+	 * @param removed the value removed from the view (0 if the arc has been enforced, 1 if it has been removed)
+	 */
+	protected void notifyArcView(int x, int y, int removed, ICause cause) throws ContradictionException {
+		if (arcViews != null && arcViews[x] != null && arcViews[x][y] != null) {
+			arcViews[x][y].notifyArc(removed, cause);
+		}
+	}
+
 	//***********************************************************************************
 	// VARIABLE STUFF
 	//***********************************************************************************
@@ -316,7 +354,28 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 		if (!reactOnModification) {
 			reactOnModification = true;
 			delta = new GraphDelta(getEnvironment());
+			delta.setStatistics(statistics);
+		}
+	}
+
+	/**
+	 * Records the filtering performed on this variable into statistics
+	 *
+	 * @param statistics filtering statistics (null to stop recording)
+	 */
+	public void setStatistics(GraphStatistics statistics) {
+		this.statistics = statistics;
+		if (delta != null) {
+			delta.setStatistics(statistics);
+		}
+	}
+
+	@Override
+	public void notifyPropagators(IEventType event, ICause cause) throws ContradictionException {
+		if (statistics != null) {
+			statistics.onFiltering(cause, event);
 		}
+		super.notifyPropagators(event, cause);
 	}
 
 	/**
@@ -330,6 +389,23 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 		return new GraphDeltaMonitor(delta, propagator);
 	}
 
+	/**
+	 * Make the propagator 'prop' have an incremental filtering w.r.t. this graph variable,
+	 * for the given event types only: other modifications are not recorded unless another monitor needs them.
+	 *
+	 * @param propagator A propagator involving this graph variable
+	 * @param events     event types read by the propagator
+	 * @return A new instance of GraphDeltaMonitor to make incremental propagators
+	 */
+	public GraphDeltaMonitor monitorDelta(ICause propagator, GraphEventType... events) {
+		createDelta();
+		int mask = 0;
+		for (GraphEventType e : events) {
+			mask |= e.getMask();
+		}
+		return new GraphDeltaMonitor(delta, propagator, mask);
+	}
+
 	@Override
 	protected EvtScheduler createScheduler() {
 		return new GraphEvtScheduler();
@@ -350,7 +426,9 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 	 * @return the value of the graph variable represented through an adjacency matrix
 	 * plus a set of nodes (last row of the matrix).
 	 * This method is not supposed to be used except for restoring solutions.
+	 * @deprecated O(n^2) memory, use {@link #getSnapshot()} instead
 	 */
+	@Deprecated
 	public boolean[][] getValue() {
 		int n = getUB().getNbMaxNodes();
 		boolean[][] vals = new boolean[n + 1][n];
@@ -371,7 +449,9 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 	 * @param value value of <code>this</code>
 	 * @param cause
 	 * @throws ContradictionException if the arc was mandatory
+	 * @deprecated O(n^2) time, use {@link #instantiateTo(GraphSnapshot, ICause)} instead
 	 */
+	@Deprecated
 	public void instantiateTo(boolean[][] value, ICause cause) throws ContradictionException {
 		int n = value.length - 1;
 		for (int i = 0; i < n; i++) {
@@ -390,6 +470,54 @@ public abstract class GraphVar<E extends IGraph> extends AbstractVariable implem
 		}
 	}
 
+	/**
+	 * @return a compact copy of the lower bound of the graph variable
+	 * (i.e. its value if it is instantiated), to store solutions.
+	 */
+	public GraphSnapshot getSnapshot() {
+		return new GraphSnapshot(LB, isDirected());
+	}
+
+	/**
+	 * Instantiates <code>this</code> to value, typically to restore a solution.
+	 * Runs in O(|UB| log(max degree)): only potential nodes and arcs are visited.
+	 *
+	 * @param value a graph stored with {@link #getSnapshot()}
+	 * @param cause algorithm which is related to the instantiation
+	 * @throws ContradictionException if value is not in the domain
+	 */
+	public void instantiateTo(GraphSnapshot value, ICause cause) throws ContradictionException {
+		assert value.getNbMaxNodes() == n && value.isDirected() == isDirected();
+		int[] buffer = getPotentialNodes().toArray();
+		for (int i : buffer) {
+			if (!value.containsNode(i)) {
+				removeNode(i, cause);
+			}
+		}
+		for (int i = value.nextNode(0); i != -1; i = value.nextNode(i + 1)) {
+			enforceNode(i, cause);
+			int d = value.getDegree(i);
+			for (int k = 0; k < d; k++) {
+				enforceArc(i, value.getSuccOrNeigh(i, k), cause);
+			}
+			ISet pot = UB.getSuccOrNeighOf(i);
+			if (pot.size() > d) {
+				if (buffer.length < pot.size()) {
+					buffer = new int[n];
+				}
+				int size = 0;
+				for (int j : pot) {
+					if (!value.containsArc(i, j)) {
+						buffer[size++] = j;
+					}
+				}
+				for (int k = 0; k < size; k++) {
+					removeArc(i, buffer[k], cause);
+				}
+			}
+		}
+	}
+
 	//***********************************************************************************
 	// GraphViz
 	//***********************************************************************************
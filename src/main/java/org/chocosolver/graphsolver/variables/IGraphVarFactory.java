@@ -1,6 +1,8 @@
 package org.chocosolver.graphsolver.variables;
 
 import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.util.CompleteDirectedGraph;
+import org.chocosolver.graphsolver.util.CompleteUndirectedGraph;
 import org.chocosolver.solver.Model;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
@@ -41,15 +43,7 @@ public interface IGraphVarFactory {
 	 */
 	default UndirectedGraphVar graphVar(String name, int n, boolean allNodes) {
 		UndirectedGraph lb = new UndirectedGraph(_me(), n, SetType.BITSET, allNodes);
-		UndirectedGraph ub = new UndirectedGraph(_me(), n, SetType.BITSET, allNodes);
-		for (int i = 0; i < n; i++) {
-			if (!allNodes) {
-				ub.addNode(i);
-			}
-			for (int j = i; j < n; j++) {
-				ub.addEdge(i, j);
-			}
-		}
+		UndirectedGraph ub = new CompleteUndirectedGraph(_me(), n, allNodes);
 		return graphVar(name, lb, ub);
 	}
 
@@ -89,15 +83,7 @@ public interface IGraphVarFactory {
 	 */
 	default DirectedGraphVar digraphVar(String name, int n, boolean allNodes) {
 		DirectedGraph lb = new DirectedGraph(_me(), n, SetType.BITSET, allNodes);
-		DirectedGraph ub = new DirectedGraph(_me(), n, SetType.BITSET, allNodes);
-		for (int i = 0; i < n; i++) {
-			if (!allNodes) {
-				ub.addNode(i);
-			}
-			for (int j = 0; j < n; j++) {
-				ub.addArc(i, j);
-			}
-		}
+		DirectedGraph ub = new CompleteDirectedGraph(_me(), n, allNodes);
 		return digraphVar(name, lb, ub);
 	}
 
@@ -405,6 +391,25 @@ public interface IGraphVarFactory {
 		return successors;
 	}
 
+	/**
+	 * Creates a matrix of boolean views representing the adjacency matrix of g
+	 * BoolVar[i][j] = 1 <=> (i,j) in g
+	 * Unlike adjacencyMatrix, views read the graph domain directly: no channeling constraint is needed
+	 *
+	 * @param g a graph variable
+	 * @return a matrix of boolean views over the arcs of g
+	 */
+	default BoolVar[][] adjacencyView(GraphVar g) {
+		int n = g.getNbMaxNodes();
+		BoolVar[][] arcs = new BoolVar[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				arcs[i][j] = g.arcView(i, j);
+			}
+		}
+		return arcs;
+	}
+
 	/**
 	 * Creates a set variable representing the successors of 'node' in g
 	 * int j in SetVar <=> (node,j) in g
@@ -72,6 +72,7 @@ public class UndirectedGraphVar extends GraphVar<UndirectedGraph> {
 			}
 			GraphEventType e = GraphEventType.REMOVE_ARC;
 			notifyPropagators(e, cause);
+			notifyArcView(x, y, 1, cause);
 			return true;
 		}
 		return false;
@@ -90,6 +91,7 @@ public class UndirectedGraphVar extends GraphVar<UndirectedGraph> {
 				}
 				GraphEventType e = GraphEventType.ADD_ARC;
 				notifyPropagators(e, cause);
+				notifyArcView(x, y, 0, cause);
 				return true;
 			}
 			return false;
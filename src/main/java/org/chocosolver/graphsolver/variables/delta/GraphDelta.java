@@ -27,6 +27,8 @@
 
 package org.chocosolver.graphsolver.variables.delta;
 
+import org.chocosolver.graphsolver.cstrs.GraphStatistics;
+import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.search.loop.TimeStampedObject;
@@ -49,37 +51,90 @@ public class GraphDelta extends TimeStampedObject implements IDelta {
 	// VARIABLES
 	//***********************************************************************************
 
+	// null until some monitor listens to the corresponding event type
 	private IEnumDelta[] deltaOfType;
+	// statistics of the variable, null if not recorded
+	private GraphStatistics statistics;
 
 	//***********************************************************************************
 	// CONSTRUCTORS
 	//***********************************************************************************
 
+	/**
+	 * Creates a delta which records nothing until {@link #subscribe(int)} is called
+	 *
+	 * @param environment backtracking environment
+	 */
 	public GraphDelta(IEnvironment environment) {
 		super(environment);
 		deltaOfType = new IEnumDelta[NB];
-		for (int i = 0; i < NB; i++) {
-			deltaOfType[i] = new EnumDelta(environment);
-		}
 	}
 
 	//***********************************************************************************
 	// METHODS
 	//***********************************************************************************
 
+	/**
+	 * Starts recording the given event types
+	 *
+	 * @param mask a mask of {@link GraphEventType}
+	 */
+	public void subscribe(int mask) {
+		if (GraphEventType.isRemNode(mask)) {
+			record(NR);
+		}
+		if (GraphEventType.isAddNode(mask)) {
+			record(NE);
+		}
+		if (GraphEventType.isRemArc(mask)) {
+			record(AR_TAIL);
+			record(AR_HEAD);
+		}
+		if (GraphEventType.isAddArc(mask)) {
+			record(AE_TAIL);
+			record(AE_HEAD);
+		}
+	}
+
+	private void record(int type) {
+		if (deltaOfType[type] == null) {
+			deltaOfType[type] = new EnumDelta(getEnvironment());
+		}
+	}
+
+	/**
+	 * @param type a delta type
+	 * @return true iff modifications of this type are recorded
+	 */
+	public boolean isRecording(int type) {
+		return deltaOfType[type] != null;
+	}
+
+	public GraphStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(GraphStatistics statistics) {
+		this.statistics = statistics;
+	}
+
 	public int getSize(int i) {
-		return deltaOfType[i].size();
+		return deltaOfType[i] == null ? 0 : deltaOfType[i].size();
 	}
 
 	public void add(int element, int type, ICause cause) {
-		lazyClear();
-		deltaOfType[type].add(element, cause);
+		if (deltaOfType[type] != null) {
+			lazyClear();
+			deltaOfType[type].add(element, cause);
+		}
 	}
 
 	public void lazyClear() {
 		if (needReset()) {
 			for (int i = 0; i < NB; i++) {
-				deltaOfType[i].lazyClear();
+				if (deltaOfType[i] != null) {
+					deltaOfType[i].lazyClear();
+				}
 			}
 			resetStamp();
 		}
@@ -26,8 +26,10 @@
  */
 package org.chocosolver.graphsolver.variables.delta;
 
+import org.chocosolver.graphsolver.cstrs.GraphStatistics;
 import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.TimeStampedObject;
 import org.chocosolver.solver.variables.delta.IDeltaMonitor;
@@ -42,18 +44,43 @@ import org.chocosolver.util.procedure.PairProcedure;
  */
 public class GraphDeltaMonitor extends TimeStampedObject implements IDeltaMonitor {
 
+	// delta types of the four event types, in the order of their masks in GraphEventType
+	private static final int[] TYPES = {GraphDelta.NR, GraphDelta.NE, GraphDelta.AR_TAIL, GraphDelta.AE_TAIL};
+
 	private final GraphDelta delta;
+	private final int mask; // event types read by this monitor
 	private int[] first; // references, in variable delta value to propagate, to un propagated values
 	private int[] frozenFirst, frozenLast; // same as previous while the recorder is frozen, to allow "concurrent modifications"
 	private ICause propagator;
+	private GraphStatistics.Entry statistics;
 
+	/**
+	 * Creates a monitor of every event type of delta
+	 *
+	 * @param delta      delta of a graph variable
+	 * @param propagator cause whose own modifications are ignored
+	 */
 	public GraphDeltaMonitor(GraphDelta delta, ICause propagator) {
+		this(delta, propagator, GraphEventType.REMOVE_NODE.getMask() | GraphEventType.ADD_NODE.getMask()
+				| GraphEventType.REMOVE_ARC.getMask() | GraphEventType.ADD_ARC.getMask());
+	}
+
+	/**
+	 * Creates a monitor of some event types of delta, which starts recording them
+	 *
+	 * @param delta      delta of a graph variable
+	 * @param propagator cause whose own modifications are ignored
+	 * @param mask       mask of the {@link GraphEventType} to monitor
+	 */
+	public GraphDeltaMonitor(GraphDelta delta, ICause propagator, int mask) {
 		super(delta.getEnvironment());
 		this.delta = delta;
+		this.mask = mask;
 		this.first = new int[4];
 		this.frozenFirst = new int[4];
 		this.frozenLast = new int[4];
 		this.propagator = propagator;
+		delta.subscribe(mask);
 	}
 
 	@Override
@@ -64,22 +91,32 @@ public class GraphDeltaMonitor extends TimeStampedObject implements IDeltaMonito
 			}
 			resetStamp();
 		}
-		for (int i = 0; i < 3; i++) {
-			frozenFirst[i] = first[i]; // freeze indices
-			first[i] = frozenLast[i] = delta.getSize(i);
+		for (int i = 0; i < 4; i++) {
+			if ((mask & (1 << i)) != 0) {
+				frozenFirst[i] = first[i]; // freeze indices
+				first[i] = frozenLast[i] = delta.getSize(TYPES[i]);
+			}
+		}
+		if (delta.getStatistics() != null && propagator instanceof Propagator) {
+			if (statistics == null) {
+				statistics = delta.getStatistics().of((Propagator) propagator);
+			}
+			statistics.startPass();
 		}
-		frozenFirst[3] = first[3]; // freeze indices
-		first[3] = frozenLast[3] = delta.getSize(GraphDelta.AE_TAIL);
 	}
 
 	@Override
 	public void unfreeze() {
 		delta.lazyClear();    // fix 27/07/12
 		resetStamp();
-		for (int i = 0; i < 3; i++) {
-			first[i] = delta.getSize(i);
+		for (int i = 0; i < 4; i++) {
+			if ((mask & (1 << i)) != 0) {
+				first[i] = delta.getSize(TYPES[i]);
+			}
+		}
+		if (statistics != null) {
+			statistics.endPass();
 		}
-		first[3] = delta.getSize(GraphDelta.AE_TAIL);
 	}
 
 	/**
@@ -89,12 +126,15 @@ public class GraphDeltaMonitor extends TimeStampedObject implements IDeltaMonito
 	 * @throws ContradictionException if a failure occurs
 	 */
 	public void forEachNode(IntProcedure proc, GraphEventType evt) throws ContradictionException {
+		assert (mask & evt.getMask()) != 0 : evt + " is not monitored";
 		int type;
+		int nb = 0;
 		if (evt == GraphEventType.REMOVE_NODE) {
 			type = GraphDelta.NR;
 			for (int i = frozenFirst[type]; i < frozenLast[type]; i++) {
 				if (delta.getCause(i, type) != propagator) {
 					proc.execute(delta.get(i, type));
+					nb++;
 				}
 			}
 		} else if (evt == GraphEventType.ADD_NODE) {
@@ -102,11 +142,15 @@ public class GraphDeltaMonitor extends TimeStampedObject implements IDeltaMonito
 			for (int i = frozenFirst[type]; i < frozenLast[type]; i++) {
 				if (delta.getCause(i, type) != propagator) {
 					proc.execute(delta.get(i, type));
+					nb++;
 				}
 			}
 		} else {
 			throw new UnsupportedOperationException();
 		}
+		if (statistics != null) {
+			statistics.onDelta(nb, true);
+		}
 	}
 
 	/**
@@ -116,20 +160,27 @@ public class GraphDeltaMonitor extends TimeStampedObject implements IDeltaMonito
 	 * @throws ContradictionException if a failure occurs
 	 */
 	public void forEachArc(PairProcedure proc, GraphEventType evt) throws ContradictionException {
+		assert (mask & evt.getMask()) != 0 : evt + " is not monitored";
+		int nb = 0;
 		if (evt == GraphEventType.REMOVE_ARC) {
 			for (int i = frozenFirst[2]; i < frozenLast[2]; i++) {
 				if (delta.getCause(i, GraphDelta.AR_TAIL) != propagator) {
 					proc.execute(delta.get(i, GraphDelta.AR_TAIL), delta.get(i, GraphDelta.AR_HEAD));
+					nb++;
 				}
 			}
 		} else if (evt == GraphEventType.ADD_ARC) {
 			for (int i = frozenFirst[3]; i < frozenLast[3]; i++) {
 				if (delta.getCause(i, GraphDelta.AE_TAIL) != propagator) {
 					proc.execute(delta.get(i, GraphDelta.AE_TAIL), delta.get(i, GraphDelta.AE_HEAD));
+					nb++;
 				}
 			}
 		} else {
 			throw new UnsupportedOperationException();
 		}
+		if (statistics != null) {
+			statistics.onDelta(nb, false);
+		}
 	}
 }
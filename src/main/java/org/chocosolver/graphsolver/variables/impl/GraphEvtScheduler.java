@@ -12,40 +12,76 @@ package org.chocosolver.graphsolver.variables.impl;
 import org.chocosolver.graphsolver.variables.GraphEventType;
 import org.chocosolver.util.iterators.EvtScheduler;
 
+import java.util.Arrays;
+
 /**
- * <br/>
+ * Event scheduler of graph variables: propagators are only scheduled on the graph events
+ * declared in their propagation conditions.
  *
  * @author Charles Prud'homme
  * @since 26/11/2020
  */
 public class GraphEvtScheduler implements EvtScheduler<GraphEventType> {
 
-    private static final int[] DIS = new int[]{0, 1, -1, // ANY EVT
-    };
+    /**
+     * Propagators are grouped by propagation conditions: bucket b holds the propagators
+     * whose mask (restricted to graph events) is b + 1, and the last bucket holds the
+     * propagators that do not react to graph events.
+     */
+    private static final int ALL = GraphEventType.REMOVE_NODE.getMask() | GraphEventType.ADD_NODE.getMask()
+            | GraphEventType.REMOVE_ARC.getMask() | GraphEventType.ADD_ARC.getMask();
+    private static final int NONE = ALL;
+    /**
+     * DIS[evt] lists the ranges [from, to) of buckets to schedule on event mask evt, ended by -1
+     */
+    private static final int[][] DIS = new int[ALL + 1][];
+
+    static {
+        for (int evt = 0; evt <= ALL; evt++) {
+            int[] ranges = new int[2 * ALL + 1];
+            int k = 0;
+            for (int b = 0; b < NONE; b++) {
+                if (((b + 1) & evt) != 0) {
+                    if (k > 0 && ranges[k - 1] == b) {
+                        ranges[k - 1] = b + 1;
+                    } else {
+                        ranges[k++] = b;
+                        ranges[k++] = b + 1;
+                    }
+                }
+            }
+            ranges[k++] = -1;
+            DIS[evt] = Arrays.copyOf(ranges, k);
+        }
+    }
+
+    private int[] dis = DIS[0];
     private int i = 0;
 
     @Override
     public void init(int mask) {
+        dis = DIS[mask & ALL];
         i = 0;
     }
 
     @Override
     public int select(int mask) {
-        if (mask > 0) {
-            return 0;
-        } else {
-            return 1;
+        if (mask == 0) {
+            return NONE;
         }
+        int m = mask & ALL;
+        // conditions which are not graph events: keep waking the propagator on any event
+        return (m == 0 ? ALL : m) - 1;
     }
 
     @Override
     public boolean hasNext() {
-        return DIS[i] > -1;
+        return dis[i] > -1;
     }
 
     @Override
     public int next() {
-        return DIS[i++];
+        return dis[i++];
     }
 
     @Override
@@ -11,6 +11,7 @@ import org.chocosolver.util.objects.setDataStructures.SetType;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 
 /**
@@ -192,6 +193,144 @@ public class SymmetryBreakingTest {
         Assert.assertEquals(solutionExists(n, a[n] + 1, 5, true), false);
     }
 
+    @Test
+    public static void testGirthOfAllGraphs() {
+        // every graph on n nodes has exactly one girth in [1, n + 1]
+        int n = 5;
+        long total = 0;
+        for (int l = 1; l <= n + 1; l++) {
+            GraphModel model = new GraphModel();
+            UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.BITSET, true);
+            UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BITSET, true);
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    GUB.addEdge(i, j);
+                }
+            }
+            UndirectedGraphVar graph = model.graphVar("G", GLB, GUB);
+            new Constraint("GirthConstraint", new PropGirth(graph, model.intVar(l))).post();
+            model.getSolver().setSearch(new GraphStrategy(graph));
+            while (model.getSolver().solve()) {
+                Assert.assertEquals(getGraphGirth(graph), l);
+            }
+            total += model.getSolver().getSolutionCount();
+        }
+        Assert.assertEquals(total, 1 << (n * (n - 1) / 2));
+    }
+
+    /**
+     * Checks whether the given edge subset of the complete graph satisfies the BFS predicate:
+     * the smallest neighbor p(j) of each node j > 0 is smaller than j and p is non-decreasing.
+     */
+    private static boolean isBFSOrdered(int n, int mask) {
+        int prev = 0;
+        int e = 0;
+        int[] p = new int[n];
+        Arrays.fill(p, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++, e++) {
+                if ((mask & (1 << e)) != 0 && i < p[j]) {
+                    p[j] = i;
+                }
+            }
+        }
+        for (int j = 1; j < n; j++) {
+            if (p[j] == n || p[j] < prev) {
+                return false;
+            }
+            prev = p[j];
+        }
+        return true;
+    }
+
+    @Test
+    public static void testCountAllSolutions() {
+        for (int n = 2; n <= 5; n++) {
+            int expected = 0;
+            for (int mask = 0; mask < 1 << (n * (n - 1) / 2); mask++) {
+                if (isBFSOrdered(n, mask)) {
+                    expected++;
+                }
+            }
+            GraphModel model = new GraphModel();
+            UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.BITSET, true);
+            UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BITSET, true);
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    GUB.addEdge(i, j);
+                }
+            }
+            UndirectedGraphVar graph = model.graphVar("G", GLB, GUB);
+            model.postSymmetryBreaking(graph);
+            model.getSolver().setSearch(new GraphStrategy(graph));
+            Assert.assertEquals(model.getSolver().findAllSolutions().size(), expected, "n = " + n);
+        }
+    }
+
+    /**
+     * Checks whether column i of the adjacency matrix is lexicographically smaller than or equal to column j,
+     * optionally ignoring rows i and j.
+     */
+    private static boolean lexLeq(boolean[][] adj, int i, int j, boolean skipOwnRows) {
+        for (int k = 0; k < adj.length; k++) {
+            if (skipOwnRows && (k == i || k == j) || adj[k][i] == adj[k][j]) {
+                continue;
+            }
+            return adj[k][j];
+        }
+        return true;
+    }
+
+    private static int countLexSolutions(int n, boolean extended) {
+        GraphModel model = new GraphModel();
+        UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.BITSET, true);
+        UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BITSET, true);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                GUB.addEdge(i, j);
+            }
+        }
+        UndirectedGraphVar graph = model.graphVar("G", GLB, GUB);
+        if (extended) {
+            model.symmetryBreaking3(graph).post();
+        } else {
+            model.symmetryBreaking2(graph).post();
+        }
+        model.getSolver().setSearch(new GraphStrategy(graph));
+        return model.getSolver().findAllSolutions().size();
+    }
+
+    @Test
+    public static void testCountLexSolutions() {
+        for (int n = 2; n <= 5; n++) {
+            int expected = 0;
+            int expectedEx = 0;
+            for (int mask = 0; mask < 1 << (n * (n - 1) / 2); mask++) {
+                boolean[][] adj = new boolean[n][n];
+                int e = 0;
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++, e++) {
+                        adj[i][j] = adj[j][i] = (mask & (1 << e)) != 0;
+                    }
+                }
+                boolean ok = true;
+                for (int j = 0; j < n - 1; j++) {
+                    ok &= lexLeq(adj, j, j + 1, false);
+                }
+                boolean okEx = true;
+                for (int j = 1; j < n; j++) {
+                    for (int i = 0; i < j; i++) {
+                        okEx &= j - i == 2 || lexLeq(adj, i, j, true);
+                    }
+                }
+                expected += ok ? 1 : 0;
+                expectedEx += okEx ? 1 : 0;
+            }
+            Assert.assertEquals(countLexSolutions(n, false), expected, "n = " + n);
+            Assert.assertEquals(countLexSolutions(n, true), expectedEx, "n = " + n);
+        }
+    }
+
     @Test
     public static void testHardNoSolution() {
         Assert.assertEquals(
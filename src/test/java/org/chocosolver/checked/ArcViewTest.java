@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.search.strategy.GraphStrategy;
+import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ArcViewTest {
+
+	@Test(groups = "1s")
+	public void testDomain() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		DirectedGraphVar g = model.digraphVar("g", 3, true);
+		BoolVar a = g.arcView(0, 1);
+		Assert.assertSame(a, g.arcView(0, 1));
+		Assert.assertNotSame(a, g.arcView(1, 0));
+		Assert.assertFalse(a.isInstantiated());
+		model.getEnvironment().worldPush();
+		g.enforceArc(0, 1, Cause.Null);
+		Assert.assertTrue(a.isInstantiatedTo(1));
+		model.getEnvironment().worldPop();
+		Assert.assertFalse(a.isInstantiated());
+		a.setToFalse(Cause.Null);
+		Assert.assertFalse(g.getPotSuccOf(0).contains(1));
+		Assert.assertTrue(g.arcView(1, 0).contains(1));
+	}
+
+	@Test(groups = "1s")
+	public void testUndirected() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 3, true);
+		Assert.assertSame(g.arcView(0, 2), g.arcView(2, 0));
+		g.arcView(2, 0).setToTrue(Cause.Null);
+		Assert.assertTrue(g.getMandNeighOf(0).contains(2));
+	}
+
+	@Test(groups = "1s")
+	public void testConstraintsOnViews() {
+		// out-degree of every node is exactly 1, stated with sums over arc views
+		int n = 4;
+		GraphModel model = new GraphModel();
+		DirectedGraphVar g = model.digraphVar("g", n, true);
+		BoolVar[][] arcs = model.adjacencyView(g);
+		for (int i = 0; i < n; i++) {
+			model.sum(arcs[i], "=", 1).post();
+		}
+		model.getSolver().setSearch(new GraphStrategy(g));
+		while (model.getSolver().solve()) {
+			for (int i = 0; i < n; i++) {
+				Assert.assertEquals(g.getMandSuccOf(i).size(), 1);
+			}
+		}
+		Assert.assertEquals(model.getSolver().getSolutionCount(), (long) Math.pow(n, n));
+	}
+
+	/**
+	 * @return the number of symmetric n*n boolean matrices, over the edges of g, whose pairs of columns are lex ordered
+	 */
+	private static int bruteForce(UndirectedGraphVar g, int[][] pairs, boolean skipOwnRows) {
+		int n = g.getNbMaxNodes();
+		List<int[]> edges = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			for (int j : g.getPotNeighOf(i)) {
+				if (i <= j) {
+					edges.add(new int[]{i, j});
+				}
+			}
+		}
+		int count = 0;
+		for (long set = 0; set < 1L << edges.size(); set++) {
+			int[][] t = new int[n][n];
+			for (int e = 0; e < edges.size(); e++) {
+				if ((set >> e & 1) == 1) {
+					t[edges.get(e)[0]][edges.get(e)[1]] = t[edges.get(e)[1]][edges.get(e)[0]] = 1;
+				}
+			}
+			boolean ordered = true;
+			for (int[] p : pairs) {
+				for (int i = 0; i < n; i++) {
+					if (!skipOwnRows || (i != p[0] && i != p[1])) {
+						if (t[i][p[0]] != t[i][p[1]]) {
+							ordered &= t[i][p[0]] < t[i][p[1]];
+							break;
+						}
+					}
+				}
+			}
+			if (ordered) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test(groups = "10s")
+	public void testSymmetryBreakingOnViews() {
+		int n = 5;
+		int[][] chain = new int[n - 1][];
+		for (int j = 0; j < n - 1; j++) {
+			chain[j] = new int[]{j, j + 1};
+		}
+		List<int[]> pairs = new ArrayList<>();
+		for (int j = 1; j < n; j++) {
+			for (int i = 0; i < j; i++) {
+				if (j - i != 2) {
+					pairs.add(new int[]{i, j});
+				}
+			}
+		}
+		for (int loops = 0; loops < 2; loops++) {
+			for (int version = 2; version <= 3; version++) {
+				for (long seed = -1; seed < 30; seed++) {
+					GraphModel model = new GraphModel();
+					UndirectedGraph lb = new UndirectedGraph(model, n, SetType.BITSET, true);
+					UndirectedGraph ub = new UndirectedGraph(model, n, SetType.BITSET, true);
+					for (int i = 0; i < n; i++) {
+						for (int j = i + 1 - loops; j < n; j++) {
+							ub.addEdge(i, j);
+						}
+					}
+					UndirectedGraphVar g = model.graphVar("g", lb, ub);
+					(version == 2 ? model.symmetryBreaking2(g) : model.symmetryBreaking3(g)).post();
+					model.getSolver().setSearch(seed == -1 ? new GraphStrategy(g) : new GraphStrategy(g, seed));
+					// the solver checks every solution against the constraints
+					long nb = model.getSolver().streamSolutions().count();
+					int expected = version == 2 ? bruteForce(g, chain, false) : bruteForce(g, pairs.toArray(new int[0][]), true);
+					if (loops == 0) {
+						Assert.assertEquals(expected, version == 2 ? 86 : 43);
+					}
+					Assert.assertEquals(nb, expected, "symmetryBreaking" + version + ", seed " + seed);
+				}
+			}
+		}
+	}
+}
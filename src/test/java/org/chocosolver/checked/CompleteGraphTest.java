@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.util.CompleteDirectedGraph;
+import org.chocosolver.graphsolver.util.CompleteUndirectedGraph;
+import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CompleteGraphTest {
+
+	private static long count(GraphModel model, UndirectedGraphVar g) {
+		model.connected(g).post();
+		return count(model);
+	}
+
+	private static long count(GraphModel model, DirectedGraphVar g) {
+		model.stronglyConnected(g).post();
+		return count(model);
+	}
+
+	private static long count(GraphModel model) {
+		while (model.getSolver().solve()) ;
+		return model.getSolver().getSolutionCount();
+	}
+
+	@Test(groups = "10s")
+	public void testSameSolutions() {
+		for (boolean allNodes : new boolean[]{false, true}) {
+			GraphModel m1 = new GraphModel();
+			long implicit = count(m1, m1.graphVar("g", 4, allNodes));
+			GraphModel m2 = new GraphModel();
+			UndirectedGraph ub = new UndirectedGraph(m2, 4, SetType.BITSET, allNodes);
+			for (int i = 0; i < 4; i++) {
+				ub.addNode(i);
+				for (int j = i; j < 4; j++) {
+					ub.addEdge(i, j);
+				}
+			}
+			long explicit = count(m2, m2.graphVar("g", new UndirectedGraph(m2, 4, SetType.BITSET, allNodes), ub));
+			Assert.assertEquals(implicit, explicit);
+
+			m1 = new GraphModel();
+			implicit = count(m1, m1.digraphVar("g", 3, allNodes));
+			m2 = new GraphModel();
+			DirectedGraph dub = new DirectedGraph(m2, 3, SetType.BITSET, allNodes);
+			for (int i = 0; i < 3; i++) {
+				dub.addNode(i);
+				for (int j = 0; j < 3; j++) {
+					dub.addArc(i, j);
+				}
+			}
+			explicit = count(m2, m2.digraphVar("g", new DirectedGraph(m2, 3, SetType.BITSET, allNodes), dub));
+			Assert.assertEquals(implicit, explicit);
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testLargeBacktrack() throws ContradictionException {
+		int n = 10000;
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", n);
+		DirectedGraphVar d = model.digraphVar("d", n);
+		Assert.assertEquals(g.getPotNeighOf(5).size(), n);
+		Assert.assertTrue(d.getPotPredOf(n - 1).contains(0));
+		IEnvironment env = model.getEnvironment();
+		env.worldPush();
+		g.removeArc(5, 7, Cause.Null);
+		g.removeNode(9, Cause.Null);
+		d.removeArc(0, n - 1, Cause.Null);
+		env.worldPush();
+		d.removeNode(3, Cause.Null);
+		Assert.assertEquals(g.getPotNeighOf(5).size(), n - 2);
+		Assert.assertFalse(g.getPotNeighOf(7).contains(5));
+		Assert.assertTrue(g.getPotNeighOf(9).isEmpty());
+		Assert.assertFalse(g.getPotentialNodes().contains(9));
+		Assert.assertFalse(d.getPotPredOf(n - 1).contains(0));
+		Assert.assertFalse(d.getPotSuccOf(0).contains(3));
+		Assert.assertEquals(d.getPotSuccOf(0).size(), n - 2);
+		env.worldPop();
+		Assert.assertEquals(d.getPotSuccOf(0).size(), n - 1);
+		Assert.assertEquals(d.getPotPredOf(3).size(), n);
+		env.worldPop();
+		Assert.assertEquals(g.getPotNeighOf(5).size(), n);
+		Assert.assertEquals(g.getPotNeighOf(9).size(), n);
+		Assert.assertTrue(g.getPotentialNodes().contains(9));
+		Assert.assertTrue(d.getPotPredOf(n - 1).contains(0));
+		int k = 0;
+		for (int j : g.getPotNeighOf(9)) {
+			Assert.assertEquals(j, k++);
+		}
+		Assert.assertEquals(k, n);
+	}
+
+	@Test(groups = "1s")
+	public void testWithoutLoops() {
+		int n = 70;
+		GraphModel model = new GraphModel();
+		CompleteUndirectedGraph g = new CompleteUndirectedGraph(model, n, false, false);
+		CompleteDirectedGraph d = new CompleteDirectedGraph(model, n, false, false);
+		Assert.assertEquals(g.getNeighOf(64).size(), n - 1);
+		Assert.assertFalse(g.getNeighOf(64).contains(64));
+		Assert.assertFalse(g.addEdge(64, 64));
+		Assert.assertFalse(d.addArc(3, 3));
+		int k = 0;
+		for (int j : g.getNeighOf(64)) {
+			Assert.assertEquals(j, k == 64 ? ++k : k);
+			k++;
+		}
+		Assert.assertEquals(k, n);
+		IEnvironment env = model.getEnvironment();
+		env.worldPush();
+		g.removeEdge(64, 1);
+		g.removeNode(64);
+		d.removeNode(3);
+		Assert.assertTrue(g.getNeighOf(64).isEmpty());
+		Assert.assertEquals(g.getNeighOf(1).size(), n - 2);
+		Assert.assertTrue(d.getSuccOf(3).isEmpty());
+		Assert.assertEquals(d.getPredOf(0).size(), n - 2);
+		env.worldPop();
+		Assert.assertEquals(g.getNeighOf(64).size(), n - 1);
+		Assert.assertEquals(g.getNeighOf(1).size(), n - 1);
+		Assert.assertFalse(g.getNeighOf(64).contains(64));
+		Assert.assertEquals(d.getSuccOf(3).size(), n - 1);
+		Assert.assertFalse(d.getSuccOf(3).contains(3));
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.cstrs.cost.trees.PropTreeCostMST;
+import org.chocosolver.graphsolver.cstrs.cost.trees.PropTreeCostSimple;
+import org.chocosolver.graphsolver.cstrs.cost.tsp.lagrangian.PropLagrOneTree;
+import org.chocosolver.graphsolver.search.strategy.GraphSearch;
+import org.chocosolver.graphsolver.util.cost.CachedCost;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.util.cost.EuclideanCost;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class CostTest {
+
+	private static EuclideanCost randomPoints(int n, long seed) {
+		Random rd = new Random(seed);
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = rd.nextInt(100);
+			y[i] = rd.nextInt(100);
+		}
+		return new EuclideanCost(x, y);
+	}
+
+	private static int solveTSP(EdgeCost costs, int lagrMode) {
+		return solveTSP(costs, lagrMode, -1);
+	}
+
+	/**
+	 * @param parallelThreshold if non negative, a Lagrangian relaxation computing 1-trees in parallel above
+	 *                          this number of nodes is added
+	 */
+	private static int solveTSP(EdgeCost costs, int lagrMode, int parallelThreshold) {
+		int n = costs.getNbNodes();
+		GraphModel model = new GraphModel();
+		UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.BITSET, true);
+		UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BITSET, true);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				GUB.addEdge(i, j);
+			}
+		}
+		UndirectedGraphVar graph = model.graphVar("G", GLB, GUB);
+		IntVar cost = model.intVar("cost", 0, 100000, true);
+		model.tsp(graph, cost, costs, lagrMode).post();
+		if (parallelThreshold >= 0) {
+			PropLagrOneTree hk = new PropLagrOneTree(graph, cost, costs.toMatrix());
+			hk.setParallelThreshold(parallelThreshold);
+			new Constraint("parallelHK", hk).post();
+		}
+		Solver solver = model.getSolver();
+		solver.setSearch(new GraphSearch(graph, costs).configure(GraphSearch.MIN_COST, true));
+		model.setObjective(Model.MINIMIZE, cost);
+		int best = -1;
+		while (solver.solve()) {
+			best = cost.getValue();
+		}
+		return best;
+	}
+
+	/**
+	 * @return the cost of an optimal tour, by dynamic programming over subsets (Held and Karp)
+	 */
+	private static int heldKarp(EdgeCost costs) {
+		int n = costs.getNbNodes();
+		int[][] best = new int[1 << n][n];
+		for (int[] row : best) {
+			Arrays.fill(row, Integer.MAX_VALUE);
+		}
+		best[1][0] = 0;
+		for (int set = 1; set < 1 << n; set += 2) {
+			for (int last = 0; last < n; last++) {
+				if (best[set][last] == Integer.MAX_VALUE) {
+					continue;
+				}
+				for (int next = 1; next < n; next++) {
+					if ((set & (1 << next)) == 0) {
+						int cost = best[set][last] + costs.getCost(last, next);
+						best[set | (1 << next)][next] = Math.min(best[set | (1 << next)][next], cost);
+					}
+				}
+			}
+		}
+		int tour = Integer.MAX_VALUE;
+		for (int last = 1; last < n; last++) {
+			tour = Math.min(tour, best[(1 << n) - 1][last] + costs.getCost(last, 0));
+		}
+		return tour;
+	}
+
+	@Test(groups = "10s")
+	public void testTSPOptimum() {
+		for (long seed = 10; seed < 15; seed++) {
+			EuclideanCost costs = randomPoints(9, seed);
+			Assert.assertEquals(solveTSP(costs, 0), heldKarp(costs));
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testParallelOneTree() {
+		for (long seed = 10; seed < 15; seed++) {
+			EuclideanCost costs = randomPoints(9, seed);
+			Assert.assertEquals(solveTSP(costs, 0, 0), heldKarp(costs));
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testCachedCost() {
+		EdgeCost costs = randomPoints(20, 0);
+		CachedCost cached = new CachedCost(costs, 3);
+		Random rd = new Random(1);
+		for (int k = 0; k < 2000; k++) {
+			int i = rd.nextInt(20);
+			int j = rd.nextInt(20);
+			Assert.assertEquals(cached.getCost(i, j), costs.getCost(i, j));
+		}
+		Assert.assertEquals(cached.toMatrix(), costs.toMatrix());
+	}
+
+	@Test(groups = "10s")
+	public void testTSPOnDemandCosts() {
+		for (long seed = 0; seed < 3; seed++) {
+			EuclideanCost costs = randomPoints(10, seed);
+			int expected = solveTSP(EdgeCost.of(costs.toMatrix()), 0);
+			Assert.assertEquals(solveTSP(costs, 0), expected);
+			Assert.assertEquals(solveTSP(new CachedCost(costs, 2), 0), expected);
+			Assert.assertEquals(solveTSP(costs, 1), expected);
+		}
+	}
+
+	/**
+	 * @return the number of spanning trees of a random graph whose cost is in [lb, ub]
+	 */
+	private static long countTrees(int n, long seed, int lb, int ub, boolean mst) {
+		Random rd = new Random(seed);
+		int[][] costs = new int[n][n];
+		GraphModel model = new GraphModel();
+		UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.BITSET, true);
+		UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BITSET, true);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				costs[i][j] = costs[j][i] = rd.nextInt(21);
+				if (rd.nextInt(4) > 0) {
+					GUB.addEdge(i, j);
+				}
+			}
+		}
+		UndirectedGraphVar graph = model.graphVar("G", GLB, GUB);
+		IntVar cost = model.intVar("cost", lb, ub, true);
+		model.tree(graph).post();
+		new Constraint("treeCost", new PropTreeCostSimple(graph, cost, costs)).post();
+		if (mst) {
+			new Constraint("mst", new PropTreeCostMST(graph, cost, costs)).post();
+		}
+		Solver solver = model.getSolver();
+		solver.setSearch(new GraphSearch(graph, costs).configure(GraphSearch.MIN_COST, true));
+		while (solver.solve()) ;
+		return solver.getSolutionCount();
+	}
+
+	@Test(groups = "10s")
+	public void testTreeCostMST() {
+		for (long seed = 0; seed < 10; seed++) {
+			for (int ub = 10; ub <= 60; ub += 5) {
+				Assert.assertEquals(countTrees(7, seed, ub - 10, ub, true), countTrees(7, seed, ub - 10, ub, false),
+						"seed " + seed + ", ub " + ub);
+			}
+		}
+	}
+
+	/**
+	 * Triangle (0,1,2) of cost-1 edges, edge (2,3) of cost 1 whose only alternative (1,3) costs 100,
+	 * and bridge (3,4) of cost 5: the minimum spanning tree costs 8
+	 */
+	private static UndirectedGraphVar treeEnforcementGraph(GraphModel model, IntVar cost) {
+		int n = 5;
+		int[][] costs = new int[n][n];
+		UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.BITSET, true);
+		UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BITSET, true);
+		int[][] edges = {{0, 1, 1}, {1, 2, 1}, {0, 2, 1}, {2, 3, 1}, {1, 3, 100}, {3, 4, 5}};
+		for (int[] e : edges) {
+			GUB.addEdge(e[0], e[1]);
+			costs[e[0]][e[1]] = costs[e[1]][e[0]] = e[2];
+		}
+		UndirectedGraphVar graph = model.graphVar("G", GLB, GUB);
+		new Constraint("mst", new PropTreeCostMST(graph, cost, costs)).post();
+		return graph;
+	}
+
+	@Test(groups = "1s")
+	public void testTreeCostMSTEnforcement() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar graph = treeEnforcementGraph(model, model.intVar("cost", 0, 8, true));
+		model.getSolver().propagate();
+		Assert.assertTrue(graph.getMandNeighOf(2).contains(3));
+		Assert.assertTrue(graph.getMandNeighOf(3).contains(4));
+		Assert.assertFalse(graph.getPotNeighOf(1).contains(3));
+
+		model = new GraphModel();
+		graph = treeEnforcementGraph(model, model.intVar("cost", 0, 1000, true));
+		model.getSolver().propagate();
+		// only the bridge is enforced
+		Assert.assertFalse(graph.getMandNeighOf(2).contains(3));
+		Assert.assertTrue(graph.getMandNeighOf(3).contains(4));
+		Assert.assertTrue(graph.getPotNeighOf(1).contains(3));
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.cstrs.degree.PropNodeDegreeAtMostCoarse;
+import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.SetVar;
+import org.chocosolver.util.objects.graphs.Orientation;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks incremental degree propagators against their coarse counterparts
+ */
+public class DegreeTest {
+
+	@Test(groups = "1s")
+	public void testMaxDegrees() {
+		for (int d = 0; d < 4; d++) {
+			GraphModel coarse = new GraphModel();
+			UndirectedGraphVar g1 = coarse.graphVar("g", 4);
+			new Constraint("maxDegrees", new PropNodeDegreeAtMostCoarse(g1, d)).post();
+			GraphModel incr = new GraphModel();
+			UndirectedGraphVar g2 = incr.graphVar("g", 4);
+			incr.maxDegrees(g2, d).post();
+			Assert.assertEquals(incr.getSolver().streamSolutions().count(), coarse.getSolver().streamSolutions().count());
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testMaxInOutDegrees() {
+		for (Orientation o : new Orientation[]{Orientation.SUCCESSORS, Orientation.PREDECESSORS}) {
+			for (int d = 0; d < 3; d++) {
+				GraphModel coarse = new GraphModel();
+				DirectedGraphVar g1 = coarse.digraphVar("g", 3);
+				new Constraint("maxDegrees", new PropNodeDegreeAtMostCoarse(g1, o, d)).post();
+				GraphModel incr = new GraphModel();
+				DirectedGraphVar g2 = incr.digraphVar("g", 3);
+				if (o == Orientation.SUCCESSORS) {
+					incr.maxOutDegrees(g2, d).post();
+				} else {
+					incr.maxInDegrees(g2, d).post();
+				}
+				Assert.assertEquals(incr.getSolver().streamSolutions().count(), coarse.getSolver().streamSolutions().count());
+			}
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testDegreesVar() {
+		int n = 4;
+		GraphModel decomp = new GraphModel();
+		UndirectedGraphVar g1 = decomp.graphVar("g", n, true);
+		SetVar[] neigh = decomp.neighSets(g1);
+		IntVar[] d1 = decomp.intVarArray("d", n, 1, 2);
+		for (int i = 0; i < n; i++) {
+			neigh[i].getCard().eq(d1[i]).post();
+		}
+		GraphModel incr = new GraphModel();
+		UndirectedGraphVar g2 = incr.graphVar("g", n, true);
+		IntVar[] d2 = incr.intVarArray("d", n, 1, 2);
+		incr.degrees(g2, d2).post();
+		Assert.assertEquals(incr.getSolver().streamSolutions().count(), decomp.getSolver().streamSolutions().count());
+	}
+
+	@Test(groups = "1s")
+	public void testOutDegreesVar() {
+		int n = 3;
+		GraphModel decomp = new GraphModel();
+		DirectedGraphVar g1 = decomp.digraphVar("g", n, true);
+		SetVar[] succs = decomp.succSets(g1);
+		IntVar[] d1 = decomp.intVarArray("d", n, 0, 2);
+		for (int i = 0; i < n; i++) {
+			succs[i].getCard().eq(d1[i]).post();
+		}
+		GraphModel incr = new GraphModel();
+		DirectedGraphVar g2 = incr.digraphVar("g", n, true);
+		IntVar[] d2 = incr.intVarArray("d", n, 0, 2);
+		incr.outDegrees(g2, d2).post();
+		Assert.assertEquals(incr.getSolver().streamSolutions().count(), decomp.getSolver().streamSolutions().count());
+	}
+}
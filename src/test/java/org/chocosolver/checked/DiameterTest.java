@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.search.strategy.GraphStrategy;
+import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DiameterTest {
+
+	/**
+	 * @return the diameter of the given adjacency matrix restricted to nodes, -1 if it is not (strongly) connected
+	 */
+	private static int diameter(boolean[][] adj, boolean[] nodes) {
+		int n = adj.length;
+		int inf = n + 1;
+		int[][] d = new int[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				d[i][j] = i == j ? 0 : adj[i][j] && nodes[i] && nodes[j] ? 1 : inf;
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+				}
+			}
+		}
+		int diam = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				if (nodes[i] && nodes[j]) {
+					diam = Math.max(diam, d[i][j]);
+				}
+			}
+		}
+		return diam == inf ? -1 : diam;
+	}
+
+	private static boolean[][] value(GraphVar g) {
+		int n = g.getNbMaxNodes();
+		boolean[][] adj = new boolean[n][n];
+		for (int i : g.getMandatoryNodes()) {
+			for (int j : g.getMandSuccOrNeighOf(i)) {
+				adj[i][j] = true;
+			}
+		}
+		return adj;
+	}
+
+	private static boolean[] nodes(GraphVar g) {
+		boolean[] nodes = new boolean[g.getNbMaxNodes()];
+		for (int i : g.getMandatoryNodes()) {
+			nodes[i] = true;
+		}
+		return nodes;
+	}
+
+	/**
+	 * Counts the (strongly) connected graphs of each diameter, among all node and arc subsets
+	 */
+	private static int[] bruteForce(int n, boolean directed) {
+		int[] count = new int[n];
+		int[][] arcs = new int[n * n][];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = directed ? 0 : i + 1; j < n; j++) {
+				if (i != j) {
+					arcs[m++] = new int[]{i, j};
+				}
+			}
+		}
+		for (int nodeMask = 1; nodeMask < 1 << n; nodeMask++) {
+			boolean[] nodes = new boolean[n];
+			for (int i = 0; i < n; i++) {
+				nodes[i] = (nodeMask & (1 << i)) != 0;
+			}
+			for (int arcMask = 0; arcMask < 1 << m; arcMask++) {
+				boolean[][] adj = new boolean[n][n];
+				boolean valid = true;
+				for (int k = 0; k < m; k++) {
+					if ((arcMask & (1 << k)) != 0) {
+						int i = arcs[k][0];
+						int j = arcs[k][1];
+						valid &= nodes[i] && nodes[j];
+						adj[i][j] = true;
+						adj[j][i] |= !directed;
+					}
+				}
+				int d = diameter(adj, nodes);
+				if (valid && d >= 0) {
+					count[d]++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Test(groups = "10s")
+	public void testUndirected() {
+		int n = 4;
+		int[] expected = bruteForce(n, false);
+		for (int d = 0; d < n; d++) {
+			GraphModel model = new GraphModel();
+			UndirectedGraph ub = new UndirectedGraph(model, n, SetType.BITSET, false);
+			for (int i = 0; i < n; i++) {
+				ub.addNode(i);
+				for (int j = i + 1; j < n; j++) {
+					ub.addEdge(i, j);
+				}
+			}
+			UndirectedGraphVar g = model.graphVar("g", new UndirectedGraph(model, n, SetType.BITSET, false), ub);
+			IntVar diam = model.intVar("d", d);
+			model.diameter(g, diam).post();
+			model.getSolver().setSearch(new GraphStrategy(g));
+			while (model.getSolver().solve()) {
+				Assert.assertEquals(diameter(value(g), nodes(g)), d);
+			}
+			Assert.assertEquals(model.getSolver().getSolutionCount(), expected[d], "diameter " + d);
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testDirected() {
+		int n = 3;
+		int[] expected = bruteForce(n, true);
+		for (int d = 0; d < n; d++) {
+			GraphModel model = new GraphModel();
+			DirectedGraph ub = new DirectedGraph(model, n, SetType.BITSET, false);
+			for (int i = 0; i < n; i++) {
+				ub.addNode(i);
+				for (int j = 0; j < n; j++) {
+					if (i != j) {
+						ub.addArc(i, j);
+					}
+				}
+			}
+			DirectedGraphVar g = model.digraphVar("g", new DirectedGraph(model, n, SetType.BITSET, false), ub);
+			IntVar diam = model.intVar("d", d);
+			model.diameter(g, diam).post();
+			model.getSolver().setSearch(new GraphStrategy(g));
+			while (model.getSolver().solve()) {
+				Assert.assertEquals(diameter(value(g), nodes(g)), d);
+			}
+			Assert.assertEquals(model.getSolver().getSolutionCount(), expected[d], "diameter " + d);
+		}
+	}
+}
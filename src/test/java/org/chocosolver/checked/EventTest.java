@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.variables.GraphEventType;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.graphsolver.variables.delta.GraphDelta;
+import org.chocosolver.graphsolver.variables.delta.GraphDeltaMonitor;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class EventTest {
+
+	private static class PropCount extends Propagator<UndirectedGraphVar> {
+		private final int conditions;
+		private int calls, unexpected;
+
+		PropCount(UndirectedGraphVar g, int conditions) {
+			super(new UndirectedGraphVar[]{g}, PropagatorPriority.LINEAR, true);
+			this.conditions = conditions;
+		}
+
+		@Override
+		public int getPropagationConditions(int vIdx) {
+			return conditions;
+		}
+
+		@Override
+		public void propagate(int evtmask) {
+		}
+
+		@Override
+		public void propagate(int idxVarInProp, int mask) {
+			calls++;
+			if ((mask & conditions) == 0) {
+				unexpected++;
+			}
+		}
+
+		@Override
+		public ESat isEntailed() {
+			return ESat.TRUE;
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testPropagationConditions() {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 6, true);
+		int[] masks = {
+				GraphEventType.ADD_ARC.getMask(),
+				GraphEventType.REMOVE_ARC.getMask(),
+				GraphEventType.ADD_NODE.getMask() | GraphEventType.REMOVE_NODE.getMask(),
+				GraphEventType.REMOVE_ARC.getMask() | GraphEventType.ADD_ARC.getMask()
+		};
+		PropCount[] props = new PropCount[masks.length];
+		for (int i = 0; i < masks.length; i++) {
+			props[i] = new PropCount(g, masks[i]);
+			new Constraint("count", props[i]).post();
+		}
+		model.nbEdges(g, model.intVar(5)).post();
+		while (model.getSolver().solve()) ;
+		Assert.assertTrue(model.getSolver().getSolutionCount() > 0);
+		for (PropCount p : props) {
+			Assert.assertEquals(p.unexpected, 0);
+		}
+		Assert.assertTrue(props[0].calls > 0);
+		Assert.assertTrue(props[1].calls > 0);
+		// every node is mandatory: nodes never change
+		Assert.assertEquals(props[2].calls, 0);
+		Assert.assertTrue(props[3].calls >= Math.max(props[0].calls, props[1].calls));
+	}
+
+	@Test(groups = "1s")
+	public void testLazyDelta() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 4, true);
+		GraphDeltaMonitor gdm = g.monitorDelta(Cause.Null, GraphEventType.ADD_ARC);
+		GraphDelta delta = g.getDelta();
+		Assert.assertTrue(delta.isRecording(GraphDelta.AE_TAIL));
+		Assert.assertFalse(delta.isRecording(GraphDelta.AR_TAIL));
+		Assert.assertFalse(delta.isRecording(GraphDelta.NR));
+		ICause other = new ICause() {
+		};
+		model.getEnvironment().worldPush();
+		gdm.freeze();
+		gdm.unfreeze();
+		g.removeArc(0, 1, other);
+		g.enforceArc(1, 2, other);
+		Assert.assertEquals(delta.getSize(GraphDelta.AR_TAIL), 0);
+		Assert.assertEquals(delta.getSize(GraphDelta.AE_TAIL), 1);
+		int[] count = new int[1];
+		gdm.freeze();
+		gdm.forEachArc((i, j) -> count[0]++, GraphEventType.ADD_ARC);
+		gdm.unfreeze();
+		Assert.assertEquals(count[0], 1);
+		g.monitorDelta(Cause.Null, GraphEventType.REMOVE_ARC);
+		Assert.assertTrue(delta.isRecording(GraphDelta.AR_TAIL));
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.search.lns.ClusterNeighbor;
+import org.chocosolver.graphsolver.search.lns.ComponentNeighbor;
+import org.chocosolver.graphsolver.search.lns.GraphNeighbor;
+import org.chocosolver.graphsolver.search.lns.SubpathNeighbor;
+import org.chocosolver.graphsolver.search.lns.WorstCostNeighbor;
+import org.chocosolver.graphsolver.search.strategy.GraphSearch;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class LNSTest {
+
+	private static int[][] costs(int n) {
+		Random rd = new Random(0);
+		int[][] costs = new int[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				costs[i][j] = costs[j][i] = rd.nextInt(100);
+			}
+		}
+		return costs;
+	}
+
+	private static int solveTSP(int[][] costs, int lns) {
+		return solveTSP(costs, lns, false);
+	}
+
+	private static int solveTSP(int[][] costs, int lns, boolean phaseSaving) {
+		int n = costs.length;
+		GraphModel model = new GraphModel();
+		UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.LINKED_LIST, true);
+		UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BIPARTITESET, true);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				GUB.addEdge(i, j);
+			}
+		}
+		UndirectedGraphVar g = model.graphVar("g", GLB, GUB);
+		IntVar obj = model.intVar("obj", 0, 100000, true);
+		model.tsp(g, obj, costs, 0).post();
+		model.setObjective(Model.MINIMIZE, obj);
+		Solver solver = model.getSolver();
+		GraphSearch search = new GraphSearch(g, costs).configure(GraphSearch.MIN_COST);
+		solver.setSearch(phaseSaving ? search.usePhaseSaving() : search);
+		INeighbor neighbor = null;
+		switch (lns) {
+			case 1:
+				neighbor = new SubpathNeighbor(g, 3, 0);
+				break;
+			case 2:
+				neighbor = new ClusterNeighbor(g, costs, 3, 0);
+				break;
+			case 3:
+				neighbor = new WorstCostNeighbor(g, costs, 3, 0);
+				break;
+			case 4:
+				neighbor = new ComponentNeighbor(g, 0);
+				break;
+			case 5:
+				neighbor = new ClusterNeighbor(g, EdgeCost.of(costs), 3, 0);
+				break;
+			case 6:
+				neighbor = new WorstCostNeighbor(g, EdgeCost.of(costs), 3, 0);
+				break;
+		}
+		if (neighbor != null) {
+			solver.setLNS(neighbor, new FailCounter(model, 10));
+			solver.limitFail(5000);
+		}
+		int best = -1;
+		while (solver.solve()) {
+			best = obj.getValue();
+		}
+		return best;
+	}
+
+	@Test(groups = "10s")
+	public void testTSP() {
+		int[][] costs = costs(9);
+		int opt = solveTSP(costs, 0);
+		for (int lns = 1; lns <= 6; lns++) {
+			Assert.assertEquals(solveTSP(costs, lns), opt);
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testPhaseSaving() {
+		int[][] costs = costs(9);
+		int opt = solveTSP(costs, 0);
+		for (int lns = 0; lns <= 4; lns++) {
+			Assert.assertEquals(solveTSP(costs, lns, true), opt);
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testFixSomeVariables() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 6);
+		model.nbNodes(g, model.intVar(3)).post();
+		model.nbEdges(g, model.intVar(2)).post();
+		Solver solver = model.getSolver();
+		Assert.assertTrue(solver.solve());
+		UndirectedGraph sol = new UndirectedGraph(6, SetType.BITSET, false);
+		for (int i : g.getMandatoryNodes()) {
+			sol.addNode(i);
+			for (int j : g.getMandNeighOf(i)) {
+				sol.addEdge(i, j);
+			}
+		}
+		// relaxes the first node of the solution
+		int r = sol.getNodes().iterator().next();
+		GraphNeighbor neighbor = new GraphNeighbor(g, 1, 0) {
+			@Override
+			protected void selectRelaxedNodes() {
+				relax(r);
+			}
+		};
+		neighbor.recordSolution();
+		solver.reset();
+		neighbor.fixSomeVariables();
+		for (int i : g.getPotentialNodes()) {
+			if (i != r) {
+				if (sol.getNodes().contains(i)) {
+					Assert.assertTrue(g.getMandatoryNodes().contains(i));
+				} else {
+					// nodes out of the solution may only be linked to the relaxed node
+					Assert.assertTrue(g.getPotNeighOf(i).contains(r));
+				}
+				for (int j : g.getPotNeighOf(i)) {
+					if (j != r) {
+						Assert.assertTrue(sol.edgeExists(i, j));
+						Assert.assertTrue(g.getMandNeighOf(i).contains(j));
+					}
+				}
+			}
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testWorstCostOverflow() throws ContradictionException {
+		// node 0 is incident to the two expensive edges of the cycle: its cost exceeds the int range
+		int big = 1500000000;
+		EdgeCost costs = new EdgeCost() {
+			@Override
+			public int getNbNodes() {
+				return 4;
+			}
+
+			@Override
+			public int getCost(int i, int j) {
+				return i == 0 || j == 0 ? big : 1;
+			}
+		};
+		for (long seed = 0; seed < 10; seed++) {
+			GraphModel model = new GraphModel();
+			UndirectedGraph lb = new UndirectedGraph(model, 4, SetType.BITSET, true);
+			UndirectedGraph ub = new UndirectedGraph(model, 4, SetType.BITSET, true);
+			for (int i = 0; i < 4; i++) {
+				lb.addEdge(i, (i + 1) % 4);
+				ub.addEdge(i, (i + 1) % 4);
+			}
+			UndirectedGraphVar g = model.graphVar("g", lb, ub);
+			Assert.assertTrue(model.getSolver().solve());
+			int[] picked = new int[1];
+			WorstCostNeighbor neighbor = new WorstCostNeighbor(g, costs, 1, seed) {
+				@Override
+				protected void selectRelaxedNodes() {
+					super.selectRelaxedNodes();
+					picked[0] = relaxed.nextSetBit(0);
+				}
+			};
+			neighbor.recordSolution();
+			model.getSolver().reset();
+			neighbor.fixSomeVariables();
+			// the relaxed node is picked among the two worst nodes: 0 and 1
+			Assert.assertTrue(picked[0] == 0 || picked[0] == 1, "relaxed node " + picked[0]);
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.util.MultiSourceBFS;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class MultiSourceBFSTest {
+
+	private static UndirectedGraph randomGraph(int n, double density, Random rd) {
+		UndirectedGraph g = new UndirectedGraph(n, SetType.BITSET, true);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				if (rd.nextDouble() < density) {
+					g.addEdge(i, j);
+				}
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * @return distances from root (-1 if unreachable)
+	 */
+	private static int[] distances(UndirectedGraph g, int root) {
+		int n = g.getNbMaxNodes();
+		int[] dist = new int[n];
+		Arrays.fill(dist, -1);
+		int[] queue = new int[n];
+		dist[root] = 0;
+		queue[0] = root;
+		for (int head = 0, tail = 1; head < tail; head++) {
+			int u = queue[head];
+			for (int v : g.getNeighOf(u)) {
+				if (dist[v] == -1) {
+					dist[v] = dist[u] + 1;
+					queue[tail++] = v;
+				}
+			}
+		}
+		return dist;
+	}
+
+	/**
+	 * @return the girth of g (n + 1 if acyclic), from the shortest path between the ends of each edge
+	 */
+	private static int girth(UndirectedGraph g) {
+		int n = g.getNbMaxNodes();
+		int best = n + 1;
+		for (int u = 0; u < n; u++) {
+			for (int v : g.getNeighOf(u).toArray()) {
+				if (u < v) {
+					g.removeEdge(u, v);
+					int d = distances(g, u)[v];
+					g.addEdge(u, v);
+					if (d >= 0) {
+						best = Math.min(best, d + 1);
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	@Test(groups = "1s")
+	public void testDistances() {
+		Random rd = new Random(0);
+		for (int k = 0; k < 20; k++) {
+			int n = 100;
+			UndirectedGraph g = randomGraph(n, rd.nextDouble() * 0.05, rd);
+			int[] sources = new int[n];
+			for (int i = 0; i < n; i++) {
+				sources[i] = i;
+			}
+			int[][] dist = new int[n][n];
+			for (int[] d : dist) {
+				Arrays.fill(d, -1);
+			}
+			MultiSourceBFS bfs = new MultiSourceBFS(n);
+			for (int from = 0; from < n; from += MultiSourceBFS.MAX_SOURCES) {
+				int offset = from;
+				int count = Math.min(MultiSourceBFS.MAX_SOURCES, n - from);
+				int max = bfs.run(sources, from, count, g::getNeighOf, (node, srcs, depth) -> {
+					for (long m = srcs; m != 0; m &= m - 1) {
+						int s = offset + Long.numberOfTrailingZeros(m);
+						Assert.assertEquals(dist[s][node], -1);
+						dist[s][node] = depth;
+					}
+				});
+				int expectedMax = 0;
+				for (int i = 0; i < count; i++) {
+					int[] expected = distances(g, from + i);
+					Assert.assertEquals(dist[from + i], expected);
+					for (int y = 0; y < n; y++) {
+						expectedMax = Math.max(expectedMax, expected[y]);
+						Assert.assertEquals((bfs.getSeen(y) & (1L << i)) != 0, expected[y] >= 0);
+					}
+				}
+				Assert.assertEquals(max, expectedMax);
+			}
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testGirth() {
+		Random rd = new Random(0);
+		for (int k = 0; k < 50; k++) {
+			int n = 70;
+			UndirectedGraph g = randomGraph(n, rd.nextDouble() * 0.04, rd);
+			int[] sources = new int[n];
+			for (int i = 0; i < n; i++) {
+				sources[i] = i;
+			}
+			int[] best = {n + 1};
+			MultiSourceBFS bfs = new MultiSourceBFS(n);
+			for (int from = 0; from < n; from += MultiSourceBFS.MAX_SOURCES) {
+				bfs.run(sources, from, Math.min(MultiSourceBFS.MAX_SOURCES, n - from), g::getNeighOf, new MultiSourceBFS.Visitor() {
+					@Override
+					public void reached(int node, long sources, int depth) {
+					}
+
+					@Override
+					public void cycle(long sources, int length) {
+						best[0] = Math.min(best[0], length);
+					}
+				});
+			}
+			Assert.assertEquals(best[0], girth(g));
+		}
+	}
+}
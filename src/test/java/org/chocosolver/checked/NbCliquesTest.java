@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.cstrs.basic.PropTransitivity;
+import org.chocosolver.graphsolver.cstrs.connectivity.PropNbCC;
+import org.chocosolver.graphsolver.search.strategy.GraphStrategy;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class NbCliquesTest {
+
+	/**
+	 * @param redundant whether the clique bound propagator is used
+	 * @return the number of partitions of a random graph into k cliques
+	 */
+	private static long count(int n, int k, long seed, boolean redundant) {
+		Random rd = new Random(seed);
+		GraphModel model = new GraphModel();
+		UndirectedGraph lb = new UndirectedGraph(model, n, SetType.BITSET, false);
+		UndirectedGraph ub = new UndirectedGraph(model, n, SetType.BITSET, false);
+		for (int i = 0; i < n; i++) {
+			ub.addNode(i);
+			ub.addEdge(i, i);
+			if (rd.nextBoolean()) {
+				lb.addNode(i);
+			}
+			for (int j = i + 1; j < n; j++) {
+				if (rd.nextInt(4) > 0) {
+					ub.addEdge(i, j);
+				}
+			}
+		}
+		UndirectedGraphVar g = model.graphVar("g", lb, ub);
+		IntVar nb = model.intVar("nb", k);
+		if (redundant) {
+			model.nbCliques(g, nb).post();
+		} else {
+			new Constraint("NbCliques", new PropTransitivity(g), new PropNbCC(g, nb)).post();
+		}
+		model.getSolver().setSearch(new GraphStrategy(g));
+		while (model.getSolver().solve()) ;
+		return model.getSolver().getSolutionCount();
+	}
+
+	@Test(groups = "10s")
+	public void testPartitions() {
+		int n = 6;
+		for (long seed = 0; seed < 10; seed++) {
+			for (int k = 1; k <= n; k++) {
+				Assert.assertEquals(count(n, k, seed, true), count(n, k, seed, false), "seed " + seed + ", k " + k);
+			}
+		}
+	}
+}
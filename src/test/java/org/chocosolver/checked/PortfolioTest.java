@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.GraphPortfolio;
+import org.chocosolver.graphsolver.util.cost.EdgeCost;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.ParallelPortfolio;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+public class PortfolioTest {
+
+	private static GraphModel makeTSP(int[][] costs) {
+		GraphModel model = new GraphModel();
+		int n = costs.length;
+		UndirectedGraph GLB = new UndirectedGraph(model, n, SetType.LINKED_LIST, true);
+		UndirectedGraph GUB = new UndirectedGraph(model, n, SetType.BIPARTITESET, true);
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				GUB.addEdge(i, j);
+			}
+		}
+		UndirectedGraphVar g = model.graphVar("g", GLB, GUB);
+		IntVar obj = model.intVar("obj", 0, 100000, true);
+		model.tsp(g, obj, costs, 0).post();
+		model.setObjective(Model.MINIMIZE, obj);
+		return model;
+	}
+
+	@Test(groups = "10s")
+	public void testTSP() {
+		int n = 8;
+		Random rd = new Random(0);
+		int[][] costs = new int[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				costs[i][j] = costs[j][i] = rd.nextInt(100);
+			}
+		}
+		GraphModel seq = makeTSP(costs);
+		int opt = -1;
+		while (seq.getSolver().solve()) {
+			opt = ((IntVar) seq.getObjective()).getValue();
+		}
+		for (boolean matrix : new boolean[]{true, false}) {
+			GraphPortfolio builder = new GraphPortfolio(() -> makeTSP(costs));
+			ParallelPortfolio portfolio = (matrix ? builder.setCostMatrix(costs) : builder.setCosts(EdgeCost.of(costs))).build(5);
+			int best = -1;
+			while (portfolio.solve()) {
+				best = ((IntVar) portfolio.getBestModel().getObjective()).getValue();
+			}
+			Assert.assertEquals(best, opt);
+		}
+	}
+}
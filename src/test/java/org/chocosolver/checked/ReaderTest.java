@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.io.GraphInstance;
+import org.chocosolver.graphsolver.io.GraphReader;
+import org.chocosolver.util.objects.graphs.DirectedGraph;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+public class ReaderTest {
+
+	private static InputStream stream(String s) {
+		return new ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Test(groups = "1s")
+	public void testTSPLIBCoordinates() throws IOException {
+		GraphInstance inst = GraphReader.readTSPLIB(stream(
+				"NAME : square\nTYPE : TSP\nDIMENSION : 4\nEDGE_WEIGHT_TYPE : EUC_2D\nNODE_COORD_SECTION\n" +
+						"1 0 0\n2 3.0 0\n3 3 4\n 4   0   4\nEOF\n"));
+		Assert.assertEquals(inst.getName(), "square");
+		Assert.assertEquals(inst.getNbNodes(), 4);
+		Assert.assertTrue(inst.isComplete());
+		Assert.assertFalse(inst.isDirected());
+		Assert.assertEquals(inst.getNbArcs(), 6);
+		Assert.assertEquals(inst.getCost(0, 1), 3);
+		Assert.assertEquals(inst.getCost(0, 2), 5);
+		Assert.assertEquals(inst.getCost(3, 0), 4);
+		UndirectedGraph ub = inst.createUndirectedUB(new GraphModel(), SetType.BIPARTITESET);
+		Assert.assertEquals(ub.getNeighOf(0).size(), 3);
+		Assert.assertFalse(ub.edgeExists(0, 0));
+	}
+
+	@Test(groups = "1s", timeOut = 10000)
+	public void testLargeCompleteUB() throws IOException {
+		// the upper bounds of complete instances are implicit: n^2 arcs would not fit in memory
+		int n = 100000;
+		StringBuilder st = new StringBuilder("NAME: large\nTYPE: TSP\nDIMENSION: " + n + "\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n");
+		for (int i = 0; i < n; i++) {
+			st.append(i + 1).append(' ').append(i % 1000).append(' ').append(i / 1000).append('\n');
+		}
+		GraphInstance inst = GraphReader.readTSPLIB(stream(st.append("EOF\n").toString()));
+		Assert.assertTrue(inst.isComplete());
+		UndirectedGraph ub = inst.createUndirectedUB(new GraphModel(), SetType.BITSET);
+		Assert.assertEquals(ub.getNodes().size(), n);
+		Assert.assertEquals(ub.getNeighOf(7).size(), n - 1);
+		Assert.assertFalse(ub.edgeExists(7, 7));
+		Assert.assertTrue(ub.edgeExists(n - 1, 0));
+		DirectedGraph dub = inst.createDirectedUB(new GraphModel(), SetType.BITSET);
+		Assert.assertEquals(dub.getSuccOf(7).size(), n - 1);
+		Assert.assertEquals(dub.getPredOf(0).size(), n - 1);
+		Assert.assertFalse(dub.arcExists(7, 7));
+		Assert.assertTrue(dub.arcExists(n - 1, 0));
+	}
+
+	@Test(groups = "1s")
+	public void testTSPLIBGeo() throws IOException {
+		int[][] costs = GraphReader.readTSPLIB(Paths.get("src/test/java/org/chocosolver/samples/tsp/burma14.tsp")).getCostMatrix();
+		Assert.assertEquals(costs.length, 14);
+		Assert.assertEquals(costs[0], new int[]{0, 153, 510, 706, 966, 581, 455, 70, 160, 372, 157, 567, 342, 398});
+	}
+
+	@Test(groups = "1s")
+	public void testTSPLIBExplicit() throws IOException {
+		String header = "NAME: m\nTYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EXPLICIT\n";
+		int[][] expected = {{0, 1, 2}, {1, 0, 3}, {2, 3, 0}};
+		Assert.assertEquals(GraphReader.readTSPLIB(stream(header + "EDGE_WEIGHT_FORMAT: UPPER_ROW\nEDGE_WEIGHT_SECTION\n1 2\n3\nEOF\n")).getCostMatrix(), expected);
+		Assert.assertEquals(GraphReader.readTSPLIB(stream(header + "EDGE_WEIGHT_FORMAT: LOWER_DIAG_ROW\nEDGE_WEIGHT_SECTION\n0 1 0 2 3 0\nEOF\n")).getCostMatrix(), expected);
+		Assert.assertEquals(GraphReader.readTSPLIB(stream(header + "EDGE_WEIGHT_FORMAT: FULL_MATRIX\nEDGE_WEIGHT_SECTION\n0 1 2\n1 0 3\n2 3 0\n")).getCostMatrix(), expected);
+		GraphInstance atsp = GraphReader.readTSPLIB(stream("NAME: a\nTYPE: ATSP\nDIMENSION: 2\nEDGE_WEIGHT_TYPE: EXPLICIT\n" +
+				"EDGE_WEIGHT_FORMAT: FULL_MATRIX\nEDGE_WEIGHT_SECTION\n9 4\n7 9\nEOF"));
+		Assert.assertTrue(atsp.isDirected());
+		Assert.assertEquals(atsp.getCost(0, 1), 4);
+		Assert.assertEquals(atsp.getCost(1, 0), 7);
+	}
+
+	@Test(groups = "1s")
+	public void testTSPLIBHamiltonian() throws IOException {
+		GraphInstance inst = GraphReader.readTSPLIB(stream(
+				"NAME : h\nTYPE : HCP\nDIMENSION : 4\nEDGE_DATA_FORMAT : EDGE_LIST\nEDGE_DATA_SECTION\n1 2\n 2 3\n3 4\n4 1\n-1\nEOF\n"));
+		Assert.assertFalse(inst.isComplete());
+		Assert.assertFalse(inst.hasCosts());
+		Assert.assertEquals(inst.getNbArcs(), 4);
+		UndirectedGraph ub = inst.createUndirectedUB(new GraphModel(), SetType.LINKED_LIST);
+		Assert.assertTrue(ub.edgeExists(3, 0));
+		Assert.assertFalse(ub.edgeExists(0, 2));
+	}
+
+	@Test(groups = "1s")
+	public void testDIMACS() throws IOException {
+		GraphInstance col = GraphReader.readDIMACS(stream("c a triangle\np edge 3 3\ne 1 2\ne 2 3\ne 3 1\n"));
+		Assert.assertFalse(col.isDirected());
+		Assert.assertEquals(col.getNbNodes(), 3);
+		Assert.assertEquals(col.getNbArcs(), 3);
+		GraphInstance sp = GraphReader.readDIMACS(stream("c shortest path\np sp 3 2\na 1 2 10\na 2 3 20\n"));
+		Assert.assertTrue(sp.isDirected());
+		Assert.assertEquals(sp.getCost(1, 2), 20);
+		DirectedGraph ub = sp.createDirectedUB(new GraphModel(), SetType.BITSET);
+		Assert.assertTrue(ub.arcExists(0, 1));
+		Assert.assertFalse(ub.arcExists(1, 0));
+	}
+
+	@Test(groups = "1s")
+	public void testEdgeList() throws IOException {
+		GraphInstance inst = GraphReader.readEdgeList(stream("# weighted edges\n0 1 5\n1 2 7\n\n% last one\n2 4 1"), false);
+		Assert.assertEquals(inst.getNbNodes(), 5);
+		Assert.assertEquals(inst.getNbArcs(), 3);
+		Assert.assertEquals(inst.getCost(1, 0), 5);
+		Assert.assertEquals(inst.getCost(4, 2), 1);
+		Assert.assertEquals(inst.getCostMatrix()[2][1], 7);
+		try {
+			inst.getCost(0, 2);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			// not an edge
+		}
+		try {
+			GraphReader.readEdgeList(stream("0 1 5\n1 2\n"), true);
+			Assert.fail();
+		} catch (IOException e) {
+			// partially weighted
+		}
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.search.strategy.GraphSearch;
+import org.chocosolver.graphsolver.search.strategy.GraphStrategy;
+import org.chocosolver.graphsolver.search.strategy.arcs.DomOverWDegArc;
+import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.function.Function;
+
+import static org.chocosolver.graphsolver.search.strategy.GraphStrategy.NodeArcPriority.ARCS;
+
+/**
+ * Checks that every graph search strategy enumerates the same solutions
+ */
+public class SearchTest {
+
+	private static long countUndirected(Function<UndirectedGraphVar, AbstractStrategy> search) {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 5, true);
+		model.maxDegrees(g, 2).post();
+		model.connected(g).post();
+		model.getSolver().setSearch(search.apply(g));
+		return model.getSolver().streamSolutions().count();
+	}
+
+	private static long countDirected(Function<DirectedGraphVar, AbstractStrategy> search) {
+		GraphModel model = new GraphModel();
+		DirectedGraphVar g = model.digraphVar("g", 4, true);
+		model.maxOutDegrees(g, 1).post();
+		model.noCircuit(g).post();
+		model.getSolver().setSearch(search.apply(g));
+		return model.getSolver().streamSolutions().count();
+	}
+
+	@Test(groups = "10s")
+	public void testUndirected() {
+		long nb = countUndirected(GraphStrategy::new);
+		Assert.assertTrue(nb > 0);
+		for (long seed = 0; seed < 5; seed++) {
+			final long s = seed;
+			Assert.assertEquals(countUndirected(g -> new GraphStrategy(g, s)), nb);
+		}
+		for (int policy = GraphSearch.LEX; policy <= GraphSearch.MAX_DELTA_DEGREE; policy++) {
+			final int p = policy;
+			Assert.assertEquals(countUndirected(g -> new GraphSearch(g).configure(p)), nb);
+			Assert.assertEquals(countUndirected(g -> new GraphSearch(g).configure(p, false)), nb);
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testDirected() {
+		long nb = countDirected(GraphStrategy::new);
+		Assert.assertTrue(nb > 0);
+		for (long seed = 0; seed < 5; seed++) {
+			final long s = seed;
+			Assert.assertEquals(countDirected(g -> new GraphStrategy(g, s)), nb);
+		}
+		for (int policy = GraphSearch.LEX; policy <= GraphSearch.MAX_DELTA_DEGREE; policy++) {
+			final int p = policy;
+			Assert.assertEquals(countDirected(g -> new GraphSearch(g).configure(p)), nb);
+			Assert.assertEquals(countDirected(g -> new GraphSearch(g).configure(p, false)), nb);
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testCostPolicies() {
+		int[][] costs = new int[5][5];
+		for (int i = 0; i < 5; i++) {
+			for (int j = 0; j < 5; j++) {
+				costs[i][j] = (7 * i + 3 * j) % 5;
+			}
+		}
+		long nbU = countUndirected(GraphStrategy::new);
+		long nbD = countDirected(GraphStrategy::new);
+		for (int policy = GraphSearch.MIN_COST; policy <= GraphSearch.MAX_COST; policy++) {
+			final int p = policy;
+			Assert.assertEquals(countUndirected(g -> new GraphSearch(g, costs).configure(p)), nbU);
+			Assert.assertEquals(countUndirected(g -> new GraphSearch(g, costs).configure(p, false)), nbU);
+			Assert.assertEquals(countDirected(g -> new GraphSearch(g, costs).configure(p)), nbD);
+			Assert.assertEquals(countDirected(g -> new GraphSearch(g, costs).configure(p, false)), nbD);
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testDomOverWDeg() {
+		long nbU = countUndirected(GraphStrategy::new);
+		long nbD = countDirected(GraphStrategy::new);
+		Assert.assertEquals(countUndirected(g -> new GraphStrategy(g, null, new DomOverWDegArc(g), ARCS)), nbU);
+		Assert.assertEquals(countDirected(g -> new GraphStrategy(g, null, new DomOverWDegArc(g), ARCS)), nbD);
+		Assert.assertEquals(countUndirected(g -> new GraphStrategy(g, null, new DomOverWDegArc(g, 0.95, true), ARCS)), nbU);
+		Assert.assertEquals(countDirected(g -> new GraphStrategy(g, null, new DomOverWDegArc(g, 0.95, true), ARCS)), nbD);
+	}
+
+	private static Solver gridCycle(Function<UndirectedGraphVar, AbstractStrategy> search) {
+		// hamiltonian cycles on a 4x4 grid with one diagonal per cell
+		GraphModel model = new GraphModel();
+		int n = 16;
+		UndirectedGraph lb = new UndirectedGraph(model, n, SetType.BITSET, true);
+		UndirectedGraph ub = new UndirectedGraph(model, n, SetType.BITSET, true);
+		for (int i = 0; i < n; i++) {
+			if (i % 4 < 3) {
+				ub.addEdge(i, i + 1);
+			}
+			if (i + 4 < n) {
+				ub.addEdge(i, i + 4);
+				if (i % 4 < 3) {
+					ub.addEdge(i, i + 5);
+				}
+			}
+		}
+		UndirectedGraphVar g = model.graphVar("g", lb, ub);
+		model.cycle(g).post();
+		model.getSolver().setSearch(search.apply(g));
+		return model.getSolver();
+	}
+
+	@Test(groups = "10s")
+	public void testDomOverWDegLearns() {
+		Solver ref = gridCycle(GraphStrategy::new);
+		long nb = ref.streamSolutions().count();
+		Assert.assertTrue(nb > 0);
+		DomOverWDegArc[] wdeg = new DomOverWDegArc[1];
+		Solver solver = gridCycle(g -> {
+			wdeg[0] = new DomOverWDegArc(g, 0.9, false);
+			return new GraphStrategy(g, null, wdeg[0], ARCS);
+		});
+		Assert.assertEquals(solver.streamSolutions().count(), nb);
+		Assert.assertTrue(solver.getFailCount() > 0);
+		boolean learnt = false;
+		for (int i = 0; i < 16; i++) {
+			learnt |= wdeg[0].getWeight(i) > 1;
+		}
+		Assert.assertTrue(learnt);
+	}
+
+	/**
+	 * @return a strategy which checks that every decision of search is on an arc of best score
+	 */
+	private static AbstractStrategy<GraphVar> checkBestArcs(GraphVar g, GraphSearch search, int policy) {
+		return new AbstractStrategy<GraphVar>(g) {
+			@Override
+			public boolean init() {
+				return search.init();
+			}
+
+			@Override
+			public Decision<GraphVar> getDecision() {
+				Decision<GraphVar> dec = search.getDecision();
+				if (dec != null) {
+					int[] arc = (int[]) dec.getDecisionValue();
+					int best = Integer.MAX_VALUE;
+					for (int i = 0; i < g.getNbMaxNodes(); i++) {
+						for (int j : g.getPotSuccOrNeighOf(i)) {
+							if (!g.getMandSuccOrNeighOf(i).contains(j)) {
+								best = Math.min(best, score(g, policy, i, j));
+							}
+						}
+					}
+					Assert.assertEquals(score(g, policy, arc[0], arc[1]), best);
+				}
+				return dec;
+			}
+		};
+	}
+
+	// scores of delta-driven policies, negated for maximization
+	private static int score(GraphVar g, int policy, int i, int j) {
+		switch (policy) {
+			case GraphSearch.MIN_P_DEGREE:
+				return g.getPotSuccOrNeighOf(i).size() + g.getPotPredOrNeighOf(j).size();
+			case GraphSearch.MAX_M_DEGREE:
+				return -g.getMandSuccOrNeighOf(i).size() - g.getMandPredOrNeighOf(j).size();
+			default:
+				return g.getPotSuccOrNeighOf(i).size() - g.getMandSuccOrNeighOf(i).size()
+						+ g.getPotPredOrNeighOf(j).size() - g.getMandPredOrNeighOf(j).size();
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testDeltaDrivenPolicies() {
+		long nbU = gridCycle(GraphStrategy::new).streamSolutions().count();
+		long nbD = countDirected(GraphStrategy::new);
+		for (int p : new int[]{GraphSearch.MIN_P_DEGREE, GraphSearch.MAX_M_DEGREE, GraphSearch.MIN_DELTA_DEGREE}) {
+			Assert.assertEquals(gridCycle(g -> checkBestArcs(g, new GraphSearch(g).configure(p), p)).streamSolutions().count(), nbU);
+			Assert.assertEquals(gridCycle(g -> checkBestArcs(g, new GraphSearch(g).configure(p, false), p)).streamSolutions().count(), nbU);
+			Assert.assertEquals(countDirected(g -> checkBestArcs(g, new GraphSearch(g).configure(p), p)), nbD);
+			Assert.assertEquals(countDirected(g -> checkBestArcs(g, new GraphSearch(g).configure(p, false), p)), nbD);
+		}
+	}
+
+	@Test(groups = "10s")
+	public void testPhaseSaving() {
+		long nbU = countUndirected(GraphStrategy::new);
+		long nbD = countDirected(GraphStrategy::new);
+		Assert.assertEquals(countUndirected(g -> new GraphStrategy(g).usePhaseSaving()), nbU);
+		Assert.assertEquals(countDirected(g -> new GraphStrategy(g, 0).usePhaseSaving()), nbD);
+		Assert.assertEquals(countUndirected(g -> new GraphSearch(g).configure(GraphSearch.MIN_DELTA_DEGREE).usePhaseSaving()), nbU);
+		Assert.assertEquals(countDirected(g -> new GraphSearch(g).configure(GraphSearch.MAX_P_DEGREE, false).usePhaseSaving()), nbD);
+	}
+
+	@Test(groups = "10s")
+	public void testReconfigure() {
+		long nb = countUndirected(GraphStrategy::new);
+		// switches the branching policy in the middle of the search
+		Assert.assertEquals(countUndirected(g -> {
+			GraphSearch search = new GraphSearch(g).configure(GraphSearch.MIN_DELTA_DEGREE);
+			int[] nbSols = new int[1];
+			g.getModel().getSolver().plugMonitor((IMonitorSolution) () -> {
+				search.configure((++nbSols[0] % 2 == 0) ? GraphSearch.MAX_DELTA_DEGREE : GraphSearch.MIN_M_DEGREE);
+			});
+			return search;
+		}), nb);
+	}
+
+	@Test(groups = "10s")
+	public void testOptionalNodes() {
+		Function<Function<UndirectedGraphVar, AbstractStrategy>, Long> count = search -> {
+			GraphModel model = new GraphModel();
+			UndirectedGraphVar g = model.graphVar("g", 5);
+			model.maxDegrees(g, 1).post();
+			model.getSolver().setSearch(search.apply(g));
+			return model.getSolver().streamSolutions().count();
+		};
+		long nb = count.apply(GraphStrategy::new);
+		Assert.assertTrue(nb > 0);
+		for (long seed = 0; seed < 5; seed++) {
+			final long s = seed;
+			Assert.assertEquals((long) count.apply(g -> new GraphStrategy(g, s)), nb);
+		}
+	}
+}
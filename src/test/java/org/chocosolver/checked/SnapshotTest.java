@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.GraphSolution;
+import org.chocosolver.graphsolver.search.lns.SubpathNeighbor;
+import org.chocosolver.graphsolver.variables.DirectedGraphVar;
+import org.chocosolver.graphsolver.variables.GraphSnapshot;
+import org.chocosolver.graphsolver.variables.GraphVar;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SnapshotTest {
+
+	private static void checkSnapshot(GraphVar g, GraphSnapshot s) {
+		int n = g.getNbMaxNodes();
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			Assert.assertEquals(s.containsNode(i), g.getMandatoryNodes().contains(i));
+			for (int j = 0; j < n; j++) {
+				boolean arc = g.getMandatoryNodes().contains(i) && g.getMandSuccOrNeighOf(i).contains(j);
+				Assert.assertEquals(s.containsArc(i, j), arc);
+				m += arc ? 1 : 0;
+			}
+		}
+		Assert.assertEquals(s.getNbArcs(), m);
+		Assert.assertEquals(s.getNbNodes(), g.getMandatoryNodes().size());
+	}
+
+	private static void restoreAll(GraphModel model, GraphVar g, IntVar nbArcs) throws ContradictionException {
+		List<GraphSolution> sols = new ArrayList<>();
+		GraphSolution sol = new GraphSolution(model);
+		model.getSolver().plugMonitor((IMonitorSolution) () -> {
+			sols.add(sol.record().copySolution());
+			checkSnapshot(g, sol.getGraphVal(g));
+		});
+		while (model.getSolver().solve()) ;
+		Assert.assertTrue(sols.size() > 1);
+		IEnvironment env = model.getEnvironment();
+		for (GraphSolution s : sols) {
+			env.worldPush();
+			s.restore();
+			Assert.assertTrue(g.isInstantiated());
+			Assert.assertEquals(g.getSnapshot(), s.getGraphVal(g));
+			Assert.assertEquals(nbArcs.getValue(), s.getIntVal(nbArcs));
+			env.worldPop();
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testDirected() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		DirectedGraphVar g = model.digraphVar("g", 4);
+		IntVar nbArcs = model.intVar("nbArcs", 0, 3);
+		model.nbArcs(g, nbArcs).post();
+		model.maxOutDegrees(g, 1).post();
+		restoreAll(model, g, nbArcs);
+	}
+
+	@Test(groups = "1s")
+	public void testUndirected() throws ContradictionException {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 4);
+		IntVar nbEdges = model.intVar("nbEdges", 0, 3);
+		model.nbEdges(g, nbEdges).post();
+		model.maxDegrees(g, 2).post();
+		restoreAll(model, g, nbEdges);
+	}
+
+	@Test(groups = "1s")
+	public void testLoadFromSolution() {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 5, true);
+		model.cycle(g).post();
+		GraphSolution sol = new GraphSolution(model);
+		Assert.assertTrue(model.getSolver().solve());
+		sol.record();
+		SubpathNeighbor neighbor = new SubpathNeighbor(g, 2, 0);
+		neighbor.loadFromSolution(sol);
+		try {
+			neighbor.loadFromSolution(new Solution(model));
+			Assert.fail();
+		} catch (UnsupportedOperationException e) {
+			// a plain solution does not store graph variables
+		}
+	}
+}
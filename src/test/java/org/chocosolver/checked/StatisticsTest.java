@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 1999-2014, Ecole des Mines de Nantes
+ * All rights reserved.
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the Ecole des Mines de Nantes nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.checked;
+
+import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.cstrs.GraphStatistics;
+import org.chocosolver.graphsolver.io.GraphReader;
+import org.chocosolver.graphsolver.search.strategy.GraphSearch;
+import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.IntVar;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class StatisticsTest {
+
+	@Test(groups = "10s")
+	public void testTSP() throws IOException {
+		int[][] costs = GraphReader.readTSPLIB(Paths.get("src/test/java/org/chocosolver/samples/tsp/burma14.tsp")).getCostMatrix();
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", costs.length, true);
+		IntVar cost = model.intVar("cost", 0, 99999, true);
+		model.tsp(g, cost, costs, 1).post();
+		GraphStatistics stats = model.recordGraphStatistics();
+		Assert.assertSame(model.recordGraphStatistics(), stats);
+		Solver solver = model.getSolver();
+		solver.setSearch(new GraphSearch(g, costs).configure(GraphSearch.MIN_COST, true));
+		model.setObjective(Model.MINIMIZE, cost);
+		while (solver.solve()) ;
+		Assert.assertEquals(solver.getBestSolutionValue().intValue(), 3323);
+
+		long removed = 0, enforced = 0, passes = 0, failures = 0;
+		for (GraphStatistics.Entry e : stats.getEntries()) {
+			removed += e.getNbRemovedArcs();
+			enforced += e.getNbEnforcedArcs();
+			passes += e.getNbCalls();
+			failures += e.getNbFailures();
+			Assert.assertTrue(e.getTimeNanos() >= 0);
+		}
+		Assert.assertTrue(removed > 0);
+		Assert.assertTrue(enforced > 0);
+		Assert.assertTrue(passes > 0);
+		Assert.assertTrue(failures > 0);
+		Assert.assertTrue(stats.toString().contains("PropLagrOneTree"));
+
+		stats.reset();
+		for (GraphStatistics.Entry e : stats.getEntries()) {
+			Assert.assertEquals(e.getNbFilterings() + e.getNbCalls() + e.getNbFailures(), 0);
+		}
+	}
+
+	@Test(groups = "1s")
+	public void testDisabled() {
+		GraphModel model = new GraphModel();
+		UndirectedGraphVar g = model.graphVar("g", 5, true);
+		model.connected(g).post();
+		Assert.assertNull(model.getGraphStatistics());
+		Assert.assertTrue(model.getSolver().solve());
+	}
+}
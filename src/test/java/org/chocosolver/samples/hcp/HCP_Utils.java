@@ -29,9 +29,10 @@ package org.chocosolver.samples.hcp;
 
 import gnu.trove.list.array.TIntArrayList;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
+import org.chocosolver.graphsolver.io.GraphInstance;
+import org.chocosolver.graphsolver.io.GraphReader;
+
+import java.nio.file.Paths;
 
 /**
  * Parses and generates Hamiltonian Cycle Problem instances
@@ -167,30 +168,16 @@ public class HCP_Utils {
     //***********************************************************************************
 
     public static boolean[][] parseTSPLIBInstance(String url) {
-        File file = new File(url);
         try {
-            BufferedReader buf = new BufferedReader(new FileReader(file));
-            String line = buf.readLine();
-            String name = line.split(":")[1].replaceAll(" ", "");
-            System.out.println("parsing instance " + name + "...");
-            line = buf.readLine();
-            line = buf.readLine();
-            line = buf.readLine();
-            int n = Integer.parseInt(line.split(":")[1].replaceAll(" ", ""));
+            GraphInstance instance = GraphReader.readTSPLIB(Paths.get(url));
+            System.out.println("parsing instance " + instance.getName() + "...");
+            int n = instance.getNbNodes();
             boolean[][] matrix = new boolean[n][n];
-            line = buf.readLine();
-            line = buf.readLine();
-            line = buf.readLine();
-            String[] lineNumbers;
-            int i, j;
-            while (!line.equals("-1")) {
-                line = line.replaceAll(" +", ";");
-                lineNumbers = line.split(";");
-                i = Integer.parseInt(lineNumbers[1]) - 1;
-                j = Integer.parseInt(lineNumbers[2]) - 1;
+            for (int k = 0; k < instance.getNbArcs(); k++) {
+                int i = instance.getTail(k);
+                int j = instance.getHead(k);
                 matrix[i][j] = true;
                 matrix[j][i] = true;
-                line = buf.readLine();
             }
             return matrix;
         } catch (Exception e) {
@@ -28,22 +28,17 @@
 package org.chocosolver.samples.tsp;
 
 import org.chocosolver.graphsolver.GraphModel;
+import org.chocosolver.graphsolver.search.lns.SubpathNeighbor;
 import org.chocosolver.graphsolver.search.strategy.GraphSearch;
 import org.chocosolver.graphsolver.variables.UndirectedGraphVar;
 import org.chocosolver.solver.Model;
-import org.chocosolver.solver.Solution;
 import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.limits.FailCounter;
 import org.chocosolver.solver.search.loop.lns.neighbors.INeighbor;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.objects.graphs.UndirectedGraph;
-import org.chocosolver.util.objects.setDataStructures.ISet;
 import org.chocosolver.util.objects.setDataStructures.SetType;
 
-import java.util.Iterator;
-import java.util.Random;
-
 /**
  * LNS approach to solve the Traveling Salesman Problem
  * Parses TSP instances of the TSPLIB library
@@ -100,13 +95,13 @@ public class TSP_lns {
 		model.tsp(graph, totalCost, costMatrix, 2).post();
 
 		// intuitive heuristic (cheapest edges first)
-		final GraphSearch search = new GraphSearch(graph, costMatrix).configure(GraphSearch.MIN_COST);
+		final GraphSearch search = new GraphSearch(graph, costMatrix).configure(GraphSearch.MIN_COST).usePhaseSaving();
 		Solver solver = model.getSolver();
 		solver.setSearch(search);
 		solver.limitTime(LIMIT+"s");
 
 		// LNS (relaxes consecutive edges)
-		INeighbor LNS = new SubpathLNS(graph);
+		INeighbor LNS = new SubpathNeighbor(graph, 15, 0);
 		solver.setLNS(LNS,new FailCounter(model,30));
 
 		model.setObjective(Model.MINIMIZE, totalCost);
@@ -137,88 +132,4 @@ public class TSP_lns {
 	public boolean optimalityProved() {
 		return opt;
 	}
-
-	//***********************************************************************************
-	// LNS
-	//***********************************************************************************
-
-	/**
-	 * Object describing which edges to freeze and which others to relax in the LNS
-	 * Relaxes a (sub)path of the previous solution (freezes the rest)
-	 */
-	private class SubpathLNS implements INeighbor{
-
-		Random rd = new Random(0);
-		int n, nbRL;
-		UndirectedGraph solution;
-		int nbFreeEdges = 15;
-		UndirectedGraphVar graph;
-
-		protected SubpathLNS(UndirectedGraphVar graph) {
-			this.graph = graph;
-			this.n = graph.getNbMaxNodes();
-			this.solution = new UndirectedGraph(n,SetType.LINKED_LIST,true);
-		}
-
-		@Override
-		public void init() {}
-
-		@Override
-		public void recordSolution() {
-			// stores a solution in a graph object
-			for(int i=0;i<n;i++)solution.getNeighOf(i).clear();
-			for(int i=0;i<n;i++){
-				ISet nei = graph.getMandNeighOf(i);
-				for(int j:nei){
-					solution.addEdge(i,j);
-				}
-			}
-		}
-
-		@Override
-		public void fixSomeVariables() throws ContradictionException {
-			// relaxes a sub-path (a set of consecutive edges in a solution)
-			int i1 = rd.nextInt(n);
-			ISet nei = solution.getNeighOf(i1);
-			Iterator<Integer> iter = nei.iterator();
-			int i2 = iter.next();
-			if (rd.nextBoolean()) {
-				i2 = iter.next();
-			}
-			for (int k = 0; k < n - nbFreeEdges; k++) {
-				graph.enforceArc(i1,i2,this);
-				int i3 = -1;
-				for (int z : solution.getNeighOf(i2)) {
-					if (z != i1) {
-						i3 = z;
-						break;
-					}
-				}
-				assert i3 >= 0;
-				i1 = i2;
-				i2 = i3;
-			}
-		}
-
-		@Override
-		public void restrictLess() {
-			nbRL++;
-			// Eventually increases the size of the relaxes fragment (not necessary)
-			if(nbRL>nbFreeEdges){
-				nbRL = 0;
-				nbFreeEdges += (nbFreeEdges*3)/2;
-			}
-		}
-
-		@Override
-		public boolean isSearchComplete() {
-			return nbFreeEdges>=n;
-		}
-
-		@Override
-		public void loadFromSolution(Solution solution) {
-			throw new UnsupportedOperationException("not implemented");
-		}
-		
-	}
 }